@@ -0,0 +1,34 @@
+package org.blockframe.benchmarks;
+
+import java.io.IOException;
+
+import org.blockframe.core.WarmUp;
+
+
+/**
+ * Times the first documents built in a fresh JVM, to show the cost of a cold start.
+ * <p>
+ * This builds a document like {@link ThroughputHarness}'s <code>PageFrame</code> workload, with a hundred paragraphs, several times,
+ * and prints the time of each. The first is slower, by the time to load PDF-Box's fonts and BlockFrame's classes, and to compile the hot methods.
+ * <p>
+ * Usage: <code>ColdStart [-warmUp]</code>. With <code>-warmUp</code>, {@link WarmUp#warmUp()} is called first, and its time printed.
+ * Each run needs a fresh JVM, so run the program once with and once without the option.
+ */
+public class ColdStart {
+
+	public static void main(String[] args) throws IOException {
+		long start = System.nanoTime();
+		if (args.length>0 && args[0].equals("-warmUp")) {
+			long warmUpNanos = WarmUp.warmUp();
+			System.out.println(String.format("warm-up     %8.1f ms", warmUpNanos/1e6));
+		}
+		ThroughputHarness.PageFrame workload = new ThroughputHarness.PageFrame(100);
+		for (int run=1 ; run<=5 ; run++) {
+			long runStart = System.nanoTime();
+			workload.run();
+			System.out.println(String.format("document %d  %8.1f ms", run, (System.nanoTime()-runStart)/1e6));
+		}
+		System.out.println(String.format("total       %8.1f ms", (System.nanoTime()-start)/1e6));
+	}
+
+}
@@ -0,0 +1,259 @@
+package org.blockframe.benchmarks;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.blockframe.blocks.FrameReading;
+import org.blockframe.blocks.StringBlock;
+import org.blockframe.core.Block;
+import org.blockframe.core.Canvas;
+import org.blockframe.core.CountingCanvas;
+import org.blockframe.core.DebugLog;
+import org.blockframe.core.DebugLog.Verbosity;
+import org.blockframe.core.Frame;
+
+
+/**
+ * Builds independent documents on several threads at once, to find where the threads get in each other's way.
+ * <p>
+ * For each thread count, this reports:
+ * <ul>
+ * <li>Documents per second, and the scaling efficiency: the speed-up over one thread, divided by the number of threads.</li>
+ * <li>Time the threads spent blocked on monitors, and waiting, from {@link ThreadMXBean} contention monitoring.</li>
+ * <li>Duplicate block ids. Every block written by the threads is recorded, and two blocks with the same {@link Block.BlockId#idNumber}
+ * mean an update of the shared id counter was lost.</li>
+ * </ul>
+ * While the threads run, they are sampled. Each sample of a blocked thread is charged to the lock and the innermost BlockFrame method,
+ * and the most frequent are listed as hotspots.
+ * <p>
+ * Usage: <code>ConcurrencyBenchmark [-threads 1,2,4,8] [-docs N] [-paragraphs N] [-layoutOnly] [-logging]</code>.
+ * <ul>
+ * <li><code>-docs</code> is the number of documents each thread builds. Default 20.</li>
+ * <li><code>-paragraphs</code> is the number of hundred-word paragraphs in each document. Default 100.</li>
+ * <li><code>-layoutOnly</code> draws onto a {@link CountingCanvas}, leaving out PDF-Box.</li>
+ * <li><code>-logging</code> turns on {@link DebugLog} at {@link Verbosity#ENTERING_5}, to measure contention on its lock.
+ * The messages are cleared after each document.</li>
+ * </ul>
+ */
+public class ConcurrencyBenchmark {
+
+	private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+	public static void main(String[] args) throws Exception {
+		int processorCount = Runtime.getRuntime().availableProcessors();
+		List<Integer> threadCounts = new ArrayList<Integer>();
+		Settings settings = new Settings();
+		for (int i=0 ; i<args.length ; i++) {
+			String arg = args[i];
+			if (arg.equals("-threads")) {
+				for (String count : args[++i].split(",")) threadCounts.add(Integer.parseInt(count.trim()));
+			}
+			else if (arg.equals("-docs")) settings.docCount = Integer.parseInt(args[++i]);
+			else if (arg.equals("-paragraphs")) settings.paragraphCount = Integer.parseInt(args[++i]);
+			else if (arg.equals("-layoutOnly")) settings.isLayoutOnly = true ;
+			else if (arg.equals("-logging")) DebugLog.loggingVerbosity = Verbosity.ENTERING_5 ;
+			else throw new IllegalArgumentException("Unknown option "+arg);
+		}
+		if (threadCounts.isEmpty()) {
+			for (int count=1 ; count<=2*processorCount ; count*=2) threadCounts.add(count);
+		}
+		if (threadBean.isThreadContentionMonitoringSupported()) threadBean.setThreadContentionMonitoringEnabled(true);
+		System.out.println(processorCount+" processors, "+settings.docCount+" docs per thread, "+settings.paragraphCount+" paragraphs per doc"
+				+(settings.isLayoutOnly ? ", layout only" : "")+(DebugLog.loggingVerbosity>0 ? ", logging on" : ""));
+		/* Warm up the JIT, so the single-thread run isn't penalised. */
+		run(settings, 1);
+		System.out.println(String.format("%7s %9s %10s %11s %11s %11s %10s", "threads", "docs/s", "efficiency", "blocked ms", "blocked n", "waited ms", "dup ids"));
+		double singleThreadRate = 0 ;
+		List<Run> runs = new ArrayList<Run>();
+		for (int threadCount : threadCounts) {
+			Run run = run(settings, threadCount);
+			runs.add(run);
+			double rate = run.getDocsPerSecond();
+			if (threadCount==1) singleThreadRate = rate ;
+			String efficiency = (singleThreadRate>0) ? String.format("%9.0f%%", 100 * rate / (singleThreadRate*threadCount)) : "" ;
+			System.out.println(String.format("%7d %9.1f %10s %11d %11d %11d %10d", threadCount, rate, efficiency,
+					run.blockedMillis, run.blockedCount, run.waitedMillis, run.duplicateIdCount));
+		}
+		printHotspots(runs);
+	}
+
+	static class Settings {
+		int docCount = 20 ;
+		int paragraphCount = 100 ;
+		boolean isLayoutOnly = false ;
+	}
+
+	/**
+	 * Results of running a number of threads.
+	 */
+	static class Run {
+		int threadCount ;
+		int docCount ;
+		long nanos ;
+		long blockedMillis ;
+		long blockedCount ;
+		long waitedMillis ;
+		int duplicateIdCount ;
+		final Map<String,Integer> hotspots = new HashMap<String,Integer>();
+		double getDocsPerSecond() {
+			return docCount / (nanos/1e9) ;
+		}
+	}
+
+	/**
+	 * Runs the threads to completion, sampling them while they run.
+	 */
+	static Run run(final Settings settings, int threadCount) throws InterruptedException {
+		System.gc();
+		Run run = new Run();
+		run.threadCount = threadCount ;
+		run.docCount = threadCount * settings.docCount ;
+		final Worker[] workers = new Worker[threadCount] ;
+		Thread[] threads = new Thread[threadCount] ;
+		long[] threadIds = new long[threadCount] ;
+		for (int i=0 ; i<threadCount ; i++) {
+			workers[i] = new Worker(settings);
+			threads[i] = new Thread(workers[i], "worker-"+i);
+			threadIds[i] = threads[i].getId();
+		}
+		long start = System.nanoTime();
+		for (Thread thread : threads) thread.start();
+		//////  Sample the threads until they finish
+		boolean isAnyAlive = true ;
+		while (isAnyAlive) {
+			Thread.sleep(1);
+			isAnyAlive = false ;
+			for (Thread thread : threads) if (thread.isAlive()) isAnyAlive = true ;
+			for (ThreadInfo info : threadBean.getThreadInfo(threadIds, 16)) {
+				if (info==null || info.getThreadState()!=Thread.State.BLOCKED) continue ;
+				String hotspot = info.getLockName()+" in "+getInnermostBlockFrameMethod(info.getStackTrace());
+				Integer count = run.hotspots.get(hotspot);
+				run.hotspots.put(hotspot, (count!=null) ? count+1 : 1);
+			}
+		}
+		run.nanos = System.nanoTime() - start ;
+		//////  Gather the results
+		int idCount = 0 ;
+		for (int i=0 ; i<threadCount ; i++) {
+			if (workers[i].exception!=null) throw new RuntimeException("Worker failed", workers[i].exception);
+			run.blockedMillis += workers[i].blockedMillis ;
+			run.blockedCount += workers[i].blockedCount ;
+			run.waitedMillis += workers[i].waitedMillis ;
+			idCount += workers[i].idCount ;
+		}
+		long[] allIds = new long[idCount] ;
+		int next = 0 ;
+		for (Worker worker : workers) {
+			System.arraycopy(worker.ids, 0, allIds, next, worker.idCount);
+			next += worker.idCount ;
+		}
+		Arrays.sort(allIds);
+		for (int i=1 ; i<allIds.length ; i++) if (allIds[i]==allIds[i-1]) run.duplicateIdCount ++ ;
+		return run ;
+	}
+
+	private static String getInnermostBlockFrameMethod(StackTraceElement[] stack) {
+		for (StackTraceElement element : stack) {
+			if (element.getClassName().startsWith("org.blockframe.")) return element.getClassName().replace("org.blockframe.", "")+"."+element.getMethodName();
+		}
+		return "(outside BlockFrame)" ;
+	}
+
+	static void printHotspots(List<Run> runs) {
+		Map<String,Integer> totals = new HashMap<String,Integer>();
+		int sampleCount = 0 ;
+		for (Run run : runs) {
+			for (Map.Entry<String,Integer> entry : run.hotspots.entrySet()) {
+				Integer total = totals.get(entry.getKey());
+				totals.put(entry.getKey(), (total!=null ? total : 0) + entry.getValue());
+				sampleCount += entry.getValue();
+			}
+		}
+		System.out.println();
+		if (sampleCount==0) {
+			System.out.println("No blocked threads were sampled.");
+			return ;
+		}
+		List<Map.Entry<String,Integer>> entries = new ArrayList<Map.Entry<String,Integer>>(totals.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<String,Integer>>() {
+			public int compare(Map.Entry<String,Integer> a, Map.Entry<String,Integer> b) {
+				return b.getValue() - a.getValue();
+			}
+		});
+		System.out.println("Blocked samples by lock and method ("+sampleCount+" samples):");
+		for (int i=0 ; i<entries.size() && i<10 ; i++) {
+			System.out.println(String.format("%7d  %s", entries.get(i).getValue(), entries.get(i).getKey()));
+		}
+	}
+
+	/**
+	 * Builds documents on one thread, recording the id of every block it writes.
+	 */
+	static class Worker implements Runnable {
+
+		final Settings settings ;
+
+		long[] ids = new long[1024] ;
+
+		int idCount = 0 ;
+
+		long blockedMillis ;
+
+		long blockedCount ;
+
+		long waitedMillis ;
+
+		Throwable exception ;
+
+		Worker(Settings settings) {
+			this.settings = settings ;
+		}
+
+		public void run() {
+			try {
+				for (int doc=0 ; doc<settings.docCount ; doc++) buildDocument();
+			} catch (Throwable e) {
+				this.exception = e ;
+			}
+			ThreadInfo info = threadBean.getThreadInfo(Thread.currentThread().getId());
+			this.blockedCount = info.getBlockedCount();
+			this.blockedMillis = Math.max(0, info.getBlockedTime());
+			this.waitedMillis = Math.max(0, info.getWaitedTime());
+		}
+
+		void buildDocument() throws IOException {
+			final CountingCanvas.Tally tally = new CountingCanvas.Tally();
+			ScalingRunner.UnsavedDocument document = new ScalingRunner.UnsavedDocument() {
+				@Override
+				protected Canvas newCanvas(PDPage pdPage) throws IOException {
+					if (settings.isLayoutOnly) return new CountingCanvas(pdPage.getMediaBox().getHeight(), tally);
+					return super.newCanvas(pdPage);
+				}
+			};
+			for (int p=0 ; p<settings.paragraphCount ; p++) {
+				Frame paragraph = record(new FrameReading());
+				for (int i=0 ; i<100 ; i++) paragraph.write(record(new StringBlock(UtilsForBenchmarks.word(p+i))));
+				document.write(paragraph);
+			}
+			document.makePagesAndClose();
+			if (DebugLog.loggingVerbosity>0) DebugLog.clear();
+		}
+
+		<T extends Block> T record(T block) {
+			if (idCount==ids.length) ids = Arrays.copyOf(ids, 2*idCount);
+			ids[idCount++] = block.id.idNumber ;
+			return block ;
+		}
+	}
+
+}
@@ -0,0 +1,260 @@
+package org.blockframe.benchmarks;
+
+import java.util.Random;
+
+import org.blockframe.blocks.FrameHorizontal;
+import org.blockframe.blocks.FrameReading;
+import org.blockframe.blocks.FrameVertical;
+import org.blockframe.blocks.StringBlock;
+import org.blockframe.core.Block;
+import org.blockframe.core.Frame;
+import org.blockframe.core.PdfChapter;
+import org.blockframe.examples.UtilsForExamples;
+import org.blockframe.benchmarks.LayoutBenchmarks.NumberTable;
+import org.blockframe.benchmarks.LayoutBenchmarks.UnsplittableParagraph;
+
+
+/**
+ * Builds synthetic documents of a configurable shape and size, for measuring how layout scales.
+ * <p>
+ * The content is a tree. The inner nodes are frames, nested {@link #setDepth(int) depth} levels deep,
+ * each holding {@link #setFanout(int) fanout} children. They are {@link FrameVertical} by default, or another type, or a mix. See {@link #setFrameType(FrameType)}.
+ * The leaves are one of:
+ * <ul>
+ * <li>A paragraph - a {@link FrameReading} of {@link #setParagraphWords(int) paragraphWords} words.
+ * A fraction of these, given by {@link #setUnsplittableRatio(double)}, may not be split over pages.</li>
+ * <li>A row - a {@link FrameHorizontal} of <code>fanout</code> short words. See {@link #setRowRatio(double)}.</li>
+ * <li>A table - a {@link NumberTable} of the configured dimensions. See {@link #setTable(int, int, double)}.</li>
+ * </ul>
+ * Each leaf may be wrapped in a chain of single-child frames. See {@link #setPipeLinkChain(int)}.
+ * <p>
+ * The words are built by {@link UtilsForBenchmarks#word(int)}, starting at random places, so their widths vary.
+ * The same seed always gives the same document.
+ * <p>
+ * The size of a document is its number of leaves. Most setters return <code>this</code>, so they can be chained.
+ */
+public class CorpusGenerator {
+
+	/**
+	 * The type of the inner nodes of the tree.
+	 */
+	public enum FrameType {
+		VERTICAL, HORIZONTAL, READING,
+		/**
+		 * Each inner node is chosen at random from the other types.
+		 */
+		MIXED
+	}
+
+	private int depth = 0 ;
+
+	private FrameType frameType = FrameType.VERTICAL ;
+
+	private int pipeLinkChain = 0 ;
+
+	private int fanout = 8 ;
+
+	private int paragraphWords = 100 ;
+
+	private double unsplittableRatio = 0 ;
+
+	private double rowRatio = 0 ;
+
+	private int tableRows = 10 ;
+
+	private int tableColumns = 10 ;
+
+	private double tableRatio = 0 ;
+
+	private long seed = 1 ;
+
+	/**
+	 * Sets how many levels of nested frames hold the leaves. Zero means the leaves are written straight to the chapter.
+	 */
+	public CorpusGenerator setDepth(int depth) {
+		this.depth = depth ;
+		return this ;
+	}
+
+	/**
+	 * Sets the type of the nested frames. The default is {@link FrameType#VERTICAL}.
+	 * <p>
+	 * A {@link FrameHorizontal} places its children side by side, so most of its paragraphs are pushed to its next fill.
+	 * A {@link FrameReading} flows its children along lines, each a block of its own.
+	 * Both make the parent frames fill and revert many more times than {@link FrameVertical} does.
+	 */
+	public CorpusGenerator setFrameType(FrameType frameType) {
+		this.frameType = frameType ;
+		return this ;
+	}
+
+	/**
+	 * Sets how many single-child {@link FrameVertical} frames wrap each leaf. Zero, the default, leaves the leaves bare.
+	 * <p>
+	 * Each wrapper's pipe holds one block. When a leaf is split over pages, every wrapper around it is incomplete,
+	 * so finding the next block to fill follows the chain of <code>FramePipeLink.getNextBlockToFill</code> links through all of them.
+	 */
+	public CorpusGenerator setPipeLinkChain(int pipeLinkChain) {
+		this.pipeLinkChain = pipeLinkChain ;
+		return this ;
+	}
+
+	/**
+	 * Sets how many children each nested frame holds, and how many words each row holds.
+	 */
+	public CorpusGenerator setFanout(int fanout) {
+		this.fanout = fanout ;
+		return this ;
+	}
+
+	/**
+	 * Sets the number of words in each paragraph.
+	 */
+	public CorpusGenerator setParagraphWords(int paragraphWords) {
+		this.paragraphWords = paragraphWords ;
+		return this ;
+	}
+
+	/**
+	 * Sets the fraction of paragraphs which may not be split over pages. These are laid out whole on the next page if they don't fit.
+	 */
+	public CorpusGenerator setUnsplittableRatio(double unsplittableRatio) {
+		this.unsplittableRatio = unsplittableRatio ;
+		return this ;
+	}
+
+	/**
+	 * Sets the fraction of leaves which are horizontal rows of words, rather than paragraphs.
+	 */
+	public CorpusGenerator setRowRatio(double rowRatio) {
+		this.rowRatio = rowRatio ;
+		return this ;
+	}
+
+	/**
+	 * Sets the dimensions of tables, and the fraction of leaves which are tables.
+	 * <p>
+	 * A {@link NumberTable} can't be split, so a table taller than a page can never be placed. Keep <code>tableRows</code> under about fifty.
+	 */
+	public CorpusGenerator setTable(int tableRows, int tableColumns, double tableRatio) {
+		this.tableRows = tableRows ;
+		this.tableColumns = tableColumns ;
+		this.tableRatio = tableRatio ;
+		return this ;
+	}
+
+	/**
+	 * Sets the seed of the random choices.
+	 */
+	public CorpusGenerator setSeed(long seed) {
+		this.seed = seed ;
+		return this ;
+	}
+
+	/**
+	 * Returns a one-line description of the shape, for reports.
+	 */
+	public String describe() {
+		return "depth "+depth+" of "+frameType.name().toLowerCase()+", fanout "+fanout+", chain "+pipeLinkChain+", "+paragraphWords+" words/paragraph, unsplittable "+unsplittableRatio
+				+", rows "+rowRatio+", tables "+tableRatio+" of "+tableRows+"x"+tableColumns ;
+	}
+
+	/**
+	 * Writes a document of <code>leafCount</code> leaves into the chapter.
+	 *
+	 * @return The number of words written, counting table cells as words.
+	 */
+	public long write(PdfChapter chapter, int leafCount) {
+		Generation generation = new Generation(leafCount);
+		while (generation.leavesLeft>0) chapter.write(generation.next(0));
+		return generation.wordCount ;
+	}
+
+	/**
+	 * Writes a document of <code>leafCount</code> leaves into the frame.
+	 *
+	 * @return The number of words written, counting table cells as words.
+	 */
+	public long write(Frame frame, int leafCount) {
+		Generation generation = new Generation(leafCount);
+		while (generation.leavesLeft>0) frame.write(generation.next(0));
+		return generation.wordCount ;
+	}
+
+	/**
+	 * The state of writing one document.
+	 */
+	private class Generation {
+
+		final Random random = new Random(seed);
+
+		int leavesLeft ;
+
+		long wordCount = 0 ;
+
+		Generation(int leafCount) {
+			this.leavesLeft = leafCount ;
+		}
+
+		/**
+		 * Returns a subtree whose root is at the given level. Nested frames stop early when the leaves run out.
+		 */
+		Block next(int level) {
+			if (level>=depth) return wrap(nextLeaf(), pipeLinkChain);
+			Frame frame = newFrame(frameType);
+			for (int i=0 ; i<fanout && leavesLeft>0 ; i++) frame.write(next(level+1));
+			return frame ;
+		}
+
+		Frame newFrame(FrameType type) {
+			switch (type) {
+			case HORIZONTAL :
+				return new FrameHorizontal();
+			case READING :
+				return new FrameReading();
+			case MIXED :
+				return newFrame(FrameType.values()[random.nextInt(FrameType.MIXED.ordinal())]);
+			default :
+				return new FrameVertical();
+			}
+		}
+
+		/**
+		 * Wraps the block in a chain of single-child frames, <code>chainLength</code> deep.
+		 */
+		Block wrap(Block block, int chainLength) {
+			for (int i=0 ; i<chainLength ; i++) {
+				Frame wrapper = new FrameVertical();
+				wrapper.write(block);
+				block = wrapper ;
+			}
+			return block ;
+		}
+
+		Block nextLeaf() {
+			leavesLeft -- ;
+			double choice = random.nextDouble();
+			if (choice<tableRatio) {
+				wordCount += tableRows*tableColumns ;
+				return new NumberTable(tableRows, tableColumns);
+			}
+			if (choice<tableRatio+rowRatio) {
+				/* Short words, so a row usually fits across the page. */
+				Frame row = new FrameHorizontal();
+				for (int i=0 ; i<fanout ; i++) row.write(new StringBlock(UtilsForExamples.number(1+random.nextInt(20))));
+				wordCount += fanout ;
+				return row ;
+			}
+			boolean isUnsplittable = random.nextDouble()<unsplittableRatio ;
+			return writeWords(isUnsplittable ? new UnsplittableParagraph() : new FrameReading(), paragraphWords);
+		}
+
+		Frame writeWords(Frame frame, int count) {
+			int start = random.nextInt(999);
+			for (int i=0 ; i<count ; i++) frame.write(new StringBlock(UtilsForBenchmarks.word(start+i)));
+			wordCount += count ;
+			return frame ;
+		}
+	}
+
+}
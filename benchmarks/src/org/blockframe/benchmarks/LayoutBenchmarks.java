@@ -0,0 +1,435 @@
+package org.blockframe.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.blockframe.blocks.FrameReading;
+import org.blockframe.blocks.FrameVertical;
+import org.blockframe.blocks.StringBlock;
+import org.blockframe.blocks.TableBlock;
+import org.blockframe.core.Block;
+import org.blockframe.core.Block.PlacedBlock;
+import org.blockframe.core.Canvas;
+import org.blockframe.core.EmbeddedFonts;
+import org.blockframe.core.Frame;
+import org.blockframe.core.Kerning;
+import org.blockframe.core.Layout;
+import org.blockframe.core.PdfDocument;
+import org.blockframe.core.Quill;
+import org.blockframe.core.Quill.FontFamily;
+import org.blockframe.core.WordWidthCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * JMH suite timing the hot paths of the fill and draw passes.
+ * <p>
+ * The benchmarks are:
+ * <ul>
+ * <li><code>stringBlockFill</code> - measuring a single word.</li>
+ * <li><code>stringWidth</code> - measuring a thousand different words through {@link Quill#getStringWidth(String)}, and <code>pdFontStringWidth</code>, the same through PDF-Box's own {@link PDFont#getStringWidth(String)}.
+ * Both in Times-Roman, and in a TrueType font, which is measured through the {@link WordWidthCache}.
+ * Also in Times-Roman with {@link Kerning}, to compare with the unkerned cost.</li>
+ * <li><code>measureWords</code> - measuring the same thousand words in one call, from a single array of characters.</li>
+ * <li><code>frameReadingFill</code> - laying out a paragraph of 1k, 10k or 100k words, then reverting it.
+ * Also with optimal line breaking (see {@link FrameReading#setOptimalLineBreaking(boolean)}), to show its cost against greedy breaking.</li>
+ * <li><code>frameVerticalRevert</code> - paginating many short unsplittable paragraphs, so that every page rejects and reverts a paragraph.</li>
+ * <li><code>tableFill</code> and <code>tableDraw</code> - tables from 10x10 to 500x50 cells.</li>
+ * <li><code>writeFile</code> - building and writing a whole document.</li>
+ * <li><code>trueTypeDocument</code> - building and saving a document in a TrueType font, either parsing the font for each document,
+ * or parsing it once with {@link EmbeddedFonts}.</li>
+ * </ul>
+ * Each benchmark reports throughput, and the latency percentiles from JMH's sample-time mode.
+ * Build the module with <code>mvn package</code>, then run, for example:
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar LayoutBenchmarks -prof gc -rf json -rff baseline.json
+ * java -jar benchmarks/target/benchmarks.jar LayoutBenchmarks.frameReadingFill -p wordCount=10000
+ * </pre>
+ * Option <code>-prof gc</code> adds the allocation rate and bytes per operation. Keep the JSON results of a run as a baseline, to compare later runs against.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayoutBenchmarks {
+
+	/**
+	 * A single word. After the first fill, {@link StringBlock} uses its cached measurement.
+	 */
+	@State(Scope.Thread)
+	public static class StringBlockState {
+		final StringBlock block = new StringBlock("seventy");
+		final Quill quill = UtilsForBenchmarks.newQuill();
+		final Layout layout = UtilsForBenchmarks.newPageLayout();
+	}
+
+	@Benchmark
+	public PlacedBlock stringBlockFill(StringBlockState state) throws IOException {
+		return state.block.fill(state.quill, state.layout);
+	}
+
+	/**
+	 * A thousand different words, in the font chosen by parameter <code>font</code>.
+	 * <p>
+	 * Font <code>TrueType</code> is LiberationSans, a TrueType font bundled with PDF-Box.
+	 * Font <code>kerned</code> is Times-Roman, with kerning.
+	 */
+	@State(Scope.Thread)
+	public static class WordsState {
+		@Param({"Times-Roman", "TrueType", "kerned"})
+		public String font ;
+		final String[] words = new String[1000] ;
+		Quill quill ;
+		PDDocument pdDocument ;
+		@Setup
+		public void setUp() throws IOException {
+			for (int i=0 ; i<words.length ; i++) words[i] = UtilsForBenchmarks.word(i);
+			this.quill = UtilsForBenchmarks.newQuill();
+			if (font.equals("TrueType")) {
+				this.pdDocument = new PDDocument();
+				InputStream fontStream = PDFont.class.getResourceAsStream(TrueTypeDocumentState.FONT_RESOURCE);
+				try {
+					PDFont trueTypeFont = PDType0Font.load(pdDocument, fontStream);
+					this.quill = quill.copy(new FontFamily(trueTypeFont, null, null, null), null, null);
+				} finally {
+					fontStream.close();
+				}
+			} else if (font.equals("kerned")) {
+				this.quill = quill.copyKerning(true);
+			}
+		}
+		@TearDown
+		public void tearDown() throws IOException {
+			if (pdDocument!=null) pdDocument.close();
+		}
+	}
+
+	/**
+	 * Measures a thousand different words, without the caching done by {@link StringBlock}.
+	 */
+	@Benchmark
+	public double stringWidth(WordsState state) throws IOException {
+		Quill quill = state.quill ;
+		double width = 0 ;
+		for (String word : state.words) width += quill.getStringWidth(word);
+		return width ;
+	}
+
+	/**
+	 * Measures a thousand different words with PDF-Box's {@link PDFont#getStringWidth(String)}, for comparison with {@link #stringWidth(WordsState)}.
+	 */
+	@Benchmark
+	public double pdFontStringWidth(WordsState state) throws IOException {
+		PDFont font = state.quill.getFont();
+		double width = 0 ;
+		for (String word : state.words) width += font.getStringWidth(word);
+		return width ;
+	}
+
+	/**
+	 * The same thousand words as {@link WordsState}, in Times-Roman, separated by spaces in a single array of characters.
+	 */
+	@State(Scope.Thread)
+	public static class MeasureWordsState {
+		final Quill quill = UtilsForBenchmarks.newQuill();
+		final int wordCount = 1000 ;
+		final int[] starts = new int[wordCount] ;
+		final int[] ends = new int[wordCount] ;
+		final double[] widths = new double[wordCount] ;
+		char[] chars ;
+		@Setup
+		public void setUp() {
+			StringBuilder text = new StringBuilder();
+			for (int i=0 ; i<wordCount ; i++) {
+				if (i>0) text.append(' ');
+				starts[i] = text.length();
+				text.append(UtilsForBenchmarks.word(i));
+				ends[i] = text.length();
+			}
+			this.chars = text.toString().toCharArray();
+		}
+	}
+
+	/**
+	 * Measures a thousand different words in one call to {@link Quill#measureWords(char[], int[], int[], int, double[])}.
+	 */
+	@Benchmark
+	public double measureWords(MeasureWordsState state) throws IOException {
+		state.quill.measureWords(state.chars, state.starts, state.ends, state.wordCount, state.widths);
+		double width = 0 ;
+		for (int i=0 ; i<state.wordCount ; i++) width += state.widths[i] ;
+		return width ;
+	}
+
+	/**
+	 * A single paragraph, in a layout tall enough that it is never split.
+	 */
+	@State(Scope.Thread)
+	public static class FrameReadingState {
+		@Param({"1000", "10000", "100000"})
+		public int wordCount ;
+		@Param({"false", "true"})
+		public boolean isOptimalLineBreaking ;
+		final Quill quill = UtilsForBenchmarks.newQuill();
+		final Layout layout = UtilsForBenchmarks.newUnboundedLayout();
+		Frame paragraph ;
+		@Setup
+		public void setUp() {
+			this.paragraph = UtilsForBenchmarks.writeWords(new FrameReading().setOptimalLineBreaking(isOptimalLineBreaking), wordCount);
+		}
+	}
+
+	/**
+	 * Lays out a paragraph, then reverts it, ready for the next operation.
+	 * <p>
+	 * The frame keeps its children's measurements when it is reverted, so after the first operation no word is measured again,
+	 * and this times the line building alone.
+	 */
+	@Benchmark
+	public PlacedBlock frameReadingFill(FrameReadingState state) throws IOException {
+		PlacedBlock placedBlock = state.paragraph.fill(state.quill, state.layout);
+		placedBlock.revertToStart();
+		return placedBlock ;
+	}
+
+	/**
+	 * A {@link FrameVertical} holding many short paragraphs which may not be split.
+	 */
+	@State(Scope.Thread)
+	public static class FrameVerticalState {
+		@Param({"2000"})
+		public int paragraphCount ;
+		final Quill quill = UtilsForBenchmarks.newQuill();
+		final Layout layout = UtilsForBenchmarks.newPageLayout();
+		Frame page ;
+		@Setup
+		public void setUp() {
+			this.page = new FrameVertical();
+			for (int i=0 ; i<paragraphCount ; i++) page.write(UtilsForBenchmarks.writeWords(new UnsplittableParagraph(), 20+i%40));
+		}
+	}
+
+	/**
+	 * Paginates the frame, then reverts it.
+	 * A paragraph which doesn't fit at the bottom of a page is measured, rejected, reverted, and then measured again on the next page.
+	 */
+	@Benchmark
+	public int frameVerticalRevert(FrameVerticalState state) throws IOException {
+		return UtilsForBenchmarks.paginateAndRevert(state.page, state.quill, state.layout);
+	}
+
+	/**
+	 * A paragraph which is laid out whole, or not at all.
+	 */
+	static class UnsplittableParagraph extends FrameReading {
+		@Override
+		protected Layout inheritLayout(Layout receivedLayout) {
+			return super.inheritLayout(receivedLayout).copyAllowSplitting(false);
+		}
+	}
+
+	/**
+	 * A table whose cells hold the product of the row and column numbers, like {@link org.blockframe.examples.G_Table}.
+	 */
+	static class NumberTable extends TableBlock {
+		NumberTable(int rowCount, int columnCount) {
+			super(rowCount, columnCount);
+		}
+		@Override
+		protected Block getCellBlock(int row, int column) {
+			return new StringBlock(String.valueOf((row+1)*(column+1)));
+		}
+	}
+
+	/**
+	 * A table, sized by parameter <code>size</code> as rows x columns.
+	 */
+	@State(Scope.Thread)
+	public static class TableState {
+		@Param({"10x10", "100x20", "500x50"})
+		public String size ;
+		final Quill quill = UtilsForBenchmarks.newQuill();
+		final Layout layout = UtilsForBenchmarks.newUnboundedLayout();
+		NumberTable table ;
+		@Setup
+		public void setUp() {
+			this.table = newNumberTable(size);
+		}
+	}
+
+	/**
+	 * Returns a table of the size given as rows x columns, such as <code>"10x10"</code>.
+	 */
+	static NumberTable newNumberTable(String size) {
+		int x = size.indexOf('x');
+		return new NumberTable(Integer.parseInt(size.substring(0, x)), Integer.parseInt(size.substring(x+1)));
+	}
+
+	/**
+	 * Lays out a table. {@link TableBlock} builds fresh cell blocks on each fill.
+	 */
+	@Benchmark
+	public PlacedBlock tableFill(TableState state) throws IOException {
+		return state.table.fill(state.quill, state.layout);
+	}
+
+	/**
+	 * A document holding one table, on a page tall enough for the whole table.
+	 * It keeps the placed page frame from {@link PdfDocument#makePages()}, and makes fresh canvases to draw it on again.
+	 */
+	static class TableDrawDocument extends PdfDocument {
+		PDPage pdPage ;
+		double left ;
+		double top ;
+		PlacedBlock placedPageFrame ;
+		@Override
+		public Layout newPageLayout(PDPage pdPage, Page prevPage) {
+			return super.newPageLayout(pdPage, prevPage).setSize(null, Double.MAX_VALUE/2);
+		}
+		@Override
+		protected void drawPageFrame(Canvas canvas, double left, double top, PlacedBlock placedPageFrame) throws IOException {
+			this.pdPage = canvas.page ;
+			this.left = left ;
+			this.top = top ;
+			this.placedPageFrame = placedPageFrame ;
+		}
+		/**
+		 * Returns an open canvas over a new content stream, replacing the page's contents.
+		 */
+		Canvas newPageCanvas() throws IOException {
+			return newCanvas(pdPage);
+		}
+		void close() throws IOException {
+			pdDocument.close();
+		}
+	}
+
+	/**
+	 * The placed table, laid out once per trial, and a canvas for it, opened before and closed after each iteration.
+	 * <p>
+	 * {@link PdfDocument#makePages()} closes its canvas as soon as the page is drawn, so it can't be drawn on again.
+	 * Each iteration's canvas replaces the page's contents, so the content stream doesn't grow from one iteration to the next.
+	 */
+	@State(Scope.Thread)
+	public static class TableDrawState {
+		@Param({"10x10", "100x20", "500x50"})
+		public String size ;
+		TableDrawDocument document ;
+		Canvas canvas ;
+		@Setup(Level.Trial)
+		public void setUpTrial() throws IOException {
+			this.document = new TableDrawDocument();
+			document.write(newNumberTable(size));
+			document.makePages();
+		}
+		@Setup(Level.Iteration)
+		public void setUpIteration() throws IOException {
+			this.canvas = document.newPageCanvas();
+		}
+		@TearDown(Level.Iteration)
+		public void tearDownIteration() throws IOException {
+			canvas.close();
+		}
+		@TearDown(Level.Trial)
+		public void tearDownTrial() throws IOException {
+			document.close();
+		}
+	}
+
+	/**
+	 * Draws a table repeatedly onto one page.
+	 */
+	@Benchmark
+	public void tableDraw(TableDrawState state) throws IOException {
+		TableDrawDocument document = state.document ;
+		document.placedPageFrame.draw(state.canvas, document.left, document.top);
+	}
+
+	@State(Scope.Thread)
+	public static class WriteFileState {
+		@Param({"50"})
+		public int paragraphCount ;
+		File file ;
+		@Setup
+		public void setUp() throws IOException {
+			this.file = UtilsForBenchmarks.newTempPdfFile();
+		}
+	}
+
+	/**
+	 * Builds a document of paragraphs, and writes it to a temporary file.
+	 */
+	@Benchmark
+	public void writeFile(WriteFileState state) throws IOException {
+		PdfDocument document = new PdfDocument() {};
+		for (int i=0 ; i<state.paragraphCount ; i++) document.write(UtilsForBenchmarks.writeWords(new FrameReading(), 100));
+		document.writeFile(state.file);
+	}
+
+	@State(Scope.Thread)
+	public static class TrueTypeDocumentState {
+		static final String FONT_RESOURCE = "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf" ;
+		/**
+		 * Whether to load the font parsed by {@link EmbeddedFonts}, rather than parsing it for each document.
+		 */
+		@Param({"false", "true"})
+		public boolean isCached ;
+	}
+
+	/**
+	 * Builds and saves a short document in LiberationSans, embedding the glyphs used.
+	 */
+	@Benchmark
+	public void trueTypeDocument(TrueTypeDocumentState state) throws IOException {
+		FontDocument document = new FontDocument(state.isCached);
+		for (int i=0 ; i<5 ; i++) document.write(UtilsForBenchmarks.writeWords(new FrameReading(), 100));
+		document.save();
+	}
+
+	static class FontDocument extends PdfDocument {
+		final FontFamily family ;
+		FontDocument(boolean isCached) throws IOException {
+			PDFont font ;
+			if (isCached) {
+				font = loadFont(EmbeddedFonts.getTrueTypeFont(TrueTypeDocumentState.FONT_RESOURCE));
+			} else {
+				InputStream fontStream = PDFont.class.getResourceAsStream(TrueTypeDocumentState.FONT_RESOURCE);
+				try {
+					font = PDType0Font.load(pdDocument, fontStream);
+				} finally {
+					fontStream.close();
+				}
+			}
+			this.family = new FontFamily(font, null, null, null);
+		}
+		@Override
+		public Quill newPageQuill(Page prevPage) {
+			return super.newPageQuill(prevPage).copy(family, null, null);
+		}
+		void save() throws IOException {
+			makePages();
+			pdDocument.save(new ThroughputHarness.CountingOutputStream());
+			pdDocument.close();
+		}
+	}
+
+}
@@ -0,0 +1,171 @@
+package org.blockframe.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.blockframe.core.PdfDocument;
+
+
+/**
+ * Lays out documents from a {@link CorpusGenerator} at increasing sizes, and shows how time and heap grow with size.
+ * <p>
+ * For each size, this reports the time to build the content and run {@link PdfDocument#makePages()}, the time per leaf, and the peak heap.
+ * The column <code>slope</code> is the local exponent of the time: log(time ratio) / log(size ratio) against the previous size.
+ * Linear scaling gives a slope near 1. A slope well above 1 is where the behaviour turns super-linear.
+ * The saved document is not written anywhere, so PDF-Box's save time is excluded.
+ * <p>
+ * The smallest size is run a few times first, to warm up, and not reported.
+ * ASCII plots of time per leaf and of peak heap per leaf follow the table. A flat plot is linear scaling.
+ * <p>
+ * Usage: <code>ScalingRunner [options]</code>, where the options are:
+ * <ul>
+ * <li><code>-sizes 100,200,400</code> - the sizes to run, in leaves. The default doubles from 250 up to <code>-max</code>.</li>
+ * <li><code>-max N</code> - the largest default size. Default 64000.</li>
+ * <li><code>-depth N</code>, <code>-fanout N</code>, <code>-words N</code>, <code>-unsplittable F</code>, <code>-rows F</code>,
+ * <code>-table RxC F</code>, <code>-frames vertical|horizontal|reading|mixed</code>, <code>-chain N</code> - the shape, as set in {@link CorpusGenerator}.</li>
+ * <li><code>-runs N</code> - runs per size. The fastest is reported. Default 1.</li>
+ * <li><code>-csv FILE</code> - also writes the results to a CSV file.</li>
+ * </ul>
+ * For example, <code>ScalingRunner -depth 4 -fanout 4 -unsplittable 0.5</code>, or <code>ScalingRunner -depth 3 -frames mixed -chain 8</code>.
+ */
+public class ScalingRunner {
+
+	public static void main(String[] args) throws IOException {
+		CorpusGenerator generator = new CorpusGenerator();
+		List<Integer> sizes = new ArrayList<Integer>();
+		int maxSize = 64000 ;
+		int runCount = 1 ;
+		File csvFile = null ;
+		for (int i=0 ; i<args.length ; i++) {
+			String arg = args[i];
+			if (arg.equals("-sizes")) {
+				for (String size : args[++i].split(",")) sizes.add(Integer.parseInt(size.trim()));
+			}
+			else if (arg.equals("-max")) maxSize = Integer.parseInt(args[++i]);
+			else if (arg.equals("-depth")) generator.setDepth(Integer.parseInt(args[++i]));
+			else if (arg.equals("-fanout")) generator.setFanout(Integer.parseInt(args[++i]));
+			else if (arg.equals("-words")) generator.setParagraphWords(Integer.parseInt(args[++i]));
+			else if (arg.equals("-unsplittable")) generator.setUnsplittableRatio(Double.parseDouble(args[++i]));
+			else if (arg.equals("-rows")) generator.setRowRatio(Double.parseDouble(args[++i]));
+			else if (arg.equals("-table")) {
+				String[] dimensions = args[++i].split("x");
+				generator.setTable(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]), Double.parseDouble(args[++i]));
+			}
+			else if (arg.equals("-frames")) generator.setFrameType(CorpusGenerator.FrameType.valueOf(args[++i].toUpperCase()));
+			else if (arg.equals("-chain")) generator.setPipeLinkChain(Integer.parseInt(args[++i]));
+			else if (arg.equals("-runs")) runCount = Integer.parseInt(args[++i]);
+			else if (arg.equals("-csv")) csvFile = new File(args[++i]);
+			else throw new IllegalArgumentException("Unknown option "+arg);
+		}
+		if (sizes.isEmpty()) {
+			for (int size=250 ; size<=maxSize ; size*=2) sizes.add(size);
+		}
+		System.out.println("Shape: "+generator.describe());
+		/* Warm up the JIT on the smallest size, so the first point isn't inflated. */
+		for (int i=0 ; i<3 ; i++) measure(generator, sizes.get(0));
+		System.out.println(String.format("%9s %9s %11s %8s %12s %7s %9s", "leaves", "pages", "words", "ms", "us/leaf", "slope", "peak MB"));
+		List<Point> points = new ArrayList<Point>();
+		Point prev = null ;
+		for (int size : sizes) {
+			Point point = null ;
+			for (int run=0 ; run<runCount ; run++) {
+				Point runPoint = measure(generator, size);
+				if (point==null || runPoint.nanos<point.nanos) point = runPoint ;
+			}
+			points.add(point);
+			String slope = (prev!=null) ? String.format("%7.2f", Math.log((double)point.nanos/prev.nanos) / Math.log((double)point.size/prev.size)) : "" ;
+			System.out.println(String.format("%9d %9d %11d %8.1f %12.2f %7s %9.1f", point.size, point.pageCount, point.wordCount,
+					point.nanos/1e6, point.getMicrosPerLeaf(), slope, point.peakHeapBytes/1048576.0));
+			prev = point ;
+		}
+		double[] microsPerLeaf = new double[points.size()] ;
+		double[] heapKbPerLeaf = new double[points.size()] ;
+		for (int i=0 ; i<points.size() ; i++) {
+			microsPerLeaf[i] = points.get(i).getMicrosPerLeaf();
+			heapKbPerLeaf[i] = points.get(i).getHeapKbPerLeaf();
+		}
+		plot(points, "Time per leaf (us)", microsPerLeaf);
+		plot(points, "Peak heap per leaf (KB)", heapKbPerLeaf);
+		if (csvFile!=null) writeCsv(points, csvFile);
+	}
+
+	/**
+	 * One measurement.
+	 */
+	static class Point {
+		int size ;
+		int pageCount ;
+		long wordCount ;
+		long nanos ;
+		long peakHeapBytes ;
+		double getMicrosPerLeaf() {
+			return nanos / 1000.0 / size ;
+		}
+		double getHeapKbPerLeaf() {
+			return peakHeapBytes / 1024.0 / size ;
+		}
+	}
+
+	static Point measure(CorpusGenerator generator, int size) throws IOException {
+		System.gc();
+		ThroughputHarness.resetPeakHeap();
+		Point point = new Point();
+		point.size = size ;
+		long start = System.nanoTime();
+		UnsavedDocument document = new UnsavedDocument();
+		point.wordCount = generator.write(document, size);
+		document.makePagesAndClose();
+		point.nanos = System.nanoTime() - start ;
+		point.pageCount = document.getPageCount();
+		point.peakHeapBytes = ThroughputHarness.getPeakHeap();
+		return point ;
+	}
+
+	/**
+	 * A document which is laid out and drawn, but never saved.
+	 */
+	static class UnsavedDocument extends PdfDocument {
+		UnsavedDocument() {
+			setMaxPageCount(null);
+		}
+		void makePagesAndClose() throws IOException {
+			makePages();
+			pdDocument.close();
+		}
+	}
+
+	/**
+	 * Prints a horizontal bar per size, with length proportional to the value.
+	 * @param values The value for each point, in the same order.
+	 */
+	static void plot(List<Point> points, String title, double[] values) {
+		double maxValue = 0 ;
+		for (double value : values) maxValue = Math.max(maxValue, value);
+		if (maxValue<=0) return ;
+		final int plotWidth = 60 ;
+		System.out.println();
+		System.out.println(title+", against leaves:");
+		for (int p=0 ; p<points.size() ; p++) {
+			int barLength = (int) Math.round(plotWidth * values[p] / maxValue);
+			StringBuilder bar = new StringBuilder();
+			for (int i=0 ; i<barLength ; i++) bar.append('#');
+			System.out.println(String.format("%9d |%-"+plotWidth+"s %.2f", points.get(p).size, bar, values[p]));
+		}
+	}
+
+	static void writeCsv(List<Point> points, File file) throws IOException {
+		PrintWriter writer = new PrintWriter(file);
+		try {
+			writer.println("leaves,pages,words,nanos,peakHeapBytes");
+			for (Point point : points) {
+				writer.println(point.size+","+point.pageCount+","+point.wordCount+","+point.nanos+","+point.peakHeapBytes);
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+}
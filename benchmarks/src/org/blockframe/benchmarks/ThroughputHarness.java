@@ -0,0 +1,412 @@
+package org.blockframe.benchmarks;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.blockframe.blocks.FrameReading;
+import org.blockframe.blocks.ParagraphBlock;
+import org.blockframe.blocks.SpacerWidth;
+import org.blockframe.blocks.StringBlock;
+import org.blockframe.blocks.StringBlockBold;
+import org.blockframe.blocks.TableBlock;
+import org.blockframe.core.Block;
+import org.blockframe.core.Block.PlacedBlock;
+import org.blockframe.core.BlockPipe;
+import org.blockframe.core.Canvas;
+import org.blockframe.core.CountingCanvas;
+import org.blockframe.core.Frame;
+import org.blockframe.core.Layout;
+import org.blockframe.core.Layout.Justification;
+import org.blockframe.core.PdfDocument;
+import org.blockframe.core.Quill;
+import org.blockframe.examples.C_VerticalMany;
+import org.blockframe.examples.G_Table;
+import org.blockframe.examples.H_PageFrame;
+
+
+/**
+ * Runs whole documents, modelled on the example programs, and reports their end-to-end throughput.
+ * <p>
+ * The workloads are:
+ * <ul>
+ * <li><code>VerticalMany</code> - like {@link C_VerticalMany}, but with a million blocks.</li>
+ * <li><code>PageFrame</code> - like {@link H_PageFrame}, but with ten thousand paragraphs in two columns.</li>
+ * <li><code>Paragraphs</code> - the same words as <code>PageFrame</code>, but each paragraph is one {@link ParagraphBlock}, without the indent.</li>
+ * <li><code>Table</code> - like {@link G_Table}, but with a thousand rows and columns.
+ * The page layout is made big enough to hold the whole table, so most of it is drawn outside the visible page.</li>
+ * </ul>
+ * Each workload is run several times in the one JVM. The document is saved to a stream which only counts the bytes, so disk speed does not matter.
+ * <p>
+ * For each run, this reports pages per second, words per second (counting each {@link StringBlock} as a word), output bytes per second and peak heap.
+ * The time is split between building the content, the fill pass, the draw pass, the rest of {@link PdfDocument#makePages()}
+ * (mostly creating pages and flushing their content streams), and saving the document.
+ * <p>
+ * Usage: <code>ThroughputHarness [-runs N] [-small] [-layoutOnly] [workload...]</code>.
+ * The option <code>-small</code> uses a hundredth of the content, for a quick check that everything works.
+ * The option <code>-layoutOnly</code> draws onto a {@link CountingCanvas} instead of PDF-Box, and doesn't save.
+ * Then the output bytes are the canvas's estimate of the content stream size.
+ * <p>
+ * It also reports how many distinct {@link Quill} styles the document used (see {@link PdfDocument#getDistinctQuillCount()}).
+ * If workload names are given, only those workloads are run.
+ */
+public class ThroughputHarness {
+
+	/**
+	 * Whether to draw onto a {@link CountingCanvas}, and skip saving.
+	 */
+	static boolean isLayoutOnly = false ;
+
+	public static void main(String[] args) throws IOException {
+		int runCount = 3 ;
+		boolean small = false ;
+		List<String> filters = new ArrayList<String>();
+		for (int i=0 ; i<args.length ; i++) {
+			String arg = args[i];
+			if (arg.equals("-runs")) runCount = Integer.parseInt(args[++i]);
+			else if (arg.equals("-small")) small = true ;
+			else if (arg.equals("-layoutOnly")) isLayoutOnly = true ;
+			else filters.add(arg);
+		}
+		List<Workload> workloads = new ArrayList<Workload>();
+		workloads.add(new VerticalMany(small ? 10000 : 1000000));
+		workloads.add(new PageFrame(small ? 100 : 10000));
+		workloads.add(new Paragraphs(small ? 100 : 10000));
+		workloads.add(new Table(small ? 100 : 1000));
+		printHeader();
+		for (Workload workload : workloads) {
+			if (!filters.isEmpty() && !filters.contains(workload.name)) continue ;
+			for (int run=1 ; run<=runCount ; run++) {
+				printRun(workload, run, workload.run());
+			}
+		}
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////////////////
+	//////  Workloads
+
+	/**
+	 * A document to be built and timed. Subclasses write the content in {@link #write(TimedDocument)}.
+	 */
+	static abstract class Workload {
+
+		final String name ;
+
+		final String size ;
+
+		Workload(String name, String size) {
+			this.name = name ;
+			this.size = size ;
+		}
+
+		/**
+		 * Creates the document. Subclasses override this to configure the pages.
+		 */
+		TimedDocument newDocument() {
+			return new TimedDocument();
+		}
+
+		/**
+		 * Writes the content into the document. Calls {@link TimedDocument#countWord()} for each word.
+		 */
+		abstract void write(TimedDocument document);
+
+		/**
+		 * Builds, lays out, draws and saves one document.
+		 */
+		RunTimes run() throws IOException {
+			System.gc();
+			resetPeakHeap();
+			TimedDocument document = newDocument();
+			document.setMaxPageCount(null);
+			long start = System.nanoTime();
+			write(document);
+			document.times.buildNanos = System.nanoTime() - start ;
+			document.writeCounted();
+			document.times.peakHeapBytes = getPeakHeap();
+			document.times.quillCount = document.getDistinctQuillCount();
+			return document.times ;
+		}
+	}
+
+	/**
+	 * Many single-word blocks in the default {@link org.blockframe.blocks.FrameVertical} page frame.
+	 */
+	static class VerticalMany extends Workload {
+		final int blockCount ;
+		VerticalMany(int blockCount) {
+			super("VerticalMany", blockCount+" blocks");
+			this.blockCount = blockCount ;
+		}
+		@Override
+		void write(TimedDocument document) {
+			for (int i=0 ; i<blockCount ; i++) {
+				document.write(new StringBlock(UtilsForBenchmarks.word(i)));
+				document.countWord();
+			}
+		}
+	}
+
+	/**
+	 * Paragraphs of a hundred words, flowing through the two-column page frame of {@link H_PageFrame}.
+	 */
+	static class PageFrame extends Workload {
+		final int paragraphCount ;
+		PageFrame(int paragraphCount) {
+			this("PageFrame", paragraphCount);
+		}
+		PageFrame(String name, int paragraphCount) {
+			super(name, paragraphCount+" paragraphs");
+			this.paragraphCount = paragraphCount ;
+		}
+		@Override
+		TimedDocument newDocument() {
+			return new TimedDocument() {
+				@Override
+				public Frame newPageFrame(BlockPipe pipe, Page prevPage) {
+					return new H_PageFrame.TwoColumnFrame(pipe);
+				}
+				@Override
+				public Quill newPageQuill(Page prevPage) {
+					return super.newPageQuill(prevPage).copy(Color.BLUE);
+				}
+			};
+		}
+		@Override
+		void write(TimedDocument document) {
+			for (int p=0 ; p<paragraphCount ; p++) {
+				Frame paragraph = new FrameReading();
+				paragraph.write(new SpacerWidth("W"));
+				for (int i=0 ; i<100 ; i++) {
+					paragraph.write(new StringBlock(UtilsForBenchmarks.word(i)));
+					document.countWord();
+				}
+				document.write(paragraph);
+			}
+		}
+	}
+
+	/**
+	 * The paragraphs of {@link PageFrame}, each held in one {@link ParagraphBlock} instead of a block per word.
+	 */
+	static class Paragraphs extends PageFrame {
+		Paragraphs(int paragraphCount) {
+			super("Paragraphs", paragraphCount);
+		}
+		@Override
+		void write(TimedDocument document) {
+			for (int p=0 ; p<paragraphCount ; p++) {
+				ParagraphBlock paragraph = new ParagraphBlock();
+				for (int i=0 ; i<100 ; i++) {
+					paragraph.append(UtilsForBenchmarks.word(i));
+					document.countWord();
+				}
+				document.write(paragraph);
+			}
+		}
+	}
+
+	/**
+	 * A times-table, with the headers and borders of {@link G_Table}.
+	 */
+	static class Table extends Workload {
+		final int maxNumber ;
+		Table(int maxNumber) {
+			super("Table", maxNumber+"x"+maxNumber+" cells");
+			this.maxNumber = maxNumber ;
+		}
+		@Override
+		TimedDocument newDocument() {
+			return new TimedDocument() {
+				@Override
+				public Layout newPageLayout(PDPage pdPage, Page prevPage) {
+					return new Layout(Double.MAX_VALUE/2, Double.MAX_VALUE/2);
+				}
+			};
+		}
+		@Override
+		void write(TimedDocument document) {
+			document.write(new TimesTable(maxNumber));
+			document.times.wordCount += (maxNumber+1)*(maxNumber+1) ;
+		}
+	}
+
+	/**
+	 * The table from {@link G_Table}, with a configurable size.
+	 */
+	static class TimesTable extends TableBlock {
+
+		TimesTable(int maxNumber) {
+			super(maxNumber+1, maxNumber+1);
+		}
+
+		@Override
+		protected Block getCellBlock(int row, int column) {
+			if (row==0) {
+				return (column==0) ? new StringBlockBold("Times") : new StringBlockBold(""+column);
+			} else {
+				return (column==0) ? new StringBlockBold(""+row) : new StringBlock(""+(row*column));
+			}
+		}
+
+		@Override
+		protected double getTableBorderWidth(boolean isSide, boolean isBefore) {
+			return borderMinWidth ;
+		}
+
+		@Override
+		protected Justification getHorizontalJustification(int row, int column) {
+			return (column>0) ? Layout.RIGHT : Layout.CENTRE_H ;
+		}
+
+		@Override
+		protected void drawRowTopBorder(Canvas canvas, double tableLeft, double tableTop, int row, boolean wantInterstices) throws IOException {
+			if (row<=1) super.drawRowTopBorder(canvas, tableLeft, tableTop, row, true);
+		}
+
+		@Override
+		protected void drawColumnLeftBorder(Canvas canvas, double tableLeft, double tableTop, int column, boolean wantInterstices) throws IOException {
+			if (column<=1) super.drawColumnLeftBorder(canvas, tableLeft, tableTop, column, true);
+		}
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////////////////
+	//////  Timed document
+
+	/**
+	 * Times spent in each phase of one run, and the sizes produced.
+	 */
+	static class RunTimes {
+		long buildNanos ;
+		long fillNanos ;
+		long drawNanos ;
+		long makePagesNanos ;
+		long saveNanos ;
+		int pageCount ;
+		long wordCount ;
+		long outputBytes ;
+		long peakHeapBytes ;
+		int quillCount ;
+		long getTotalNanos() {
+			return buildNanos + makePagesNanos + saveNanos ;
+		}
+	}
+
+	/**
+	 * A {@link PdfDocument} which times its fill and draw passes, and saves to a counting stream instead of a file.
+	 */
+	static class TimedDocument extends PdfDocument {
+
+		final RunTimes times = new RunTimes();
+
+		final CountingCanvas.Tally tally = new CountingCanvas.Tally();
+
+		void countWord() {
+			times.wordCount ++ ;
+		}
+
+		@Override
+		protected Canvas newCanvas(PDPage pdPage) throws IOException {
+			if (isLayoutOnly) return new CountingCanvas(pdPage.getMediaBox().getHeight(), tally);
+			return super.newCanvas(pdPage);
+		}
+
+		@Override
+		protected PlacedBlock fillPageFrame(Page page) throws IOException {
+			long start = System.nanoTime();
+			PlacedBlock placedBlock = super.fillPageFrame(page);
+			times.fillNanos += System.nanoTime() - start ;
+			return placedBlock ;
+		}
+
+		@Override
+		protected void drawPageFrame(Canvas canvas, double left, double top, PlacedBlock placedPageFrame) throws IOException {
+			long start = System.nanoTime();
+			super.drawPageFrame(canvas, left, top, placedPageFrame);
+			times.drawNanos += System.nanoTime() - start ;
+		}
+
+		/**
+		 * Like {@link PdfDocument#writeFile(java.io.File)}, but saves to a {@link CountingOutputStream}, and times the phases.
+		 * In layout-only mode, it doesn't save.
+		 */
+		void writeCounted() throws IOException {
+			long start = System.nanoTime();
+			makePages();
+			long made = System.nanoTime();
+			times.makePagesNanos = made - start ;
+			times.pageCount = getPageCount();
+			if (isLayoutOnly) {
+				pdDocument.close();
+				times.outputBytes = tally.bytes ;
+				return ;
+			}
+			CountingOutputStream out = new CountingOutputStream();
+			pdDocument.save(out);
+			pdDocument.close();
+			times.saveNanos = System.nanoTime() - made ;
+			times.outputBytes = out.count ;
+		}
+	}
+
+	/**
+	 * Discards its output, counting the bytes.
+	 */
+	static class CountingOutputStream extends OutputStream {
+		long count ;
+		@Override
+		public void write(int b) {
+			count ++ ;
+		}
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len ;
+		}
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////////////////
+	//////  Heap and printing
+
+	/**
+	 * Resets the peak usage of the heap memory pools.
+	 */
+	static void resetPeakHeap() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType()==MemoryType.HEAP) pool.resetPeakUsage();
+		}
+	}
+
+	/**
+	 * Returns the sum of the peak usage of the heap memory pools since {@link #resetPeakHeap()}.
+	 * The pools may peak at different times, so this can overstate the true peak a little.
+	 */
+	static long getPeakHeap() {
+		long peak = 0 ;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType()==MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+		}
+		return peak ;
+	}
+
+	static void printHeader() {
+		System.out.println(String.format("%-14s %-20s %3s %7s %10s %10s %10s %9s %9s %9s %9s %9s %9s %8s %6s",
+				"workload", "size", "run", "pages", "pages/s", "words/s", "KB/s", "peak MB", "build s", "fill s", "draw s", "other s", "save s", "total s", "quills"));
+	}
+
+	static void printRun(Workload workload, int run, RunTimes times) {
+		double totalSeconds = times.getTotalNanos() / 1e9 ;
+		double otherNanos = times.makePagesNanos - times.fillNanos - times.drawNanos ;
+		System.out.println(String.format("%-14s %-20s %3d %7d %10.1f %10.0f %10.0f %9.1f %9.3f %9.3f %9.3f %9.3f %9.3f %8.3f %6d",
+				workload.name, workload.size, run, times.pageCount,
+				times.pageCount/totalSeconds, times.wordCount/totalSeconds, times.outputBytes/1024.0/totalSeconds,
+				times.peakHeapBytes/1048576.0,
+				times.buildNanos/1e9, times.fillNanos/1e9, times.drawNanos/1e9, otherNanos/1e9, times.saveNanos/1e9, totalSeconds, times.quillCount));
+	}
+
+}
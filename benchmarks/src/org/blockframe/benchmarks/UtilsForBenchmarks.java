@@ -0,0 +1,103 @@
+package org.blockframe.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.blockframe.blocks.StringBlock;
+import org.blockframe.core.Block;
+import org.blockframe.core.Frame;
+import org.blockframe.core.Layout;
+import org.blockframe.core.PdfChapter;
+import org.blockframe.core.Quill;
+import org.blockframe.examples.UtilsForExamples;
+
+
+/**
+ * Utility methods used in this package.
+ * <p>
+ * The timing of {@link LayoutBenchmarks} is done by JMH. These methods build the content it times.
+ */
+public class UtilsForBenchmarks {
+
+	/**
+	 * Width available for content on a US Letter page, with the default margins of {@link PdfChapter}.
+	 */
+	public static final double PAGE_WIDTH = 612 - 2*36 ;
+
+	/**
+	 * Height available for content on a US Letter page, with the default margins of {@link PdfChapter}.
+	 */
+	public static final double PAGE_HEIGHT = 792 - 2*36 ;
+
+	/**
+	 * Source of {@link Quill} instances. The {@linkplain Quill} constructor is not visible outside the <code>core</code> package.
+	 */
+	private static final PdfChapter quillSource = new PdfChapter(null) {};
+
+	/**
+	 * Returns a new {@link Quill}, as used at the top of each page.
+	 */
+	public static Quill newQuill() {
+		return quillSource.newPageQuill(null);
+	}
+
+	/**
+	 * Returns a page-sized {@link Layout}.
+	 */
+	public static Layout newPageLayout() {
+		return new Layout(PAGE_WIDTH, PAGE_HEIGHT);
+	}
+
+	/**
+	 * Returns a page-width {@link Layout} which is tall enough that nothing will ever be split.
+	 */
+	public static Layout newUnboundedLayout() {
+		return new Layout(PAGE_WIDTH, Double.MAX_VALUE/2);
+	}
+
+	/**
+	 * Returns the text of the <code>i</code>'th word, using {@link UtilsForExamples#number(int)}.
+	 * The text cycles through "one" to "nine hundred and ninety nine".
+	 */
+	public static String word(int i) {
+		return UtilsForExamples.number(i%999+1);
+	}
+
+	/**
+	 * Writes <code>wordCount</code> {@linkplain StringBlock} instances into the frame.
+	 */
+	public static Frame writeWords(Frame frame, int wordCount) {
+		for (int i=0 ; i<wordCount ; i++) frame.write(new StringBlock(word(i)));
+		return frame ;
+	}
+
+	/**
+	 * Returns a temporary file for a PDF, deleted when the JVM exits.
+	 */
+	public static File newTempPdfFile() throws IOException {
+		File file = File.createTempFile("blockframe-benchmark", ".pdf");
+		file.deleteOnExit();
+		return file ;
+	}
+
+	/**
+	 * Fills the frame repeatedly, as if onto successive pages, until its pipe is empty.
+	 * Then reverts all the fills, leaving the frame ready to be filled again.
+	 *
+	 * @return The number of pages.
+	 */
+	public static int paginateAndRevert(Frame frame, Quill quill, Layout pageLayout) throws IOException {
+		ArrayList<Block.PlacedBlock> pages = new ArrayList<Block.PlacedBlock>();
+		do {
+			pages.add(frame.fill(quill, pageLayout));
+			if (pages.size()>1000000) throw new RuntimeException("Too many pages. Is the frame stuck?");
+		} while (!frame.isFillComplete());
+		for (int i=pages.size()-1 ; i>=0 ; i--) {
+			/* Go backwards, so the first page's revert is the one that takes effect. */
+			pages.get(i).revertToStart();
+		}
+		return pages.size();
+	}
+
+}
@@ -0,0 +1,19 @@
+/**
+ * Package <code>benchmarks</code> contains programs for measuring the speed and memory use of BlockFrame.
+ * <p>
+ * The package is built by the <code>benchmarks</code> module, into <code>benchmarks/target/benchmarks.jar</code>.
+ * <p>
+ * Class {@link org.blockframe.benchmarks.LayoutBenchmarks} is a JMH suite timing the hot paths of the fill and draw passes. Run it with <code>java -jar benchmarks.jar</code>.
+ * Its results can be saved as JSON, and later runs compared against them, to catch regressions.
+ * <p>
+ * The other classes are stand-alone programs with a <code>main</code> method, like the <code>examples</code> package. Run them with <code>java -cp benchmarks.jar</code>.
+ * <p>
+ * Class {@link org.blockframe.benchmarks.ThroughputHarness} runs whole documents, modelled on the examples, and reports pages per second.
+ * <p>
+ * Class {@link org.blockframe.benchmarks.ScalingRunner} lays out documents of increasing size, built by {@link org.blockframe.benchmarks.CorpusGenerator}, to show where layout stops scaling linearly.
+ * <p>
+ * Class {@link org.blockframe.benchmarks.ColdStart} times the first documents in a fresh JVM, with and without {@link org.blockframe.core.WarmUp}.
+ * <p>
+ * Class {@link org.blockframe.benchmarks.ConcurrencyBenchmark} builds documents on several threads at once, and reports the scaling efficiency, lock contention and lost block ids.
+ */
+package org.blockframe.benchmarks;
@@ -101,7 +101,7 @@ public class FrameHorizontal extends Frame {
 			//////  Set my dimensions
 			double frameHeight = frameLayout.isHeightTight ? maxChildHeight : frameLayout.maxHeight ; 
 			placedFrame.setDimensions(nextLeft, frameHeight); 
-			DebugLog.add(LEAVING_6, placedFrame, null, logMessage_leavingFill, childCount, null, false); 
+			if (DebugLog.isLogging(LEAVING_6, this, null)) DebugLog.add(LEAVING_6, placedFrame, null, logMessage_leavingFill, childCount, null, false); 
 			return placedFrame ; 
 		}
 
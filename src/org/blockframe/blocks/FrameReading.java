@@ -2,12 +2,15 @@ package org.blockframe.blocks;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import org.blockframe.core.Block;
 import org.blockframe.core.BlockPipe;
 import org.blockframe.core.DebugLog;
 import org.blockframe.core.Frame;
+import org.blockframe.core.Hyphenator;
 import org.blockframe.core.Layout;
+import org.blockframe.core.PaginationCounters;
 import org.blockframe.core.Quill;
 import org.blockframe.core.DebugLog.StringGetter;
 import org.blockframe.core.Layout.Alignment;
@@ -19,12 +22,143 @@ import org.blockframe.core.Layout.Justification;
  */
 public class FrameReading extends Frame {
 
+		/**
+		 * Whether the text in this frame is kerned. Null leaves the received {@link Quill} as it is. 
+		 */
+		private Boolean isKerning = null ; 
+
+		/**
+		 * Splits words which don't fit on a line. Null for none. See {@link #setHyphenator(Hyphenator)}. 
+		 */
+		private Hyphenator hyphenator = null ; 
+
+		/**
+		 * Whether lines are broken by {@link #fillLinesOptimally(PlacedFrame, Layout)}. See {@link #setOptimalLineBreaking(boolean)}. 
+		 */
+		private boolean isOptimalLineBreaking = false ; 
+
+		/**
+		 * Children measured, then pushed back into the pipe, in pipe order, and the quill they were measured with. 
+		 * Those before the index have been used again already. 
+		 * This is the frame's cursor: the next line, or the next frame on the next page, starts from these rather than filling the children again. 
+		 */
+		private ArrayList<PlacedBlock> measuredAhead = new ArrayList<PlacedBlock>(); 
+
+		private int measuredAheadIndex = 0 ; 
+
+		private Quill measuredAheadQuill = null ; 
+
+		/**
+		 * Widths and heights of the children of the placed frame being filled, by their index in its {@link PlacedFrame#children}. 
+		 * These, and the line buffers, belong to the frame and are reused by every fill, so building a line allocates nothing. 
+		 */
+		private double[] childWidths = new double[64], childHeights = new double[64] ; 
+
+		/**
+		 * Lines of the placed frame being filled: the index of each line's first child, and the line's width before justification, top and height. 
+		 * A line ends where the next begins, or at the last child. 
+		 */
+		private int[] lineStarts = new int[16] ; 
+
+		private double[] lineWidths = new double[16], lineTops = new double[16], lineHeights = new double[16] ; 
+
+		private int lineCount = 0 ; 
+
+		/**
+		 * Work space of {@link #fillLinesOptimally(PlacedFrame, Layout)}, indexed by breakpoint. Breakpoint i is just before child i. 
+		 * Like the line buffers, they belong to the frame and only grow, so breaking lines optimally allocates nothing once they are big enough. 
+		 * See {@link #ensureBreakCapacity(int)}. 
+		 */
+		private double[] breakSumWidths = new double[65], breakDemerits = new double[65] ; 
+
+		private int[] previousBreaks = new int[65], breaks = new int[65] ; 
+
+		/**
+		 * Whether the first part of the paragraph has been pushed back whole, to keep its orphans together. 
+		 * This is done only once, until the paragraph is reverted to its start from a part with lines in it. 
+		 */
+		private boolean isMovedWhole = false ; 
+
+		/**
+		 * How far, in ems, a line which isn't fully justified may fall short of the frame width, when breaking lines optimally. 
+		 * A line that much short has the same demerits as a fully justified line whose gaps are doubled. 
+		 */
+		public static final double RAGGED_STRETCH_EMS = 2 ; 
+
+		/**
+		 * The most children on one line, when breaking lines optimally. Bounds the breakpoints considered for each line. 
+		 */
+		public static final int MAX_CHILDREN_ON_LINE = 256 ; 
+
+		/**
+		 * Demerits added for every line, when breaking lines optimally, so that fewer lines are preferred. As in TeX. 
+		 */
+		private static final double LINE_PENALTY = 10 ; 
+
+		/**
+		 * Badness of a line stretched too far. As in TeX, badness is 100 times the cube of the stretch ratio, but no more than this. 
+		 */
+		private static final double INFINITE_BADNESS = 10000 ; 
+
 		public FrameReading() {}
 
 		public FrameReading(BlockPipe pipe) {
 			super(pipe); 
 		}
 
+		/**
+		 * Switches kerning on or off for the text in this frame, and in the blocks within it. See {@link Quill#copyKerning(boolean)}. 
+		 */
+		public FrameReading setKerning(boolean isKerning) { 
+			this.isKerning = isKerning ; 
+			return this ; 
+		}
+
+		/**
+		 * Switches between greedy line breaking, the default, and optimal (total-fit) line breaking. 
+		 * <p>
+		 * Greedy breaking fills each line with as many children as fit, then stretches the gaps. 
+		 * That can leave a very loose line, or rivers of white space, where a shorter line earlier would have evened out the paragraph. 
+		 * Optimal breaking chooses all the breaks together, in the manner of Knuth and Plass, to minimise the total demerits of the lines, 
+		 * where a line's demerits grow with the cube of how far its gaps are stretched. 
+		 * No line is made wider than the frame, and no gap narrower than the usual horizontal gap, so the lines are never squeezed. 
+		 * <p>
+		 * With {@link Layout#FULL} justification, a line's stretch is shared by its gaps, and the last line isn't stretched. 
+		 * With the other justifications, the space left at the end of each line is evened out instead, as though each line could stretch by {@link #RAGGED_STRETCH_EMS} ems. 
+		 * Justification, alignment and page splitting are otherwise as with greedy breaking: 
+		 * when the frame is full, the lines which don't fit are pushed back to the next frame, which breaks them again for its own width. 
+		 * <p>
+		 * The breaks are found by dynamic programming over the possible breakpoints. 
+		 * Breakpoints whose lines can no longer fit are dropped, and a line may hold at most {@link #MAX_CHILDREN_ON_LINE} children, 
+		 * so the cost grows linearly with the number of children. 
+		 * When the frame may split, only children for a couple of lines beyond what could fit are measured. 
+		 * <p>
+		 * Children which can themselves be split, such as nested frames, can't be broken around optimally. 
+		 * If one is met, the frame falls back to greedy breaking. 
+		 */
+		public FrameReading setOptimalLineBreaking(boolean isOptimalLineBreaking) { 
+			this.isOptimalLineBreaking = isOptimalLineBreaking ; 
+			return this ; 
+		}
+
+		/**
+		 * Sets the hyphenator used to split a word which is too wide for the rest of its line. Null, the default, leaves words whole. 
+		 * <p>
+		 * As much of the word as fits is placed at the end of the line, with a hyphen, and the rest begins the next line. 
+		 * Only {@link StringBlock} children are hyphenated, not those in nested frames. 
+		 * Words aren't hyphenated when lines are broken optimally (see {@link #setOptimalLineBreaking(boolean)}). 
+		 */
+		public FrameReading setHyphenator(Hyphenator hyphenator) { 
+			this.hyphenator = hyphenator ; 
+			return this ; 
+		}
+
+		@Override
+		protected Quill inheritQuill(Quill receivedQuill) { 
+			Quill quill = super.inheritQuill(receivedQuill); 
+			return (isKerning!=null) ? quill.copyKerning(isKerning) : quill ; 
+		}
+
 		@Override
 		public PlacedBlock fill(Quill receivedQuill, Layout receivedLayout) throws IOException { 
 			DebugLog.add(ENTERING_5, this, null, logMessage_enteringFill, null, null, true); 
@@ -33,37 +167,35 @@ public class FrameReading extends Frame {
 			DebugLog.add(ALL_9, this, null, pipe.logMessage_pipe, null, null, false); 
 			DebugLog.add(DETAIL_8, this, null, Layout.logMessage_layout, frameLayout, null, false); 
 			double maxWidth = frameLayout.maxWidth ; 
-			PlacedFrame placedFrame = this.new PlacedFrame(); 
+			PlacedFrame placedFrame = this.new PlacedReadingFrame(); 
+			ArrayList<PlacedBlock> children = placedFrame.children ; 
+			this.lineCount = 0 ; 
+			boolean isFirstPart = reader.isAtStart(); 
 			//////  Measure children and allocate them to lines. 
 			/* Don't position them on the lines yet, until we know which is the last line. Affects last line of a fully-justified section. */ 
-			ArrayList<FrameReading.Line> lines = new ArrayList<FrameReading.Line>(); 
-			double sumHeight ; 
-			double nextTop = 0 ; 
-			Layout eatenLayout = frameLayout.copy(); // Copy of layout, whose max-height and max-width is eaten away as we add blocks. 
-			while(reader.hasMore()) { 
-				/* Each iteration processes one line. */
-				FrameReading.Line line = fillLine(placedFrame, eatenLayout, nextTop); // Measures children, places as many as possible on the line. 
-				if (!line.canFitLineInHeight) { 
-					DebugLog.add(ALL_9, this, null, logMessage_lineRejected, line, null, false); 
-					break ; 
+			if (!isOptimalLineBreaking || !fillLinesOptimally(placedFrame, frameLayout)) { 
+				Layout eatenLayout = frameLayout.copy(); // Copy of layout, whose max-height and max-width is eaten away as we add blocks. 
+				double nextTop = 0 ; 
+				while(reader.hasMore()) { 
+					/* Each iteration processes one line. */
+					if (!fillLine(placedFrame, eatenLayout, nextTop)) break ; // Measures children, places as many as possible on the line. 
+					double lineHeight = lineHeights[lineCount-1] ; 
+					eatenLayout.setSize(frameLayout.maxWidth, null); 
+					eatenLayout.reduceHeight(lineHeight); 
+					//////  Prepare for next line 
+					nextTop += lineHeight ; 
 				}
-				placedFrame.addAll(line.childrenOnLine); 
-				eatenLayout.setSize(frameLayout.maxWidth, null); 
-				eatenLayout.reduceHeight(line.lineHeight); 
-				//////  Store line-info for positioning loop 
-				lines.add(line); 
-				//////  Prepare for next line 
-				nextTop += line.lineHeight ; 
-			}
-			sumHeight = nextTop ; 
-			int lineCount = lines.size();
-			if (lineCount>0 && !reader.hasMore()) lines.get(lineCount-1).isLast = true ; 
+			}
+			//////  Widows and orphans 
+			if (frameLayout.allowSplitting && lineCount>0 && reader.hasMore()) controlWidowsAndOrphans(placedFrame, frameLayout, isFirstPart); 
+			double sumHeight = (lineCount>0) ? lineTops[lineCount-1]+lineHeights[lineCount-1] : 0 ; 
+			boolean isParagraphEnd = !reader.hasMore(); 
 			//////  Calculate my dimensions
 			double frameWidth ; 
 			if (frameLayout.isWidthTight) { 
 				frameWidth = 0 ; 
-				for (FrameReading.Line line : lines) { 
-					if (line.sumWidth>frameWidth) frameWidth = line.sumWidth ; 
+				for (int l=0 ; l<lineCount ; l++) { 
+					if (lineWidths[l]>frameWidth) frameWidth = lineWidths[l] ; 
 				}
 			} else { 
 				frameWidth = maxWidth;
@@ -73,12 +205,25 @@ public class FrameReading extends Frame {
 			{ 
 				Justification justification = frameLayout.justification ; 
 				Alignment alignment = frameLayout.alignment ; 
-				for (FrameReading.Line line : lines) { 
+				double horizontalGapSize = getHorizontalGap(quill); 
+				//// Compute how much vertical gap to use above each word
+				double dropFactor ; 
+				if (alignment==Layout.TOP) { 
+					dropFactor = 0 ; 
+				} else if (alignment==Layout.CENTRE_V) { 
+					dropFactor = 0.5 ; 
+				} else { 
+					dropFactor = 1 ; 
+				}
+				for (int l=0 ; l<lineCount ; l++) { 
 					//////  Position the children on the line, remembering justification. 
-					double spareSpace = frameWidth - line.sumWidth ; 
-					int lineChildCount = line.childrenOnLine.size(); 
+					int lineStart = lineStarts[l] ; 
+					int lineEnd = (l+1<lineCount) ? lineStarts[l+1] : children.size() ; 
+					int lineChildCount = lineEnd - lineStart ; 
+					boolean isLast = isParagraphEnd && l==lineCount-1 ; 
+					double spareSpace = frameWidth - lineWidths[l] ; 
 					//// Compute the gap between words
-					double gap = getHorizontalGap(quill) + ((justification==Layout.FULL && !line.isLast && lineChildCount>0) ? spareSpace / (lineChildCount-1) : 0) ; // Horizontal gap between words. 
+					double gap = horizontalGapSize + ((justification==Layout.FULL && !isLast && lineChildCount>0) ? spareSpace / (lineChildCount-1) : 0) ; // Horizontal gap between words. 
 					double nextLeft ; 
 					if(justification==Layout.FULL) { 
 						nextLeft = 0 ; 
@@ -89,42 +234,38 @@ public class FrameReading extends Frame {
 					} else { 
 						nextLeft = 0 ; 
 					}
-					//// Compute how much vertical gap to use above each word
-					double dropFactor ; 
-					if (alignment==Layout.TOP) { 
-						dropFactor = 0 ; 
-					} else if (alignment==Layout.CENTRE_V) { 
-						dropFactor = 0.5 ; 
-					} else { 
-						dropFactor = 1 ; 
-					}
 					//// Do It - position the children 
-					for (PlacedBlock placedChild : line.childrenOnLine) { 
-						double childTop = (line.lineHeight-placedChild.getHeight()) * dropFactor ; 
-						placedChild.setOffsetInContainer(nextLeft, line.lineTop+childTop); 
-						nextLeft += placedChild.getWidth() + gap ; 
+					double lineTop = lineTops[l] ; 
+					double lineHeight = lineHeights[l] ; 
+					for (int i=lineStart ; i<lineEnd ; i++) { 
+						double childTop = (lineHeight-childHeights[i]) * dropFactor ; 
+						children.get(i).setOffsetInContainer(nextLeft, lineTop+childTop); 
+						nextLeft += childWidths[i] + gap ; 
 					}
 					
 				}
 			}
 			//////  Set my dimensions
 			placedFrame.setDimensions(frameWidth, frameHeight); 
-			DebugLog.add(LEAVING_6, placedFrame, null, logMessage_leavingFill, placedFrame.size(), null, false); 
+			if (DebugLog.isLogging(LEAVING_6, this, null)) DebugLog.add(LEAVING_6, placedFrame, null, logMessage_leavingFill, placedFrame.size(), null, false); 
 			return placedFrame ; 
 		}
 
-		private FrameReading.Line fillLine(PlacedFrame placedFrame, Layout eatenLayout, double nextTop) throws IOException {
-			FrameReading.Line line = new Line(); 
+		/**
+		 * Reads children, and adds as many as fit on one line to the placed frame, then records the line with {@link #addLine(int, double, double, double)}. 
+		 * @return False if the line would exceed the frame height. Its children have then been pushed back into the pipe, and no line is recorded. 
+		 */
+		private boolean fillLine(PlacedFrame placedFrame, Layout eatenLayout, double nextTop) throws IOException {
+			ArrayList<PlacedBlock> children = placedFrame.children ; 
+			int lineStart = children.size(); 
 			double horizontalGapSize = getHorizontalGap(quill);
-			ArrayList<PlacedBlock> childrenOnLine = new ArrayList<PlacedBlock>(); 
 			//////  Get children that fit on line, and measure them
 			double sumWidth = 0 ; 
 			double maxHeightOnLine = 0 ; 
-			line.canFitLineInHeight = true ; // Whether this line pushes us past the maximum height. 
 			while(reader.hasMore()) { 
 				Block child = reader.read(); 
 				//// Measure child
-				PlacedBlock placedChild = child.fill(quill, eatenLayout); 
+				PlacedBlock placedChild = fillChild(child, eatenLayout); 
 				double childHeight = placedChild.getHeight() ; 
 				double childWidth = placedChild.getWidth();
 				double addedWidth = childWidth ; // Will include child and gap. 
@@ -133,71 +274,353 @@ public class FrameReading extends Frame {
 				boolean isChildMeasuredTooHigh = childHeight>eatenLayout.maxHeight;
 				boolean isChildNotCompletelyFilled = !child.isFillComplete();
 				boolean isLinePartiallyFilled = sumWidth>0;
+				//// Too wide, but could be hyphenated? 
+				if (isChildMeasuredTooWide && hyphenator!=null && child instanceof StringBlock) { 
+					PlacedBlock placedPart = ((StringBlock) child).fillHyphenated(quill, eatenLayout, hyphenator); 
+					if (placedPart!=null) { 
+						addChild(placedFrame, placedPart); 
+						if (eatenLayout.allowSplitting && placedPart.getHeight()>eatenLayout.maxHeight) { 
+							rejectLine(placedFrame, lineStart); 
+							return false ; 
+						}
+						if (placedPart.getHeight()>maxHeightOnLine) maxHeightOnLine = placedPart.getHeight() ; 
+						sumWidth += placedPart.getWidth() + (isLinePartiallyFilled ? horizontalGapSize : 0) ; 
+						DebugLog.add(ALL_9, this, null, logMessage_childAccepted, placedPart, eatenLayout, false); 
+						break ; // The rest of the word begins the next line. 
+					}
+				}
 				//// Too big for line?
 				if ((isChildMeasuredTooWide || isChildNotCompletelyFilled) && isLinePartiallyFilled) { 
 					// TODO Frame field boolean shouldAcceptWideBlock - controlling whether a single block that is too wide is accepted (messy), or rejected (infinite loop danger). 
 					/*
-					 * We are rejecting one child, which hasn't yet been added to 'children'. 
+					 * We are rejecting one child. 
 					 * We should revert the child to its start, and push it back onto the feed so the next frame will receive it. 
 					 * Note that the child will be read again immediately, at the beginning of the next line. Its layout will have slightly different bounds. 
 					 */
-					placedChild.revertToStart(); 
-					reader.revertTo(child); 
+					addChild(placedFrame, placedChild); 
+					int rejectedIndex = children.size()-1 ; 
+					keepMeasured(children, rejectedIndex); 
+					placedFrame.revertChildrenFrom(rejectedIndex); 
 					break ; // Reject out-of-bounds, unless it's the first on the line. 
 				}
 				//// Too many lines in frame? 
 				if (eatenLayout.allowSplitting && isChildMeasuredTooHigh) { 
 					// TODO Frame field boolean shouldAcceptHighBlock - controlling whether a single block that is too tall is accepted (messy), or rejected (infinite loop danger). 
-					line.canFitLineInHeight = false ; 
 					/*
 					 * We are rejecting perhaps several children (everything on this line so far), and the current child. 
 					 * All blocks on this line should be reverted to their start, and the source moved back to the first one on the line. 
-					 * None of these blocks have been added to the 'children' field, just the 'childrenOnLine' variable. 
 					 */
-					DebugLog.add(DETAIL_8, this, null, "Children rejected because the line would exceed frame height.", true); 
-					childrenOnLine.add(placedChild); 
-					placedFrame.revertToFirstChildOfList(childrenOnLine); 
-					break ; 
+					addChild(placedFrame, placedChild); 
+					rejectLine(placedFrame, lineStart); 
+					return false ; 
 				}
-				if (eatenLayout.allowSplitting && isChildNotCompletelyFilled) {  
+				if (eatenLayout.allowSplitting && isChildNotCompletelyFilled) { 
+					/*
+					 * The child, first on the line, was split to fit the height left, such as a paragraph nested in this one.
+					 * Its first part is the whole line, and the rest begins the next line.
+					 * If none of it fitted, the frame is full: nothing would fit on a later line either.
+					 */
+					addChild(placedFrame, placedChild); 
+					boolean isNothingPlaced = childHeight<=0 || (placedChild instanceof PlacedFrame && ((PlacedFrame) placedChild).size()==0) ; 
+					if (isNothingPlaced) { 
+						rejectLine(placedFrame, lineStart); 
+						return false ; 
+					}
+					if (childHeight>maxHeightOnLine) maxHeightOnLine = childHeight ; 
+					sumWidth += addedWidth ; 
 					break ; 
 				}
 				// TODO BUG? If allowSplitting==false, but the child is not completely filled, I think we'll have an infinite loop. 
 				//// Accept child 
 				if (childHeight>maxHeightOnLine) maxHeightOnLine = childHeight ; 
-				childrenOnLine.add(placedChild); 
+				addChild(placedFrame, placedChild); 
 				eatenLayout.reduceWidth(horizontalGapSize+childWidth); 
 				sumWidth += addedWidth ; 
 				DebugLog.add(ALL_9, this, null, logMessage_childAccepted, placedChild, eatenLayout, false); 
 			}
 			//////  Bye bye
-			line.sumWidth = sumWidth ; 
-			line.childrenOnLine = childrenOnLine ; 
-			line.lineTop = nextTop ; 
-			line.lineHeight = maxHeightOnLine ; 
-			return line;
+			addLine(lineStart, sumWidth, nextTop, maxHeightOnLine); 
+			return true ; 
+		}
+
+		/**
+		 * Pushes lines back into the pipe, so the next part of the paragraph has at least {@link #getWidowLines()} lines, 
+		 * or, if this is the first part and it would have fewer than {@link #getOrphanLines()} lines, pushes back every line. 
+		 * The first part is pushed back whole only once, and never from the top of the frame, where it would be no better placed in the next. 
+		 * Otherwise as many widows are left as the orphans allow. 
+		 * <p>
+		 * The widows are counted by filling at most that many lines ahead, at this frame's width, then pushing them back. 
+		 * Their measurements are kept, so the next frame doesn't measure them again. 
+		 */
+		private void controlWidowsAndOrphans(PlacedFrame placedFrame, Layout frameLayout, boolean isFirstPart) throws IOException { 
+			int widowLines = getWidowLines(); 
+			int orphanLines = isFirstPart ? getOrphanLines() : 1 ; 
+			if (widowLines<=1 && orphanLines<=1) return ; 
+			int keptLineCount = lineCount ; 
+			if (widowLines>1) { 
+				int tailLineCount = countTailLines(placedFrame, frameLayout, widowLines); 
+				if (tailLineCount<widowLines) keptLineCount -= widowLines - tailLineCount ; 
+			}
+			if (keptLineCount<orphanLines) keptLineCount = (isFirstPart && !isMovedWhole && !frameLayout.isAtTop) ? 0 : Math.min(lineCount, orphanLines) ; 
+			if (keptLineCount==0) isMovedWhole = true ; 
+			if (keptLineCount==lineCount) return ; 
+			DebugLog.add(DETAIL_8, this, null, "Lines pushed back for widows or orphans.", true); 
+			PaginationCounters.addWidowOrphan(lineCount-keptLineCount); 
+			int firstReverted = lineStarts[keptLineCount] ; 
+			keepMeasured(placedFrame.children, firstReverted); 
+			placedFrame.revertChildrenFrom(firstReverted); 
+			this.lineCount = keptLineCount ; 
+		}
+
+		/**
+		 * Fills lines after those in the placed frame, at most <code>maxLines</code>, then pushes them back into the pipe. 
+		 * @return How many lines the rest of the paragraph has, or {@link Integer#MAX_VALUE} if it has more than <code>maxLines</code>. 
+		 */
+		private int countTailLines(PlacedFrame placedFrame, Layout frameLayout, int maxLines) throws IOException { 
+			int savedLineCount = lineCount ; 
+			int firstTailChild = placedFrame.children.size(); 
+			Layout tailLayout = frameLayout.copy(); 
+			int tailLineCount = 0 ; 
+			while (tailLineCount<maxLines && reader.hasMore()) { 
+				tailLayout.setSize(frameLayout.maxWidth, Double.MAX_VALUE/2); // So no line is rejected for height. 
+				fillLine(placedFrame, tailLayout, 0); 
+				tailLineCount ++ ; 
+			}
+			boolean isTailComplete = !reader.hasMore(); 
+			PaginationCounters.addLookaheadLines(tailLineCount); 
+			keepMeasured(placedFrame.children, firstTailChild); 
+			placedFrame.revertChildrenFrom(firstTailChild); 
+			this.lineCount = savedLineCount ; 
+			return isTailComplete ? tailLineCount : Integer.MAX_VALUE ; 
+		}
+
+		/**
+		 * Pushes the children of a line which would exceed the frame height back into the pipe. 
+		 * @param lineStart Index of the line's first child in the placed frame. 
+		 */
+		private void rejectLine(PlacedFrame placedFrame, int lineStart) { 
+			ArrayList<PlacedBlock> children = placedFrame.children ; 
+			DebugLog.add(DETAIL_8, this, null, "Children rejected because the line would exceed frame height.", true); 
+			if (DebugLog.isLogging(ALL_9, this, null)) DebugLog.add(ALL_9, this, null, logMessage_lineRejected, children.size()-lineStart, null, false); 
+			keepMeasured(children, lineStart); 
+			placedFrame.revertChildrenFrom(lineStart); 
 		}
 
 		/**
-		 * Information about the children on a single line. 
-		 * This is internal to this class: it is not passed outside, and is used only in the fill-pass. 
+		 * Measures the children, chooses the line breaks which minimise the total demerits, then accepts as many lines as fit in the height. 
+		 * The children which don't fit are pushed back to the reader. 
+		 * See {@link #setOptimalLineBreaking(boolean)}. 
+		 * @return True if the lines were accepted, and recorded with {@link #addLine(int, double, double, double)}. 
+		 * False if a child couldn't be completely filled, in which case all the children have been pushed back, for greedy breaking. 
 		 */
-		private static class Line { 
-			ArrayList<PlacedBlock> childrenOnLine; 
-			double sumWidth ;
-			double lineTop ; 
-			double lineHeight ; 
-			public boolean canFitLineInHeight;
-			boolean isLast = false ; 
+		private boolean fillLinesOptimally(PlacedFrame placedFrame, Layout frameLayout) throws IOException { 
+			double horizontalGapSize = getHorizontalGap(quill); 
+			double maxWidth = frameLayout.maxWidth ; 
+			ArrayList<PlacedBlock> children = placedFrame.children ; 
+			//////  Measure children, up to a little more than can fit. 
+			double readWidth = 0 ; 
+			double minHeight = Double.POSITIVE_INFINITY ; 
+			while (reader.hasMore()) { 
+				Block child = reader.read(); 
+				PlacedBlock placedChild = fillChild(child, frameLayout); 
+				addChild(placedFrame, placedChild); 
+				if (!child.isFillComplete()) { 
+					DebugLog.add(DETAIL_8, this, null, "Child can be split, so lines are broken greedily.", true); 
+					keepMeasured(children, 0); 
+					placedFrame.revertChildrenFrom(0); 
+					return false ; 
+				}
+				readWidth += placedChild.getWidth() + horizontalGapSize ; 
+				if (placedChild.getHeight()>0 && placedChild.getHeight()<minHeight) minHeight = placedChild.getHeight() ; 
+				/* Two lines more than could possibly fit, so the breaks near the bottom of the frame still see what follows. */
+				if (frameLayout.allowSplitting && readWidth > maxWidth * (frameLayout.maxHeight/minHeight + 2)) break ; 
+			}
+			int childCount = children.size(); 
+			boolean isParagraphEnd = !reader.hasMore(); 
+			//////  Find the best breaks. Breakpoint i is just before child i. 
+			ensureBreakCapacity(childCount+1); 
+			double[] sumWidths = breakSumWidths ; // Sum of the widths of the children before each breakpoint. 
+			sumWidths[0] = 0 ; 
+			for (int i=0 ; i<childCount ; i++) sumWidths[i+1] = sumWidths[i] + childWidths[i] ; 
+			double[] demerits = breakDemerits ; // Least total demerits of the lines up to each breakpoint. 
+			demerits[0] = 0 ; 
+			int[] previousBreaks = this.previousBreaks ; // Start of the last line, in the best lines up to each breakpoint. 
+			boolean isFullyJustified = frameLayout.justification==Layout.FULL ; 
+			double raggedStretch = RAGGED_STRETCH_EMS * quill.getFontSize() ; 
+			int firstActive = 0 ; // Earlier breakpoints can't start a line reaching the current one. 
+			for (int end=1 ; end<=childCount ; end++) { 
+				demerits[end] = Double.POSITIVE_INFINITY ; 
+				boolean isLastLine = isParagraphEnd && end==childCount ; 
+				int windowStart = Math.max(firstActive, end-MAX_CHILDREN_ON_LINE); 
+				for (int start=end-1 ; start>=windowStart ; start--) { 
+					int count = end - start ; 
+					double lineWidth = sumWidths[end] - sumWidths[start] + horizontalGapSize*(count-1) ; 
+					if (lineWidth>maxWidth && count>1) { 
+						/* Too wide, and lines from earlier breakpoints are wider still, now and for every later breakpoint. */
+						firstActive = start + 1 ; 
+						break ; 
+					}
+					double badness ; 
+					if (isLastLine || lineWidth>=maxWidth) { 
+						badness = 0 ; 
+					} else { 
+						double stretch = isFullyJustified ? horizontalGapSize*(count-1) : raggedStretch ; 
+						badness = (stretch>0) ? Math.min(INFINITE_BADNESS, 100*Math.pow((maxWidth-lineWidth)/stretch, 3)) : INFINITE_BADNESS ; 
+					}
+					double lineDemerits = (LINE_PENALTY+badness) * (LINE_PENALTY+badness) ; 
+					if (demerits[start]+lineDemerits < demerits[end]) { 
+						demerits[end] = demerits[start] + lineDemerits ; 
+						previousBreaks[end] = start ; 
+					}
+				}
+			}
+			int breakLineCount = 0 ; 
+			for (int end=childCount ; end>0 ; end=previousBreaks[end]) breakLineCount ++ ; 
+			int[] breaks = this.breaks ; // At most one line per child, so the buffer is big enough. 
+			for (int end=childCount, i=breakLineCount ; i>=0 ; end=previousBreaks[end], i--) breaks[i] = end ; 
+			//////  Accept lines while they fit in the height. 
+			double remainingHeight = frameLayout.maxHeight ; 
+			double nextTop = 0 ; 
+			int acceptedCount = 0 ; 
+			for (int l=0 ; l<breakLineCount ; l++) { 
+				int lineStart = breaks[l] ; 
+				int lineEnd = breaks[l+1] ; 
+				double lineHeight = 0 ; 
+				for (int i=lineStart ; i<lineEnd ; i++) if (childHeights[i]>lineHeight) lineHeight = childHeights[i] ; 
+				if (frameLayout.allowSplitting && lineHeight>remainingHeight) { 
+					DebugLog.add(DETAIL_8, this, null, "Children rejected because the line would exceed frame height.", true); 
+					break ; 
+				}
+				addLine(lineStart, sumWidths[lineEnd] - sumWidths[lineStart] + horizontalGapSize*(lineEnd-lineStart-1), nextTop, lineHeight); 
+				acceptedCount = lineEnd ; 
+				nextTop += lineHeight ; 
+				remainingHeight = Math.max(0, remainingHeight-lineHeight); 
+			}
+			if (acceptedCount<childCount) { 
+				keepMeasured(children, acceptedCount); 
+				placedFrame.revertChildrenFrom(acceptedCount); 
+			}
+			return true ; 
+		}
+
+		/**
+		 * Grows the work space of {@link #fillLinesOptimally(PlacedFrame, Layout)}, if need be, to hold the given number of breakpoints. 
+		 */
+		private void ensureBreakCapacity(int breakpointCount) { 
+			if (breakpointCount<=breaks.length) return ; 
+			int length = Math.max(breakpointCount, breaks.length*2); 
+			breakSumWidths = new double[length] ; 
+			breakDemerits = new double[length] ; 
+			previousBreaks = new int[length] ; 
+			breaks = new int[length] ; 
+		}
+
+		/**
+		 * Adds the child to the placed frame, and records its size in {@link #childWidths} and {@link #childHeights}. 
+		 */
+		private void addChild(PlacedFrame placedFrame, PlacedBlock placedChild) { 
+			int index = placedFrame.children.size(); 
+			if (index==childWidths.length) { 
+				childWidths = Arrays.copyOf(childWidths, index*2); 
+				childHeights = Arrays.copyOf(childHeights, index*2); 
+			}
+			childWidths[index] = placedChild.getWidth() ; 
+			childHeights[index] = placedChild.getHeight() ; 
+			placedFrame.children.add(placedChild); 
+		}
+
+		/**
+		 * Records a line in the line buffers. 
+		 * @param lineStart Index of the line's first child in the placed frame. The line ends where the next begins, or at the last child. 
+		 */
+		private void addLine(int lineStart, double lineWidth, double lineTop, double lineHeight) { 
+			if (lineCount==lineStarts.length) { 
+				int length = lineCount*2 ; 
+				lineStarts = Arrays.copyOf(lineStarts, length); 
+				lineWidths = Arrays.copyOf(lineWidths, length); 
+				lineTops = Arrays.copyOf(lineTops, length); 
+				lineHeights = Arrays.copyOf(lineHeights, length); 
+			}
+			lineStarts[lineCount] = lineStart ; 
+			lineWidths[lineCount] = lineWidth ; 
+			lineTops[lineCount] = lineTop ; 
+			lineHeights[lineCount] = lineHeight ; 
+			lineCount ++ ; 
+		}
+
+		/**
+		 * Fills the child, or returns the placed block kept for it by {@link #keepMeasured(ArrayList, int)}, if it was measured with the same quill. 
+		 */
+		private PlacedBlock fillChild(Block child, Layout eatenLayout) throws IOException { 
+			if (measuredAheadIndex<measuredAhead.size()) { 
+				PlacedBlock placedChild = measuredAhead.get(measuredAheadIndex); 
+				if (placedChild.getBlock()==child && quill==measuredAheadQuill) { 
+					measuredAheadIndex ++ ; 
+					return placedChild ; 
+				}
+				/* The pipe has been rewound elsewhere, or the quill has changed. */
+				measuredAhead.clear(); 
+				measuredAheadIndex = 0 ; 
+			}
+			return child.fill(quill, eatenLayout); 
+		}
+
+		/**
+		 * Keeps the placed children which are about to be pushed back into the pipe, so {@link #fillChild(Block, Layout)} can use them again. 
+		 * Must be called before the children are reverted. 
+		 * Children are kept up to the first whose block isn't {@link Block#isFillReusable() reusable}. 
+		 * <p>
+		 * When there are enough, the kept children take the places of those already used again, 
+		 * so the word pushed back at the end of each line costs no allocation. 
+		 * @param pushedBack The children from <code>fromIndex</code> onwards are pushed back, in the order they were read. 
+		 */
+		private void keepMeasured(ArrayList<PlacedBlock> pushedBack, int fromIndex) { 
+			if (quill!=measuredAheadQuill) { 
+				measuredAhead.clear(); 
+				measuredAheadIndex = 0 ; 
+				measuredAheadQuill = quill ; 
+			}
+			int count = pushedBack.size() - fromIndex ; 
+			int keptCount = 0 ; 
+			while (keptCount<count && pushedBack.get(fromIndex+keptCount).getBlock().isFillReusable()) keptCount ++ ; 
+			if (keptCount<count) { 
+				/* Those kept earlier follow a child which must be filled again, so won't be reached. */
+				measuredAhead.clear(); 
+				measuredAheadIndex = 0 ; 
+			}
+			/* Those kept earlier, but not yet used again, follow the pushed-back children in the pipe. */
+			if (keptCount<=measuredAheadIndex) { 
+				measuredAheadIndex -= keptCount ; 
+				for (int i=0 ; i<keptCount ; i++) measuredAhead.set(measuredAheadIndex+i, pushedBack.get(fromIndex+i)); 
+			} else { 
+				measuredAhead.subList(0, measuredAheadIndex).clear(); 
+				measuredAhead.addAll(0, pushedBack.subList(fromIndex, fromIndex+keptCount)); 
+				measuredAheadIndex = 0 ; 
+			}
+		}
+
+		/**
+		 * A {@link PlacedFrame} which keeps its children's measurements when it is reverted, 
+		 * as when the frame is rejected at the foot of a page, and filled again on the next. 
+		 */
+		private class PlacedReadingFrame extends PlacedFrame { 
+			@Override
+			public void revertToStart() { 
+				/* Reverting the empty part left by moving the paragraph whole is the move itself, so doesn't allow another. */
+				if (!children.isEmpty()) isMovedWhole = false ; 
+				keepMeasured(children, 0); 
+				super.revertToStart(); 
+			}
 		}
 		
 		/**
 		 * Generates log message when a line is too tall for the remaining space. 
+		 * The first message-arg is an integer - how many children are reverted. 
 		 */
 		protected static final StringGetter logMessage_lineRejected = new StringGetter() { // TODO Test this 
-			public String getString(Block block, PlacedBlock placedBlock, Object lineObject, Object dummy) {
-				Line line = (Line) lineObject ; 
-				String message = "Line rejected, "+line.childrenOnLine.size()+" children reverted" ; 
+			public String getString(Block block, PlacedBlock placedBlock, Object countObject, Object dummy) {
+				Integer count = (Integer) countObject ; 
+				String message = "Line rejected, "+count+" children reverted" ; 
 				return message ; 
 			}
 		};
@@ -1,21 +1,32 @@
 package org.blockframe.blocks;
 
 import java.io.IOException;
+import java.util.ArrayList;
 
 import org.blockframe.core.Block;
 import org.blockframe.core.BlockPipe;
 import org.blockframe.core.DebugLog;
 import org.blockframe.core.Frame;
 import org.blockframe.core.Layout;
+import org.blockframe.core.PaginationCounters;
 import org.blockframe.core.Quill;
 import org.blockframe.core.Layout.Justification;
 
 
 /**
  * A {@link Frame} subclass that lays out its children vertically. 
+ * <p>
+ * When the frame is full, it honours its children's {@link Block#setKeepWithNext(boolean) keep-with-next} and {@link Block#setKeepTogether(boolean) keep-together}, 
+ * by pushing children it has already filled back to the next frame. 
  */
 public class FrameVertical extends Frame { 
 	
+	/**
+	 * The most keep-with-next children moved together to the next frame. 
+	 * A longer chain is broken where the frame is full, so a long chain costs no more refilling than this. 
+	 */
+	public static final int MAX_KEEP_CHAIN = 8 ; 
+	
 	public FrameVertical() {}
 	
 	public FrameVertical(BlockPipe pipe) { 
@@ -32,6 +43,7 @@ public class FrameVertical extends Frame {
 		PlacedFrame placedFrame = this.new PlacedFrame(); 
 		//////  Measure children and accept as many as we can fit
 		double maxWidth = 0 ; 
+		boolean isLastChildSplit = false ; 
 		{
 			Layout eatenLayout = frameLayout.copy(); // Copy of layout, whose max-height is eaten away as we add blocks. 
 			while (reader.hasMore()) { 
@@ -51,10 +63,12 @@ public class FrameVertical extends Frame {
 				}
 				placedFrame.add(placedChild); 
 				eatenLayout.reduceHeight(childHeight); 
+				if (childHeight>0) eatenLayout.isAtTop = false ; 
 				if (placedChild.getWidth()>maxWidth) maxWidth = placedChild.getWidth() ; 
 				DebugLog.add(ALL_9, this, null, logMessage_childAccepted, placedChild, eatenLayout, false); 
 				//////  Does the child need more space? 
 				if (!child.isFillComplete()) { 
+					isLastChildSplit = true ; 
 					/*
 					 * The child could not place all of its children, and still has some outstanding to place. 
 					 * There isn't room in this frame to place them, so we'll exit here and let our parent find more space. 
@@ -64,6 +78,11 @@ public class FrameVertical extends Frame {
 				}
 			}
 		}
+		//////  Honour keeps, if we're leaving children for the next frame 
+		if (frameLayout.allowSplitting && reader.hasMore() && revertForKeeps(placedFrame, isLastChildSplit)) { 
+			maxWidth = 0 ; 
+			for (PlacedBlock child : placedFrame.children) if (child.getWidth()>maxWidth) maxWidth = child.getWidth() ; 
+		}
 		double frameWidth = frameLayout.isWidthTight ? maxWidth : frameLayout.maxWidth ; 
 		//////  Position children in this frame
 		Justification justification = frameLayout.justification; 
@@ -78,7 +97,44 @@ public class FrameVertical extends Frame {
 		}
 		//////  Set my dimensions
 		placedFrame.setDimensions(frameWidth, nextTop); // TODO Honour vertical alignment
-		DebugLog.add(LEAVING_6, this, null, logMessage_leavingFill, placedFrame.size(), null, false); 
+		if (DebugLog.isLogging(LEAVING_6, this, null)) DebugLog.add(LEAVING_6, this, null, logMessage_leavingFill, placedFrame.size(), null, false); 
 		return placedFrame ; 
 	}
+
+	/**
+	 * Pushes back children, which are already placed in the frame, to honour keep-together and keep-with-next. 
+	 * <p>
+	 * A last child which was split is pushed back if it is keep-together, or if none of it was placed. 
+	 * Then, if the last child left is keep-with-next, it is pushed back, along with the chain of keep-with-next children before it. 
+	 * The chain is followed back at most {@link #MAX_KEEP_CHAIN} children. 
+	 * If it is longer, or reaches the first child, it is left where it is, with the split child after it: pushing it back would not help, and could loop. 
+	 * <p>
+	 * The first child is never pushed back, so every frame places something, and pagination always progresses. 
+	 * @param isLastChildSplit Whether the last child placed was split, with the rest left for the next frame. 
+	 * @return Whether any children were pushed back. 
+	 */
+	private boolean revertForKeeps(PlacedFrame placedFrame, boolean isLastChildSplit) { 
+		ArrayList<PlacedBlock> children = placedFrame.children ; 
+		int count = children.size(); 
+		if (count<2) return false ; 
+		int firstReverted = count ; // Children from here on are pushed back. 
+		PlacedBlock lastChild = children.get(count-1); 
+		if (isLastChildSplit && (lastChild.getBlock().isKeepTogether() || lastChild.getHeight()==0)) firstReverted = count-1 ; 
+		int chainStart = firstReverted ; 
+		while (chainStart>0 && children.get(chainStart-1).getBlock().isKeepWithNext()) { 
+			if (firstReverted-chainStart==MAX_KEEP_CHAIN) break ; 
+			chainStart -- ; 
+		}
+		if (chainStart>0 && !children.get(chainStart-1).getBlock().isKeepWithNext()) { 
+			firstReverted = chainStart ; 
+		} else if (chainStart<firstReverted) { 
+			/* The chain can't move, so leave the split child with it, rather than leave the chain last in the frame. */
+			firstReverted = count ; 
+		}
+		if (firstReverted==count) return false ; 
+		DebugLog.add(DETAIL_8, this, null, "Children pushed back to keep them with the next.", true); 
+		PaginationCounters.addKeepBacktrack(count-firstReverted); 
+		placedFrame.revertChildrenFrom(firstReverted); 
+		return true ; 
+	}
 }
\ No newline at end of file
@@ -0,0 +1,308 @@
+package org.blockframe.blocks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+import org.blockframe.core.Block;
+import org.blockframe.core.BlockPipe.BlockSource;
+import org.blockframe.core.PdfChapter;
+import org.blockframe.core.Quill;
+import org.blockframe.core.Quill.TextStyle;
+
+
+/**
+ * Reads plain text, or a light form of Markdown, a line at a time, and makes a {@link ParagraphBlock} for each paragraph, heading and list item as it is asked for.
+ * <p>
+ * Write it into a chapter with {@link PdfChapter#write(BlockSource)}. Then only the paragraphs on the page being filled are in memory,
+ * however long the text is, and pagination can start as soon as the first paragraph is read.
+ * <p>
+ * Paragraphs are separated by blank lines. In Markdown, these are also recognised:
+ * <ul>
+ * <li>Headings, a line starting with one to six <code>#</code> and a space. Headings are bold, and kept with the next block.</li>
+ * <li>List items, starting with <code>-</code>, <code>*</code> or <code>+</code> and a space, or a number, a dot and a space. Each item is a paragraph, keeping its marker.</li>
+ * <li>Bold <code>**like this**</code> and italic <code>*like this*</code>, within a paragraph, even within a word.</li>
+ * </ul>
+ * Anything else is left as text.
+ * <p>
+ * The reader is closed when the text runs out. An {@link IOException} while reading is thrown as a {@link RuntimeException}, as {@link BlockSource#nextBlock()} can't throw it.
+ */
+public class MarkdownSource implements BlockSource { 
+
+	private static final TextStyle[] BODY_STYLES = { null, TextStyle.BOLD, TextStyle.ITALIC, TextStyle.BOLD_ITALIC };
+
+	private static final float[] DEFAULT_HEADING_SIZES = { 20, 16, 14, 12, 12, 12 };
+
+	private final BufferedReader reader ; 
+
+	private boolean isMarkdown = true ; 
+
+	/**
+	 * The gap before each block, except the first and those after a heading, as a multiple of the font height. Zero for none.
+	 */
+	private double paragraphGap = 0.5 ; 
+
+	/**
+	 * For each heading level, the styles for plain, bold, italic and bold-italic text, all bold.
+	 */
+	private final TextStyle[][] headingStyles = new TextStyle[DEFAULT_HEADING_SIZES.length][] ; 
+
+	/**
+	 * A line read, but belonging to the next block. <code>null</code> if none.
+	 */
+	private String pendingLine = null ; 
+
+	/**
+	 * A block made, to return after the gap before it.
+	 */
+	private Block pendingBlock = null ; 
+
+	private boolean isFirstBlock = true ; 
+
+	private boolean isAfterHeading = false ; 
+
+	private boolean isFinished = false ; 
+
+	/**
+	 * Holds the text of the block being read. Reused, so it only grows to the longest paragraph.
+	 */
+	private final StringBuilder text = new StringBuilder(); 
+
+	public MarkdownSource(Reader reader) { 
+		this.reader = (reader instanceof BufferedReader) ? (BufferedReader) reader : new BufferedReader(reader); 
+		for (int level=1 ; level<=headingStyles.length ; level++) setHeadingSize(level, DEFAULT_HEADING_SIZES[level-1]); 
+	}
+
+	/**
+	 * Reads the file, in UTF-8.
+	 */
+	public MarkdownSource(File file) throws IOException { 
+		this(new InputStreamReader(new FileInputStream(file), "UTF-8")); 
+	}
+
+	/**
+	 * Sets whether the text is Markdown, the default, or plain text, where every block is a paragraph and no characters are special.
+	 */
+	public MarkdownSource setMarkdown(boolean isMarkdown) { 
+		this.isMarkdown = isMarkdown ; 
+		return this ; 
+	}
+
+	/**
+	 * Sets the gap before each block, as a multiple of the font height. There is no gap before the first block, nor between a heading and the block after it.
+	 */
+	public MarkdownSource setParagraphGap(double paragraphGap) { 
+		this.paragraphGap = paragraphGap ; 
+		return this ; 
+	}
+
+	/**
+	 * Sets the font size of a heading level, from 1 to 6.
+	 */
+	public MarkdownSource setHeadingSize(int level, float size) { 
+		if (level<1 || level>headingStyles.length) throw new IllegalArgumentException("Heading level should be 1 to "+headingStyles.length+", not "+level); 
+		/* Made once here, not per heading, so the styles are shared by every heading of the level. */
+		headingStyles[level-1] = new TextStyle[] { 
+				new TextStyle(null, Quill.BOLD, size, null),
+				new TextStyle(null, Quill.BOLD, size, null),
+				new TextStyle(null, Quill.BOLD_ITALIC, size, null),
+				new TextStyle(null, Quill.BOLD_ITALIC, size, null) };
+		return this ; 
+	}
+
+	public Block nextBlock() { 
+		if (pendingBlock!=null) { 
+			Block block = pendingBlock ; 
+			this.pendingBlock = null ; 
+			return block ; 
+		}
+		if (isFinished) return null ; 
+		Block block ; 
+		boolean wasAfterHeading = isAfterHeading ; 
+		try { 
+			block = readBlock(); 
+			if (block==null) { 
+				this.isFinished = true ; 
+				reader.close(); 
+				return null ; 
+			}
+		} catch (IOException e) { 
+			throw new RuntimeException("Failed reading text", e); 
+		}
+		if (isFirstBlock || wasAfterHeading || paragraphGap==0) { 
+			this.isFirstBlock = false ; 
+			return block ; 
+		}
+		this.pendingBlock = block ; 
+		return new SpacerHeight(true, paragraphGap); 
+	}
+
+	private String readLine() throws IOException { 
+		if (pendingLine!=null) { 
+			String line = pendingLine ; 
+			this.pendingLine = null ; 
+			return line ; 
+		}
+		return reader.readLine(); 
+	}
+
+	/**
+	 * Reads the lines of the next block, and makes it. Returns <code>null</code> at the end of the text.
+	 */
+	private Block readBlock() throws IOException { 
+		String line = readLine(); 
+		while (line!=null && isBlank(line)) line = readLine(); 
+		if (line==null) return null ; 
+		text.setLength(0); 
+		if (isMarkdown) { 
+			int level = getHeadingLevel(line); 
+			if (level>0) { 
+				this.isAfterHeading = true ; 
+				text.append(line, level+1, line.length()); 
+				Block heading = makeParagraph(headingStyles[level-1]); 
+				heading.setKeepWithNext(true); 
+				return heading ; 
+			}
+		}
+		this.isAfterHeading = false ; 
+		text.append(line); 
+		while ((line=readLine())!=null) { 
+			if (isBlank(line)) break ; 
+			if (isMarkdown && (getHeadingLevel(line)>0 || getListMarkerLength(line)>0)) { 
+				this.pendingLine = line ; 
+				break ; 
+			}
+			text.append(' ').append(line); 
+		}
+		return makeParagraph(BODY_STYLES); 
+	}
+
+	/**
+	 * Makes a paragraph of {@link #text}, switching between the styles at <code>**</code> and <code>*</code> in Markdown.
+	 * Each span is appended joined, with the whitespace around it in the source, so a mark with no whitespace beside it,
+	 * as in <code>**Note**:</code> or <code>un*believ*able</code>, changes style within a word, without breaking it.
+	 * A mark which would open emphasis, but is never closed later in the paragraph, as in <code>*nix</code> or <code>5*x + 3</code>, is left as text.
+	 * @param styles The styles for plain, bold, italic and bold-italic text.
+	 */
+	private ParagraphBlock makeParagraph(TextStyle[] styles) { 
+		ParagraphBlock paragraph = new ParagraphBlock(); 
+		if (!isMarkdown) { 
+			paragraph.append(text.toString(), styles[0]); 
+			return paragraph ; 
+		}
+		int n = text.length(); 
+		int spanStart = 0 ; 
+		boolean isBold = false ; 
+		boolean isItalic = false ; 
+		/* Once a search for a closing mark has failed, no later opening mark of that length can be closed either. */
+		boolean isBoldUnclosable = false ; 
+		boolean isItalicUnclosable = false ; 
+		int i = 0 ; 
+		while (i<n) { 
+			if (text.charAt(i)!='*') { 
+				i ++ ; 
+				continue ; 
+			}
+			int markLength = getMarkLength(i); 
+			boolean isInside = (markLength==2) ? isBold : isItalic ; 
+			if (!isEmphasisMark(i, markLength, isInside)) { 
+				i += markLength ; 
+				continue ; 
+			}
+			if (!isInside) { 
+				boolean isUnclosable = (markLength==2) ? isBoldUnclosable : isItalicUnclosable ; 
+				if (!isUnclosable && !hasClosingMark(i+markLength, markLength)) { 
+					isUnclosable = true ; 
+					if (markLength==2) isBoldUnclosable = true ; 
+					else isItalicUnclosable = true ; 
+				}
+				if (isUnclosable) { 
+					i += markLength ; 
+					continue ; 
+				}
+			}
+			if (i>spanStart) paragraph.append(text.substring(spanStart, i), styles[(isBold?1:0)+(isItalic?2:0)], true); 
+			if (markLength==2) isBold = !isBold ; 
+			else isItalic = !isItalic ; 
+			i += markLength ; 
+			spanStart = i ; 
+		}
+		if (n>spanStart) paragraph.append(text.substring(spanStart, n), styles[(isBold?1:0)+(isItalic?2:0)], true); 
+		return paragraph ; 
+	}
+
+	/**
+	 * Whether the asterisks at <code>i</code> open or close emphasis: an opening mark is followed by a non-space, and a closing mark follows one.
+	 * A list marker's asterisk, followed by a space, is left as text.
+	 * @param isInside Whether the emphasis is open, so the mark would close it.
+	 */
+	private boolean isEmphasisMark(int i, int markLength, boolean isInside) { 
+		if (isInside) return i>0 && !Character.isWhitespace(text.charAt(i-1)); 
+		int after = i+markLength ; 
+		return after<text.length() && !Character.isWhitespace(text.charAt(after)); 
+	}
+
+	/**
+	 * Returns 2 if the asterisk at <code>i</code> is followed by another, making a bold mark, and 1 otherwise.
+	 */
+	private int getMarkLength(int i) { 
+		return (i+1<text.length() && text.charAt(i+1)=='*') ? 2 : 1 ; 
+	}
+
+	/**
+	 * Whether there is a mark of the given length, from <code>from</code> on, which could close emphasis.
+	 */
+	private boolean hasClosingMark(int from, int markLength) { 
+		int n = text.length(); 
+		int i = from ; 
+		while (i<n) { 
+			if (text.charAt(i)!='*') { 
+				i ++ ; 
+				continue ; 
+			}
+			int length = getMarkLength(i); 
+			if (length==markLength && isEmphasisMark(i, length, true)) return true ; 
+			i += length ; 
+		}
+		return false ; 
+	}
+
+	private static boolean isBlank(String line) { 
+		for (int i=0 ; i<line.length() ; i++) { 
+			if (!Character.isWhitespace(line.charAt(i))) return false ; 
+		}
+		return true ; 
+	}
+
+	/**
+	 * Returns the level of a heading line, or 0 if the line isn't a heading.
+	 */
+	private int getHeadingLevel(String line) { 
+		int level = 0 ; 
+		while (level<line.length() && line.charAt(level)=='#') level ++ ; 
+		if (level==0 || level>headingStyles.length || level>=line.length() || line.charAt(level)!=' ') return 0 ; 
+		return level ; 
+	}
+
+	/**
+	 * Returns the length of the list marker starting the line, including the space after it, or 0 if the line isn't a list item.
+	 */
+	private static int getListMarkerLength(String line) { 
+		int n = line.length(); 
+		int i = 0 ; 
+		while (i<n && line.charAt(i)==' ') i ++ ; 
+		if (i>=n) return 0 ; 
+		char c = line.charAt(i); 
+		if (c=='-' || c=='*' || c=='+') { 
+			return (i+1<n && line.charAt(i+1)==' ') ? i+2 : 0 ; 
+		}
+		int digitsStart = i ; 
+		while (i<n && Character.isDigit(line.charAt(i))) i ++ ; 
+		if (i==digitsStart || i-digitsStart>9) return 0 ; 
+		return (i+1<n && line.charAt(i)=='.' && line.charAt(i+1)==' ') ? i+2 : 0 ; 
+	}
+
+}
@@ -0,0 +1,670 @@
+package org.blockframe.blocks;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.blockframe.core.Block;
+import org.blockframe.core.Canvas;
+import org.blockframe.core.DebugLog;
+import org.blockframe.core.Kerning;
+import org.blockframe.core.Layout;
+import org.blockframe.core.PaginationCounters;
+import org.blockframe.core.Quill;
+import org.blockframe.core.Layout.Alignment;
+import org.blockframe.core.Layout.Justification;
+import org.blockframe.core.Quill.FontStyle;
+import org.blockframe.core.Quill.TextStyle;
+
+
+/**
+ * A paragraph of words, held as one array of characters, rather than as a {@link StringBlock} per word in a {@link FrameReading}.
+ * <p>
+ * It lays out its words into lines just as a {@link FrameReading} of {@link StringBlock} instances does,
+ * with the same gaps, justification and alignment, and splits over pages in the same places.
+ * But it stores only the text, the offsets of the words, and their widths: a few bytes per word,
+ * rather than a block, a pipe link and a placed block per word.
+ * The words are measured together with {@link Quill#measureWords(char[], int[], int[], int, int, double[])}, and each line is drawn in one text object,
+ * with one text operator for each style run on the line, however it is justified.
+ * <p>
+ * Text is added with {@link #append(String)} and {@link #append(String, TextStyle)}, and split into words at whitespace.
+ * Text appended with equal styles forms a style run, a range of characters of the one text buffer.
+ * Text appended joined (see {@link #append(String, TextStyle, boolean)}) straight after a word, with no whitespace between, continues that word,
+ * so a run can begin or end within a word, and such a word is measured and drawn a piece per run.
+ * A run is drawn in the paragraph's quill changed by the run's {@link TextStyle} - bold, italic, another size or colour -
+ * or in the paragraph's quill unchanged if the style is null.
+ * So styles can be mixed within a paragraph without a {@link StringBlock} subclass overriding {@link #inheritQuill(Quill)} for each styled word.
+ * <p>
+ * Each distinct style's quill is resolved once, when the words are measured, by {@link Quill#copy(TextStyle)}, however many runs have the style.
+ * Laying out and drawing create no quills, and switch font and colour only where the run changes.
+ */
+public class ParagraphBlock extends Block implements DebugLog.Verbosity { 
+
+	/**
+	 * The words, separated by single spaces.
+	 */
+	private char[] chars = new char[64] ; 
+
+	private int charCount = 0 ; 
+
+	/**
+	 * Offsets in {@link #chars} of the start, and just past the end, of each word.
+	 */
+	private int[] wordStarts = new int[16], wordEnds = new int[16] ; 
+
+	private int wordCount = 0 ; 
+
+	/**
+	 * The offset in {@link #chars} of the first character of each style run, and the index of the run's style in {@link #styles}.
+	 * A run ends where the next begins, or at the end of the text.
+	 */
+	private int[] runStarts = new int[1], runStyles = new int[1] ; 
+
+	private int runCount = 0 ; 
+
+	/**
+	 * The distinct styles of the runs, each resolved to a quill once per measurement, however many runs have it.
+	 */
+	private TextStyle[] styles = new TextStyle[1] ; 
+
+	private int styleCount = 0 ; 
+
+	/**
+	 * The index of each style in {@link #styles}, once there are more than a few to search. Null until then.
+	 */
+	private HashMap<TextStyle,Integer> styleIndexes ; 
+
+	/**
+	 * Whether the text appended so far ends with a word, rather than whitespace, so more text appended joined, starting with a word, continues it.
+	 */
+	private boolean isWordOpen = false ; 
+
+	/**
+	 * The quill the words were last measured with. They are measured again if it changes, or more text is appended.
+	 */
+	private Quill measuredQuill ; 
+
+	private double[] wordWidths ; 
+
+	/**
+	 * The quill, font height, and width of a space, of each style, and of each run.
+	 */
+	private Quill[] styleQuills ; 
+
+	private double[] styleHeights ; 
+
+	private double[] styleSpaceWidths ; 
+
+	private Quill[] runQuills ; 
+
+	private double[] runHeights ; 
+
+	private double[] runSpaceWidths ; 
+
+	/**
+	 * For each run beginning within a word, how far into the word it begins.
+	 */
+	private double[] runOffsets ; 
+
+	/**
+	 * Horizontal gap between words, before justification. As in {@link FrameReading}, this is the width of a space.
+	 */
+	private double horizontalGap ; 
+
+	/**
+	 * The first word not yet placed. A fill starts here.
+	 */
+	private int nextWord = 0 ; 
+
+	/**
+	 * Whether the first part of the paragraph has been pushed back whole, to keep its orphans together.
+	 * This is done only once, until the paragraph is reverted to its start from a part with lines in it.
+	 */
+	private boolean isMovedWhole = false ; 
+
+	public ParagraphBlock() {}
+
+	public ParagraphBlock(String text) { 
+		append(text); 
+	}
+
+	/**
+	 * Appends the words of the text, in the paragraph's own quill.
+	 */
+	public ParagraphBlock append(String text) { 
+		return append(text, (TextStyle) null); 
+	}
+
+	/**
+	 * Appends the words of the text, in the given font style of the paragraph's quill.
+	 * @param style May be null, for the paragraph's own quill.
+	 */
+	public ParagraphBlock append(String text, FontStyle style) { 
+		return append(text, TextStyle.get(style)); 
+	}
+
+	/**
+	 * Appends the words of the text, in the given style. The first word is a new word, even if the text appended before ended with one.
+	 * @param style May be null, for the paragraph's own quill.
+	 */
+	public ParagraphBlock append(String text, TextStyle style) { 
+		return append(text, style, false); 
+	}
+
+	/**
+	 * Appends the words of the text, in the given style, optionally continuing the last word.
+	 * <p>
+	 * If <code>isJoined</code>, the text starts with a word, and the text appended before ended with one, with no whitespace between, the two are one word.
+	 * So a style can change within a word, as in <code>un</code>, <code>believ</code> in italic, and <code>able</code>, each appended joined.
+	 * @param style May be null, for the paragraph's own quill.
+	 * @param isJoined Whether text with no whitespace between it and the last word continues the word, rather than starting a new one.
+	 */
+	public ParagraphBlock append(String text, TextStyle style, boolean isJoined) { 
+		if (!isJoined) isWordOpen = false ; 
+		boolean isRunAdded = false ; 
+		int i = 0 ; 
+		int n = text.length(); 
+		while (i<n) { 
+			int spaceStart = i ; 
+			while (i<n && Character.isWhitespace(text.charAt(i))) i++ ; 
+			if (i>spaceStart) isWordOpen = false ; 
+			if (i>=n) break ; 
+			int start = i ; 
+			while (i<n && !Character.isWhitespace(text.charAt(i))) i++ ; 
+			if (!isRunAdded) { 
+				addRun((isWordOpen || charCount==0) ? charCount : charCount+1, style); 
+				isRunAdded = true ; 
+			}
+			addWord(text, start, i); 
+			isWordOpen = true ; 
+		}
+		this.measuredQuill = null ; 
+		return this ; 
+	}
+
+	/**
+	 * Starts a run at the offset, unless the last run has the same style, and so continues.
+	 */
+	private void addRun(int start, TextStyle style) { 
+		int styleIndex = getStyleIndex(style); 
+		if (runCount>0 && runStyles[runCount-1]==styleIndex) return ; 
+		if (runCount==runStarts.length) { 
+			runStarts = Arrays.copyOf(runStarts, runCount*2); 
+			runStyles = Arrays.copyOf(runStyles, runCount*2); 
+		}
+		runStarts[runCount] = start ; 
+		runStyles[runCount] = styleIndex ; 
+		runCount ++ ; 
+	}
+
+	/**
+	 * Returns the index of the style in {@link #styles}, adding it if no equal style is there.
+	 */
+	private int getStyleIndex(TextStyle style) { 
+		if (styleIndexes!=null) { 
+			Integer index = styleIndexes.get(style); 
+			if (index!=null) return index ; 
+		} else { 
+			for (int st=0 ; st<styleCount ; st++) { 
+				if ((style==null) ? styles[st]==null : style.equals(styles[st])) return st ; 
+			}
+			if (styleCount==8) { 
+				styleIndexes = new HashMap<TextStyle,Integer>(); 
+				for (int st=0 ; st<styleCount ; st++) styleIndexes.put(styles[st], st); 
+			}
+		}
+		if (styleCount==styles.length) styles = Arrays.copyOf(styles, styleCount*2); 
+		styles[styleCount] = style ; 
+		if (styleIndexes!=null) styleIndexes.put(style, styleCount); 
+		return styleCount ++ ; 
+	}
+
+	/**
+	 * Adds a word, or, if {@link #isWordOpen}, adds the characters to the last word.
+	 */
+	private void addWord(String text, int start, int end) { 
+		int separator = (charCount>0 && !isWordOpen) ? 1 : 0 ; 
+		int needed = charCount + separator + (end-start); 
+		if (needed>chars.length) chars = Arrays.copyOf(chars, Math.max(needed, chars.length*2)); 
+		if (isWordOpen) { 
+			text.getChars(start, end, chars, charCount); 
+			charCount += end-start ; 
+			wordEnds[wordCount-1] = charCount ; 
+			return ; 
+		}
+		if (separator>0) chars[charCount++] = ' ' ; 
+		if (wordCount==wordStarts.length) { 
+			wordStarts = Arrays.copyOf(wordStarts, wordCount*2); 
+			wordEnds = Arrays.copyOf(wordEnds, wordCount*2); 
+		}
+		wordStarts[wordCount] = charCount ; 
+		text.getChars(start, end, chars, charCount); 
+		charCount += end-start ; 
+		wordEnds[wordCount] = charCount ; 
+		wordCount ++ ; 
+	}
+
+	/**
+	 * Number of words in the paragraph.
+	 */
+	public int getWordCount() { 
+		return wordCount ; 
+	}
+
+	/**
+	 * Returns the text, with the words separated by single spaces.
+	 */
+	public String getText() { 
+		return new String(chars, 0, charCount); 
+	}
+
+	/**
+	 * Whether all the words have been placed.
+	 */
+	@Override
+	public boolean isFillComplete() { 
+		return nextWord>=wordCount ; 
+	}
+
+	/**
+	 * Measures every word, if the quill has changed since they were last measured.
+	 * The words within one run are measured together. A word in several runs is measured a piece at a time.
+	 */
+	private void measure() throws IOException { 
+		if (quill==measuredQuill) return ; 
+		if (wordWidths==null || wordWidths.length<wordCount) wordWidths = new double[wordCount] ; 
+		if (styleQuills==null || styleQuills.length<styleCount) { 
+			styleQuills = new Quill[styleCount] ; 
+			styleHeights = new double[styleCount] ; 
+			styleSpaceWidths = new double[styleCount] ; 
+		}
+		if (runQuills==null || runQuills.length<runCount) { 
+			runQuills = new Quill[runCount] ; 
+			runHeights = new double[runCount] ; 
+			runSpaceWidths = new double[runCount] ; 
+			runOffsets = new double[runCount] ; 
+		}
+		this.horizontalGap = quill.getStringWidth(" "); 
+		for (int st=0 ; st<styleCount ; st++) { 
+			Quill styleQuill = getStyleQuill(quill, styles[st]); 
+			styleQuills[st] = styleQuill ; 
+			styleHeights[st] = styleQuill.getFontHeight(); 
+			styleSpaceWidths[st] = (styleQuill==quill) ? horizontalGap : styleQuill.getStringWidth(" "); 
+		}
+		for (int r=0 ; r<runCount ; r++) { 
+			runQuills[r] = styleQuills[runStyles[r]] ; 
+			runHeights[r] = styleHeights[runStyles[r]] ; 
+			runSpaceWidths[r] = styleSpaceWidths[runStyles[r]] ; 
+			runOffsets[r] = 0 ; 
+		}
+		int run = 0 ; 
+		int word = 0 ; 
+		while (word<wordCount) { 
+			while (run+1<runCount && runStarts[run+1]<=wordStarts[word]) run ++ ; 
+			int runEnd = getRunEnd(run); 
+			int batchEnd = word ; 
+			while (batchEnd<wordCount && wordEnds[batchEnd]<=runEnd) batchEnd ++ ; 
+			if (batchEnd>word) { 
+				runQuills[run].measureWords(chars, wordStarts, wordEnds, word, batchEnd, wordWidths); 
+				word = batchEnd ; 
+			} else { 
+				wordWidths[word] = measurePieces(word, run); 
+				word ++ ; 
+			}
+		}
+		this.measuredQuill = quill ; 
+	}
+
+	/**
+	 * Measures a word in several runs, a piece per run, noting how far into the word each later run begins.
+	 * @param run The run holding the start of the word.
+	 */
+	private double measurePieces(int word, int run) throws IOException { 
+		double width = 0 ; 
+		int start = wordStarts[word] ; 
+		while (start<wordEnds[word]) { 
+			int end = Math.min(getRunEnd(run), wordEnds[word]); 
+			if (start>wordStarts[word]) runOffsets[run] = width ; 
+			width += runQuills[run].getStringWidth(new String(chars, start, end-start)); 
+			start = end ; 
+			run ++ ; 
+		}
+		return width ; 
+	}
+
+	private static Quill getStyleQuill(Quill quill, TextStyle style) { 
+		return (style!=null) ? quill.copy(style) : quill ; 
+	}
+
+	/**
+	 * Returns the offset just past the end of the run.
+	 */
+	private int getRunEnd(int run) { 
+		return (run+1<runCount) ? runStarts[run+1] : charCount ; 
+	}
+
+	/**
+	 * Returns the run holding the character at the offset.
+	 */
+	private int getRun(int offset) { 
+		int run = Arrays.binarySearch(runStarts, 0, runCount, offset); 
+		return (run>=0) ? run : -run-2 ; 
+	}
+
+	/**
+	 * Returns the height of the tallest run the word is in.
+	 * @param run The run holding the start of the word.
+	 */
+	private double getWordHeight(int word, int run) { 
+		double height = runHeights[run] ; 
+		for (int r=run+1 ; r<runCount && runStarts[r]<wordEnds[word] ; r++) { 
+			if (runHeights[r]>height) height = runHeights[r] ; 
+		}
+		return height ; 
+	}
+
+	@Override
+	public PlacedBlock fill(Quill receivedQuill, Layout receivedLayout) throws IOException { 
+		DebugLog.add(ENTERING_5, this, null, logMessage_enteringFill, null, null, true); 
+		this.quill = inheritQuill(receivedQuill); 
+		Layout layout = inheritLayout(receivedLayout); 
+		DebugLog.add(DETAIL_8, this, null, Layout.logMessage_layout, layout, null, false); 
+		measure(); 
+		PlacedParagraph placedParagraph = this.new PlacedParagraph(nextWord); 
+		//////  Allocate words to lines, as FrameReading does with its children.
+		double maxWidth = layout.maxWidth ; 
+		double remainingHeight = layout.maxHeight ; 
+		double nextTop = 0 ; 
+		double widestLine = 0 ; 
+		int word = nextWord ; 
+		boolean isFirstPart = nextWord==0 ; 
+		while (word<wordCount) { 
+			/* Each iteration fills one line. */
+			int lineStart = word ; 
+			int run = getRun(wordStarts[word]); 
+			double remainingWidth = maxWidth ; 
+			double sumWidth = 0 ; 
+			double lineHeight = 0 ; 
+			boolean canFitLineInHeight = true ; 
+			while (word<wordCount) { 
+				while (run+1<runCount && runStarts[run+1]<=wordStarts[word]) run ++ ; 
+				double wordWidth = wordWidths[word] ; 
+				double wordHeight = getWordHeight(word, run); 
+				double addedWidth = wordWidth ; 
+				if (sumWidth>0) addedWidth += horizontalGap ; 
+				//// Too wide for the line?
+				if (wordWidth>remainingWidth && sumWidth>0) break ; 
+				//// Too many lines?
+				if (layout.allowSplitting && wordHeight>remainingHeight) { 
+					DebugLog.add(DETAIL_8, this, null, "Line rejected because it would exceed the height.", true); 
+					canFitLineInHeight = false ; 
+					break ; 
+				}
+				//// Accept word
+				if (wordHeight>lineHeight) lineHeight = wordHeight ; 
+				remainingWidth -= horizontalGap + wordWidth ; 
+				if (remainingWidth<0) remainingWidth = 0 ; 
+				sumWidth += addedWidth ; 
+				word ++ ; 
+			}
+			if (!canFitLineInHeight) { 
+				word = lineStart ; 
+				break ; 
+			}
+			placedParagraph.addLine(lineStart, nextTop, lineHeight, sumWidth); 
+			if (sumWidth>widestLine) widestLine = sumWidth ; 
+			remainingHeight -= lineHeight ; 
+			if (remainingHeight<0) remainingHeight = 0 ; 
+			nextTop += lineHeight ; 
+		}
+		//////  Widows and orphans
+		if (layout.allowSplitting && word<wordCount && placedParagraph.lineCount>0) { 
+			int keptEnd = controlWidowsAndOrphans(placedParagraph, word, maxWidth, isFirstPart, layout.isAtTop); 
+			if (keptEnd!=word) { 
+				word = keptEnd ; 
+				int lineCount = placedParagraph.lineCount ; 
+				nextTop = (lineCount>0) ? placedParagraph.lineTops[lineCount-1]+placedParagraph.lineHeights[lineCount-1] : 0 ; 
+				widestLine = 0 ; 
+				for (int line=0 ; line<lineCount ; line++) if (placedParagraph.lineWidths[line]>widestLine) widestLine = placedParagraph.lineWidths[line] ; 
+			}
+		}
+		this.nextWord = word ; 
+		placedParagraph.endWord = word ; 
+		//////  My dimensions
+		double width = layout.isWidthTight ? widestLine : maxWidth ; 
+		double height = layout.isHeightTight ? nextTop : layout.maxHeight ; 
+		placedParagraph.position(layout.justification, layout.alignment, width, isFillComplete()); 
+		placedParagraph.setDimensions(width, height); 
+		DebugLog.add(LEAVING_6, placedParagraph, null, logMessage_leavingFill, null, null, false); 
+		return placedParagraph ; 
+	}
+
+	/**
+	 * Drops lines from the end of the part, so the next part has at least {@link #getWidowLines()} lines,
+	 * or, if this is the first part and it would have fewer than {@link #getOrphanLines()} lines, drops every line.
+	 * The first part is dropped whole only once, and never from the top of the frame, where it would be no better placed in the next.
+	 * Otherwise as many widows are left as the orphans allow.
+	 * @param endWord The first word not placed.
+	 * @param isAtTop Whether the part starts at the top of the frame (see {@link Layout#isAtTop}).
+	 * @return The first word not placed, after dropping lines.
+	 */
+	private int controlWidowsAndOrphans(PlacedParagraph placedParagraph, int endWord, double maxWidth, boolean isFirstPart, boolean isAtTop) { 
+		int widowLines = getWidowLines(); 
+		int orphanLines = isFirstPart ? getOrphanLines() : 1 ; 
+		int lineCount = placedParagraph.lineCount ; 
+		int keptLineCount = lineCount ; 
+		if (widowLines>1) { 
+			int tailLineCount = countTailLines(endWord, maxWidth, widowLines); 
+			if (tailLineCount<widowLines) keptLineCount -= widowLines - tailLineCount ; 
+		}
+		if (keptLineCount<orphanLines) keptLineCount = (isFirstPart && !isMovedWhole && !isAtTop) ? 0 : Math.min(lineCount, orphanLines); 
+		if (keptLineCount==0) isMovedWhole = true ; 
+		if (keptLineCount==lineCount) return endWord ; 
+		DebugLog.add(DETAIL_8, this, null, "Lines dropped for widows or orphans.", true); 
+		PaginationCounters.addWidowOrphan(lineCount-keptLineCount); 
+		placedParagraph.lineCount = keptLineCount ; 
+		return placedParagraph.lineStarts[keptLineCount] ; 
+	}
+
+	/**
+	 * Breaks the words from <code>word</code> into lines, as {@link #fill(Quill, Layout)} does, but at most <code>maxLines</code>, and without placing them.
+	 * @return How many lines the rest of the paragraph has, or {@link Integer#MAX_VALUE} if it has more than <code>maxLines</code>.
+	 */
+	private int countTailLines(int word, double maxWidth, int maxLines) { 
+		int lineCount = 0 ; 
+		while (word<wordCount && lineCount<maxLines) { 
+			double remainingWidth = maxWidth ; 
+			double sumWidth = 0 ; 
+			while (word<wordCount) { 
+				double wordWidth = wordWidths[word] ; 
+				if (wordWidth>remainingWidth && sumWidth>0) break ; 
+				remainingWidth -= horizontalGap + wordWidth ; 
+				if (remainingWidth<0) remainingWidth = 0 ; 
+				sumWidth += wordWidth + ((sumWidth>0) ? horizontalGap : 0); 
+				word ++ ; 
+			}
+			lineCount ++ ; 
+		}
+		return (word<wordCount) ? Integer.MAX_VALUE : lineCount ; 
+	}
+
+	/**
+	 * Does nothing. The lines are drawn by {@link PlacedParagraph#draw(Canvas, double, double)}, as each part of a split paragraph has its own lines.
+	 */
+	@Override
+	public void draw(Canvas canvas, double left, double top, double width, double height) throws IOException {}
+
+	@Override
+	public String getLogName() { 
+		if (loggingName!=null) return loggingName ; 
+		final int substrLength = 8 ; 
+		String mySubstring = charCount > substrLength ? new String(chars, 0, substrLength) + ".." : getText(); 
+		return super.getLogName() + "'" + mySubstring + "'" ; 
+	}
+
+	/**
+	 * The lines placed by one call to {@link ParagraphBlock#fill(Quill, Layout)}.
+	 * A paragraph split over pages has one of these for each page.
+	 */
+	public class PlacedParagraph extends PlacedBlock { 
+
+		/**
+		 * The first word of this part, and the word just past its end.
+		 */
+		final int firstWord ; 
+
+		int endWord ; 
+
+		int lineCount = 0 ; 
+
+		/**
+		 * The first word of each line. A line ends where the next begins, or at {@link #endWord}.
+		 */
+		int[] lineStarts = new int[4] ; 
+
+		/**
+		 * Position of each line in the paragraph, its height and width before justification, and the left of its first word and the gap after each word, after justification.
+		 */
+		double[] lineTops = new double[4], lineHeights = new double[4], lineWidths = new double[4], lineLefts = new double[4], lineGaps = new double[4] ; 
+
+		/**
+		 * How far down its line a word shorter than the line is placed, from 0 for the top to 1 for the bottom.
+		 */
+		double dropFactor ; 
+
+		PlacedParagraph(int firstWord) { 
+			this.firstWord = firstWord ; 
+		}
+
+		void addLine(int lineStart, double lineTop, double lineHeight, double lineWidth) { 
+			if (lineCount==lineStarts.length) { 
+				int length = lineCount*2 ; 
+				lineStarts = Arrays.copyOf(lineStarts, length); 
+				lineTops = Arrays.copyOf(lineTops, length); 
+				lineHeights = Arrays.copyOf(lineHeights, length); 
+				lineWidths = Arrays.copyOf(lineWidths, length); 
+				lineLefts = Arrays.copyOf(lineLefts, length); 
+				lineGaps = Arrays.copyOf(lineGaps, length); 
+			}
+			lineStarts[lineCount] = lineStart ; 
+			lineTops[lineCount] = lineTop ; 
+			lineHeights[lineCount] = lineHeight ; 
+			lineWidths[lineCount] = lineWidth ; 
+			lineCount ++ ; 
+		}
+
+		int getLineEnd(int line) { 
+			return (line+1<lineCount) ? lineStarts[line+1] : endWord ; 
+		}
+
+		/**
+		 * Positions the words on each line, honouring justification, as {@link FrameReading} does.
+		 * The last line of the paragraph isn't fully justified.
+		 */
+		void position(Justification justification, Alignment alignment, double paragraphWidth, boolean isLastPart) { 
+			for (int line=0 ; line<lineCount ; line++) { 
+				boolean isLast = isLastPart && line==lineCount-1 ; 
+				double spareSpace = paragraphWidth - lineWidths[line] ; 
+				int lineWordCount = getLineEnd(line) - lineStarts[line] ; 
+				lineGaps[line] = horizontalGap + ((justification==Layout.FULL && !isLast && lineWordCount>0) ? spareSpace / (lineWordCount-1) : 0); 
+				if (justification==Layout.FULL) { 
+					lineLefts[line] = 0 ; 
+				} else if (justification==Layout.CENTRE_H) { 
+					lineLefts[line] = spareSpace / 2 ; 
+				} else if (justification==Layout.RIGHT) { 
+					lineLefts[line] = spareSpace ; 
+				} else { 
+					lineLefts[line] = 0 ; 
+				}
+			}
+			if (alignment==Layout.TOP) { 
+				dropFactor = 0 ; 
+			} else if (alignment==Layout.CENTRE_V) { 
+				dropFactor = 0.5 ; 
+			} else { 
+				dropFactor = 1 ; 
+			}
+		}
+
+		/**
+		 * Draws each line in one text object.
+		 * Each style run on the line is shown by one text operator, at one text position, with the spaces between its words widened to justify them.
+		 * Font and colour change only where the run changes.
+		 */
+		@Override
+		public void draw(Canvas canvas, double left, double top) throws IOException { 
+			if (DebugLog.isLogging(ENTERING_5, ParagraphBlock.this, null)) DebugLog.add(ENTERING_5, this, null, logMessage_enteringDraw, left, top, false); 
+			canvas.countQuill(quill); 
+			for (int line=0 ; line<lineCount ; line++) drawLine(canvas, left, top, line); 
+			DebugLog.add(LEAVING_6, this, null, logMessage_leavingDraw, null, null, false); 
+		}
+
+		private void drawLine(Canvas canvas, double left, double top, int line) throws IOException { 
+			int lineEnd = getLineEnd(line); 
+			if (lineEnd==lineStarts[line]) return ; 
+			Color oldColor = canvas.setNonStrokingColor(quill.getColor()); 
+			Color lineColor = canvas.getRequestedNonStrokingColor(); 
+			canvas.beginText(); 
+			PDFont currentFont = null ; 
+			float currentFontSize = 0 ; 
+			float textLeft = 0 ; 
+			float textBottom = 0 ; 
+			int word = lineStarts[line] ; 
+			double wordLeft = lineLefts[line] ; 
+			int start = wordStarts[word] ; 
+			int lineCharEnd = wordEnds[lineEnd-1] ; 
+			int run = getRun(start); 
+			while (start<lineCharEnd) { 
+				/* The text of a run on a line is one span of the text buffer, its words separated by single spaces. */
+				int end = Math.min(getRunEnd(run), lineCharEnd); 
+				int spanEnd = end ; 
+				while (spanEnd>start && chars[spanEnd-1]==' ') spanEnd -- ; 
+				while (wordEnds[word]<=start) { 
+					wordLeft += wordWidths[word] + lineGaps[line] ; 
+					word ++ ; 
+				}
+				/* A run beginning within a word is drawn from its offset into the word. */
+				double nextLeft = (start>wordStarts[word]) ? wordLeft+runOffsets[run] : wordLeft ; 
+				Quill runQuill = runQuills[run] ; 
+				canvas.countQuill(runQuill); 
+				double wordHeight = runHeights[run] ; 
+				/* The same arithmetic as a StringBlock placed by FrameReading, so the runs land in the same places. */
+				double wordTop = lineTops[line] + (lineHeights[line]-wordHeight) * dropFactor ; 
+				float pdfLeft = (float) (left+nextLeft); 
+				float pdfBottom = canvas.getPdfBottom(top+wordTop, wordHeight); 
+				/* Text offsets are relative to the previous one. */
+				canvas.newLineAtOffset(pdfLeft-textLeft, pdfBottom-textBottom); 
+				textLeft = pdfLeft ; 
+				textBottom = pdfBottom ; 
+				/* A run with no colour of its own takes the line's colour. */
+				canvas.restoreNonStrokingColor(lineColor); 
+				canvas.setNonStrokingColor(runQuill.getColor()); 
+				if (runQuill.getFont()!=currentFont || runQuill.getFontSize()!=currentFontSize) { 
+					currentFont = runQuill.getFont(); 
+					currentFontSize = runQuill.getFontSize(); 
+					canvas.setFont(currentFont, currentFontSize); 
+				}
+				String text = new String(chars, start, spanEnd-start); 
+				float extraSpace = (float) (lineGaps[line] - runSpaceWidths[run]); 
+				canvas.showWords(text, runQuill.isKerning() ? Kerning.get(currentFont) : null, extraSpace); 
+				start = end ; 
+				run ++ ; 
+			}
+			canvas.endText(); 
+			canvas.restoreNonStrokingColor(oldColor); 
+		}
+
+		/**
+		 * Makes this part's words the next to be placed.
+		 */
+		@Override
+		public void revertToStart() { 
+			/* Reverting the empty part left by moving the paragraph whole is the move itself, so doesn't allow another. */
+			if (lineCount>0) isMovedWhole = false ; 
+			nextWord = firstWord ; 
+		}
+	}
+
+}
@@ -21,4 +21,8 @@ public final class SpacerFullWidth extends Block {
 	}
 	@Override
 	public void draw(Canvas canvas, double left, double top, double width, double height) throws IOException {} 
+	@Override
+	protected boolean isDrawnThroughCanvas() { 
+		return true ; 
+	}
 }
\ No newline at end of file
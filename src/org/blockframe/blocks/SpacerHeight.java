@@ -58,4 +58,9 @@ public final class SpacerHeight extends Block {
 	
 	@Override
 	public void draw(Canvas canvas, double left, double top, double width, double height) throws IOException {} 
+	
+	@Override
+	protected boolean isDrawnThroughCanvas() { 
+		return true ; 
+	}
 }
\ No newline at end of file
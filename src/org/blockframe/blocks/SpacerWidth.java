@@ -63,6 +63,19 @@ public final class SpacerWidth extends Block {
 		return placedBlock ; 
 	}
 	
+	/**
+	 * True, as the width depends only on the quill. 
+	 */
+	@Override
+	public boolean isFillReusable() { 
+		return true ; 
+	}
+	
 	@Override
 	public void draw(Canvas canvas, double left, double top, double width, double height) throws IOException {} 
+	
+	@Override
+	protected boolean isDrawnThroughCanvas() { 
+		return true ; 
+	}
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.blockframe.core.Block;
 import org.blockframe.core.Canvas;
 import org.blockframe.core.DebugLog;
+import org.blockframe.core.Hyphenator;
 import org.blockframe.core.Layout;
 import org.blockframe.core.Quill;
 import org.blockframe.painters.Scribe;
@@ -27,13 +28,33 @@ public class StringBlock extends Block implements DebugLog.Verbosity {
 	
 	private double measuredFontSize = Double.MIN_VALUE ; 
 	
+	private boolean measuredIsKerning ; 
+	
 	private double measuredWidth ; 
 	
 	private double measuredHeight ; 
 	
+	/**
+	 * Where the text not yet placed begins, if the word has been hyphenated over two lines. Zero if the whole word is still to be placed. 
+	 */
+	private int splitOffset = 0 ; 
+	
+	/**
+	 * Where the text began, for the most recent call to {@link #fill(Quill, Layout)}. 
+	 */
+	private int fillOffset = 0 ; 
+	
 	public StringBlock(String text) { 
 		this.text = text ; 
 	}
+	
+	/**
+	 * Whether the whole word has been placed. It hasn't, after {@link #fillHyphenated(Quill, Layout, Hyphenator)} places the first part of it. 
+	 */
+	@Override
+	public boolean isFillComplete() { 
+		return splitOffset==0 ; 
+	}
 
 	@Override
 	public PlacedBlock fill(Quill receivedQuill, Layout receivedLayout) throws IOException { 
@@ -41,14 +62,24 @@ public class StringBlock extends Block implements DebugLog.Verbosity {
 		this.quill = inheritQuill(receivedQuill) ; 
 		Layout layout = inheritLayout(receivedLayout); 
 		DebugLog.add(DETAIL_8, this, null, Layout.logMessage_layout, layout, null, false); 
+		this.fillOffset = splitOffset ; 
+		if (splitOffset>0) { 
+			/* The rest of a hyphenated word. */
+			this.splitOffset = 0 ; 
+			PlacedBlock placedPart = this.new PlacedPart(fillOffset, text.substring(fillOffset)); 
+			DebugLog.add(LEAVING_6, placedPart, null, logMessage_leavingFill, null, null, false); 
+			return placedPart ; 
+		}
 		PDFont quillFont = quill.getFont();
 		float quillFontSize = quill.getFontSize() ; 
-		if (quillFont!=measuredFont || quillFontSize!=measuredFontSize) { 
+		boolean isKerning = quill.isKerning(); 
+		if (quillFont!=measuredFont || quillFontSize!=measuredFontSize || isKerning!=measuredIsKerning) { 
 			this.measuredFont = quillFont ; 
 			this.measuredFontSize = quillFontSize ; 
-			this.measuredWidth = Quill.getStringWidth(text, quillFont, quillFontSize) ; 
+			this.measuredIsKerning = isKerning ; 
+			this.measuredWidth = Quill.getStringWidth(text, quillFont, quillFontSize, isKerning) ; 
 			/* Prefer the font's height, to the specific string's height, so it is even along a line of text, and for separate lines of text. */
-			this.measuredHeight = quillFont.getFontDescriptor().getFontBoundingBox().getHeight() / 1000 * quillFontSize ; 
+			this.measuredHeight = Quill.getFontHeight(quillFont, quillFontSize) ; 
 		}
 		PlacedBlock placedBlock = new PlacedBlock(); 
 		placedBlock.setDimensions(measuredWidth, measuredHeight); 
@@ -56,11 +87,92 @@ public class StringBlock extends Block implements DebugLog.Verbosity {
 		return placedBlock ; 
 	}
 
+	/**
+	 * True unless the word is being hyphenated, as the text is measured the same whatever the layout. 
+	 * Subclasses whose {@link #fill(Quill, Layout)} depends on the layout should return <code>false</code>. 
+	 */
+	@Override
+	public boolean isFillReusable() { 
+		return splitOffset==0 && fillOffset==0 ; 
+	}
+
+	/**
+	 * Places as much of the text as fits in the layout's width, ending at a hyphenation point, followed by a hyphen. 
+	 * The rest of the text is placed by the next call to {@link #fill(Quill, Layout)}. 
+	 * <p>
+	 * This is called by {@link FrameReading#setHyphenator(Hyphenator) FrameReading}, just after {@link #fill(Quill, Layout)} has measured the text as too wide, 
+	 * and replaces that placed block. 
+	 * @return Null if no part of the text fits. Then the block is left as {@link #fill(Quill, Layout)} left it. 
+	 */
+	public PlacedBlock fillHyphenated(Quill receivedQuill, Layout receivedLayout, Hyphenator hyphenator) throws IOException { 
+		Quill partQuill = inheritQuill(receivedQuill) ; 
+		Layout layout = inheritLayout(receivedLayout); 
+		int[] points = hyphenator.getHyphenationPoints(text); 
+		for (int i=points.length-1 ; i>=0 && points[i]>fillOffset ; i--) { 
+			int point = points[i] ; 
+			String part = text.substring(fillOffset, point); 
+			if (text.charAt(point-1)!='-') part += "-" ; 
+			double partWidth = Quill.getStringWidth(part, partQuill.getFont(), partQuill.getFontSize(), partQuill.isKerning()); 
+			if (partWidth>layout.maxWidth) continue ; 
+			this.quill = partQuill ; 
+			this.splitOffset = point ; 
+			PlacedBlock placedPart = this.new PlacedPart(fillOffset, part); 
+			if (DebugLog.isLogging(DETAIL_8, this, null)) DebugLog.add(DETAIL_8, this, null, "Hyphenated at "+point, false); 
+			return placedPart ; 
+		}
+		return null ; 
+	}
+
 	@Override
 	public void draw(Canvas canvas, double left, double top, double width, double height) throws IOException { 
 		Scribe.string(canvas, quill, text, left, top, width, height);
 	}
 
+	/**
+	 * True, so consecutive words are drawn in one text object. 
+	 */
+	@Override
+	protected boolean isDrawnThroughCanvas() { 
+		return true ; 
+	}
+
+	/**
+	 * Part of a hyphenated word. 
+	 */
+	public class PlacedPart extends PlacedBlock { 
+		
+		/**
+		 * Where this part starts in the block's text. 
+		 */
+		private final int partOffset ; 
+		
+		/**
+		 * The text drawn, including any hyphen. 
+		 */
+		private final String partText ; 
+		
+		PlacedPart(int partOffset, String partText) throws IOException { 
+			this.partOffset = partOffset ; 
+			this.partText = partText ; 
+			setDimensions(Quill.getStringWidth(partText, quill.getFont(), quill.getFontSize(), quill.isKerning()), Quill.getFontHeight(quill.getFont(), quill.getFontSize())); 
+		}
+		
+		@Override
+		public void draw(Canvas canvas, double left, double top) throws IOException { 
+			if (DebugLog.isLogging(ENTERING_5, StringBlock.this, null)) DebugLog.add(ENTERING_5, this, null, logMessage_enteringDraw, left, top, false); 
+			Scribe.string(canvas, quill, partText, left, top, getWidth(), getHeight()); 
+			DebugLog.add(LEAVING_6, this, null, logMessage_leavingDraw, null, null, false); 
+		}
+		
+		/**
+		 * Makes this part the next to be placed. 
+		 */
+		@Override
+		public void revertToStart() { 
+			splitOffset = partOffset ; 
+		}
+	}
+
 	@Override
 	public String getLogName() { 
 		final int substrLength = 8 ; 
@@ -2,6 +2,7 @@ package org.blockframe.blocks;
 
 import java.awt.Color;
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.blockframe.core.Block;
 import org.blockframe.core.Canvas;
@@ -57,6 +58,16 @@ public abstract class TableBlock extends Block implements DebugLog.Verbosity {
 	public static final double borderMinWidth = 0.5 ;
 	
 	private Color borderColor ; 
+	
+	/**
+	 * Collects the border segments while {@link #drawBorders(Canvas, double, double)} runs, to fill them together. <code>null</code> otherwise. 
+	 */
+	private BorderPath borderPath = null ; 
+	
+	/**
+	 * The path used by the last {@link #drawBorders(Canvas, double, double)}, kept so that the next reuses its arrays. 
+	 */
+	private BorderPath spareBorderPath = null ; 
 
 	/**
 	 * Constructor. 
@@ -296,8 +307,26 @@ public abstract class TableBlock extends Block implements DebugLog.Verbosity {
 	 * <p>
 	 * This implementation delegates to {@link #drawTableBorder(Canvas, double, double, boolean, boolean)}, {@link #drawTableCorner(Canvas, double, double, boolean, boolean)}, 
 	 * {@link #drawRowTopBorder(Canvas, double, double, int, boolean)} and {@link #drawColumnLeftBorder(Canvas, double, double, int, boolean)}. 
+	 * <p>
+	 * The segments passed to {@link #drawBorderSegment(Canvas, double, double, double, double)} meanwhile are collected rather than drawn. 
+	 * When all have been collected, they are filled in the order they were drawn, each run of consecutive segments of one colour as one path, 
+	 * in which segments which continue each other in a line are merged. 
 	 */
 	public void drawBorders(Canvas canvas, double tableLeft, double tableTop) throws IOException {
+		BorderPath path = (spareBorderPath!=null) ? spareBorderPath : new BorderPath(); 
+		this.spareBorderPath = null ; 
+		path.clear(); 
+		this.borderPath = path ; 
+		try { 
+			drawBorderSegments(canvas, tableLeft, tableTop); 
+		} finally { 
+			this.borderPath = null ; 
+		}
+		path.fill(canvas); 
+		this.spareBorderPath = path ; 
+	}
+	
+	private void drawBorderSegments(Canvas canvas, double tableLeft, double tableTop) throws IOException {
 		//////  Draw outer borders of table
 		drawTableBorder(canvas, tableLeft, tableTop, false, false); 
 		drawTableBorder(canvas, tableLeft, tableTop, false, true); 
@@ -458,8 +487,14 @@ public abstract class TableBlock extends Block implements DebugLog.Verbosity {
 	 * <p>
 	 * In this class, all the <code>drawXxxxBorder</code> methods ultimately call this method. 
 	 * It is the only method in this class that makes a call into {@link Scribe} method. 
+	 * <p>
+	 * Within {@link #drawBorders(Canvas, double, double)}, the segment is only collected, in the current border colour, and drawn with the others at the end. 
 	 */
 	protected void drawBorderSegment(Canvas canvas, double left, double top, double right, double bottom) throws IOException { 
+		if (borderPath!=null) { 
+			borderPath.add(borderColor, left, top, right, bottom); 
+			return ; 
+		}
 		float pdfLeft = (float) left ; 
 		float pdfWidth = (float) (right-left); 
 		float pdfHeight = (float) (bottom-top);
@@ -467,4 +502,153 @@ public abstract class TableBlock extends Block implements DebugLog.Verbosity {
 		Scribe.rect_lbwh(canvas, true, false, borderColor, pdfLeft, pdfBottom, pdfWidth, pdfHeight); 
 	}
 
+	/**
+	 * Border segments collected by {@link TableBlock#drawBorders(Canvas, double, double)}, in BlockFrame coordinates, with their colours. 
+	 */
+	private static final class BorderPath { 
+		
+		private int count = 0 ; 
+		private double[] lefts = new double[16], tops = new double[16], rights = new double[16], bottoms = new double[16] ; 
+		private Color[] colors = new Color[16] ; 
+		
+		/**
+		 * Work space for {@link #merge(int, int, boolean)}, kept so that the borders of each draw reuse it. 
+		 */
+		private int[] order = new int[16], sortBuffer = new int[16] ; 
+		private double[] newLefts = new double[16], newTops = new double[16], newRights = new double[16], newBottoms = new double[16] ; 
+		
+		void clear() { 
+			count = 0 ; 
+		}
+		
+		void add(Color color, double left, double top, double right, double bottom) { 
+			if (right<=left || bottom<=top) return ; // Nothing to fill. 
+			if (count==lefts.length) { 
+				int length = count*2 ; 
+				lefts = Arrays.copyOf(lefts, length); 
+				tops = Arrays.copyOf(tops, length); 
+				rights = Arrays.copyOf(rights, length); 
+				bottoms = Arrays.copyOf(bottoms, length); 
+				colors = Arrays.copyOf(colors, length); 
+			}
+			lefts[count] = left ; 
+			tops[count] = top ; 
+			rights[count] = right ; 
+			bottoms[count] = bottom ; 
+			colors[count] = color ; 
+			count ++ ; 
+		}
+		
+		/**
+		 * Fills the segments in the order they were added, each run of consecutive segments of one colour as one path, 
+		 * so a segment still paints over those added before it in another colour. 
+		 * Within a run, segments which continue each other are merged first. 
+		 */
+		void fill(Canvas canvas) throws IOException { 
+			int first = 0 ; 
+			while (first<count) { 
+				int end = first+1 ; 
+				while (end<count && isSameColor(colors[end], colors[first])) end ++ ; 
+				int mergedEnd = merge(first, end, true); 
+				mergedEnd = merge(first, mergedEnd, false); 
+				/* The colour is set before the path is begun, as no colour operator may come between a path and its fill. */
+				Color oldColor = canvas.setNonStrokingColor(colors[first]); 
+				for (int i=first ; i<mergedEnd ; i++) { 
+					canvas.addRect((float) lefts[i], canvas.getPdfY(bottoms[i]), (float) (rights[i]-lefts[i]), (float) (bottoms[i]-tops[i])); 
+				}
+				canvas.fill(); 
+				canvas.restoreNonStrokingColor(oldColor); 
+				first = end ; 
+			}
+		}
+		
+		/**
+		 * Merges the segments from <code>from</code> up to <code>to</code>, all of one colour, which continue each other in a line: 
+		 * along rows, segments with the same top and bottom which touch or overlap, or, down columns, those with the same left and right. 
+		 * The merged segments replace them, starting at <code>from</code>. 
+		 * @return The index just past the merged segments. 
+		 */
+		private int merge(int from, int to, boolean isAlongRow) { 
+			int n = to-from ; 
+			if (order.length<n) { 
+				order = new int[n] ; 
+				sortBuffer = new int[n] ; 
+				newLefts = new double[n] ; 
+				newTops = new double[n] ; 
+				newRights = new double[n] ; 
+				newBottoms = new double[n] ; 
+			}
+			for (int i=0 ; i<n ; i++) order[i] = from+i ; 
+			/* Sort into lines, and along each line. */
+			sort(0, n, isAlongRow); 
+			int newCount = 0 ; 
+			for (int o=0 ; o<n ; o++) { 
+				int i = order[o] ; 
+				int last = newCount-1 ; 
+				if (last>=0) { 
+					if (isAlongRow && newTops[last]==tops[i] && newBottoms[last]==bottoms[i] && lefts[i]<=newRights[last]) { 
+						newRights[last] = Math.max(newRights[last], rights[i]); 
+						continue ; 
+					}
+					if (!isAlongRow && newLefts[last]==lefts[i] && newRights[last]==rights[i] && tops[i]<=newBottoms[last]) { 
+						newBottoms[last] = Math.max(newBottoms[last], bottoms[i]); 
+						continue ; 
+					}
+				}
+				newLefts[newCount] = lefts[i] ; 
+				newTops[newCount] = tops[i] ; 
+				newRights[newCount] = rights[i] ; 
+				newBottoms[newCount] = bottoms[i] ; 
+				newCount ++ ; 
+			}
+			System.arraycopy(newLefts, 0, lefts, from, newCount); 
+			System.arraycopy(newTops, 0, tops, from, newCount); 
+			System.arraycopy(newRights, 0, rights, from, newCount); 
+			System.arraycopy(newBottoms, 0, bottoms, from, newCount); 
+			return from+newCount ; 
+		}
+		
+		/**
+		 * Sorts {@link #order} from <code>from</code> up to <code>to</code>, by {@link #compare(int, int, boolean)}. 
+		 * A stable merge sort of the primitive indices, so that nothing is boxed. 
+		 */
+		private void sort(int from, int to, boolean isAlongRow) { 
+			if (to-from<=8) { 
+				for (int i=from+1 ; i<to ; i++) { 
+					int index = order[i] ; 
+					int j = i ; 
+					while (j>from && compare(order[j-1], index, isAlongRow)>0) { 
+						order[j] = order[j-1] ; 
+						j -- ; 
+					}
+					order[j] = index ; 
+				}
+				return ; 
+			}
+			int mid = (from+to) >>> 1 ; 
+			sort(from, mid, isAlongRow); 
+			sort(mid, to, isAlongRow); 
+			if (compare(order[mid-1], order[mid], isAlongRow)<=0) return ; // Already in order. 
+			System.arraycopy(order, from, sortBuffer, from, to-from); 
+			int i = from, j = mid, k = from ; 
+			while (i<mid && j<to) order[k++] = (compare(sortBuffer[j], sortBuffer[i], isAlongRow)<0) ? sortBuffer[j++] : sortBuffer[i++] ; 
+			while (i<mid) order[k++] = sortBuffer[i++] ; 
+			while (j<to) order[k++] = sortBuffer[j++] ; 
+		}
+		
+		/**
+		 * Orders segments into lines - rows or columns - and along each line. 
+		 */
+		private int compare(int i0, int i1, boolean isAlongRow) { 
+			int result = isAlongRow ? Double.compare(tops[i0], tops[i1]) : Double.compare(lefts[i0], lefts[i1]); 
+			if (result==0) result = isAlongRow ? Double.compare(bottoms[i0], bottoms[i1]) : Double.compare(rights[i0], rights[i1]); 
+			if (result==0) result = isAlongRow ? Double.compare(lefts[i0], lefts[i1]) : Double.compare(tops[i0], tops[i1]); 
+			return result ; 
+		}
+		
+		private static boolean isSameColor(Color color0, Color color1) { 
+			return (color0==null) ? color1==null : color0.equals(color1) ; 
+		}
+	}
+
 }
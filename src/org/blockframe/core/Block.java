@@ -46,6 +46,21 @@ public abstract class Block implements Verbosity {
 	 */
 	public final BlockId id = new BlockId(); 
 	
+	/**
+	 * See {@link #setKeepWithNext(boolean)}. 
+	 */
+	private boolean isKeepWithNext = false ; 
+	
+	/**
+	 * See {@link #setKeepTogether(boolean)}. 
+	 */
+	private boolean isKeepTogether = false ; 
+	
+	/**
+	 * See {@link #setWidowOrphanLines(int, int)}. 
+	 */
+	private int widowLines = 1, orphanLines = 1 ; 
+	
 	public Block() { 
 		this.pipeLink = makePipeLink(); 
 	}
@@ -100,6 +115,17 @@ public abstract class Block implements Verbosity {
 	 */
 	public abstract void draw(Canvas canvas, double left, double top, double width, double height) throws IOException; 
 	
+	/**
+	 * Whether {@link #draw(Canvas, double, double, double, double)} draws only through the methods of {@link Canvas}, never on its PDF-Box stream directly. 
+	 * <p>
+	 * The canvas may leave a text object open after one block's text, to add the next block's text to it (see {@link Canvas#showTextAt(float, float, org.apache.pdfbox.pdmodel.font.PDFont, float, String, Kerning)}). 
+	 * Before drawing a block which returns false, the default, {@link PlacedBlock#draw(Canvas, double, double)} closes it, so the block may draw on the stream. 
+	 * A subclass which overrides <code>draw</code> of a block returning true, and uses the stream, should return false. 
+	 */
+	protected boolean isDrawnThroughCanvas() { 
+		return false ; 
+	}
+	
 	/**
 	 * Whether the recent call to {@link #fill(Quill, Layout)} placed all of the child-blocks it needed to, or whether there are outstanding child-blocks. 
 	 * <p>
@@ -113,6 +139,70 @@ public abstract class Block implements Verbosity {
 		return true ; 
 	}
 	
+	/**
+	 * Whether {@link #fill(Quill, Layout)} depends only on the {@link Quill}, not on the {@link Layout}, nor on earlier fills. 
+	 * <p>
+	 * If so, a frame which has filled the block, and then pushed it back into its pipe, may keep the {@link PlacedBlock} and use it again, 
+	 * rather than filling the block again with the same quill. See {@link org.blockframe.blocks.FrameReading}. 
+	 * A block returning <code>true</code> should have nothing to revert in {@link PlacedBlock#revertToStart()}. 
+	 * <p>
+	 * This base-class method returns <code>false</code>. 
+	 */
+	public boolean isFillReusable() { 
+		return false ; 
+	}
+	
+	/**
+	 * Sets whether this block must be on the same page as the start of the next block, as for a heading. 
+	 * <p>
+	 * This is honoured by {@link org.blockframe.blocks.FrameVertical}, which moves the block to the next page rather than leave it last on a page. 
+	 * A chain of such blocks moves together, up to {@link org.blockframe.blocks.FrameVertical#MAX_KEEP_CHAIN} blocks. A longer chain, or one filling a whole page, is broken. 
+	 */
+	public Block setKeepWithNext(boolean isKeepWithNext) { 
+		this.isKeepWithNext = isKeepWithNext ; 
+		return this ; 
+	}
+	
+	public boolean isKeepWithNext() { 
+		return isKeepWithNext ; 
+	}
+	
+	/**
+	 * Sets whether this block should not be split over pages. 
+	 * <p>
+	 * This is honoured by {@link org.blockframe.blocks.FrameVertical}, which moves the block whole to the next page, unless it is first on the page. 
+	 */
+	public Block setKeepTogether(boolean isKeepTogether) { 
+		this.isKeepTogether = isKeepTogether ; 
+		return this ; 
+	}
+	
+	public boolean isKeepTogether() { 
+		return isKeepTogether ; 
+	}
+	
+	/**
+	 * Sets the fewest lines of a paragraph split over pages to leave at the top of a page (widows), and at the bottom of a page (orphans). 
+	 * The default is one of each, which allows any split. 
+	 * <p>
+	 * This is honoured by blocks which lay out lines: {@link org.blockframe.blocks.FrameReading} and {@link org.blockframe.blocks.ParagraphBlock}. 
+	 * They move lines to the next page to leave enough widows, and move the whole paragraph if too few lines would be left as orphans. 
+	 * A paragraph is moved whole only once, so a page too short for the orphans doesn't loop. 
+	 */
+	public Block setWidowOrphanLines(int widowLines, int orphanLines) { 
+		this.widowLines = Math.max(1, widowLines) ; 
+		this.orphanLines = Math.max(1, orphanLines) ; 
+		return this ; 
+	}
+	
+	public int getWidowLines() { 
+		return widowLines ; 
+	}
+	
+	public int getOrphanLines() { 
+		return orphanLines ; 
+	}
+	
 	/**
 	 * Sets the logging verbosity for this block, used in the <code>add</code> methods of {@link DebugLog} to filter logging. 
 	 */
@@ -302,7 +392,8 @@ public abstract class Block implements Verbosity {
 		 * This method will call the {@link Block#draw(Canvas, double, double, double, double)} method of its own Block (see {@link #getBlock()}). 
 		 */
 		public void draw(Canvas canvas, double left, double top) throws IOException { 
-			DebugLog.add(ENTERING_5, this, null, logMessage_enteringDraw, left, top, false); 
+			if (DebugLog.isLogging(ENTERING_5, Block.this, null)) DebugLog.add(ENTERING_5, this, null, logMessage_enteringDraw, left, top, false); 
+			canvas.beginBlock(quill, isDrawnThroughCanvas()); 
 			Block.this.draw(canvas, left, top, width, height); 
 			DebugLog.add(LEAVING_6, this, null, logMessage_leavingDraw, null, null, false); 
 		}
@@ -439,6 +530,9 @@ public abstract class Block implements Verbosity {
 
 	/**
 	 * Implementation of {@link PipeLink} to handle the normal case. 
+	 * <p>
+	 * A block which isn't a {@link Frame}, but can still split over pages, returns <code>false</code> from {@link Block#isFillComplete()} until it has placed all its content. 
+	 * Until then, this link returns the block again, just as {@link Frame.FramePipeLink} does. 
 	 */
 	private static class BlockPipeLink extends BlockPipe.PipeLink { 
 		
@@ -449,6 +543,7 @@ public abstract class Block implements Verbosity {
 		}
 		
 		public Block getNextBlockToFill() {
+			if (!block.isFillComplete()) return block ; 
 			return nextBlockWritten ; 
 		}
 		
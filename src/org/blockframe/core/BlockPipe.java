@@ -1,5 +1,7 @@
 package org.blockframe.core;
 
+import java.lang.ref.WeakReference;
+
 import org.blockframe.core.Block.PlacedBlock;
 import org.blockframe.core.DebugLog.StringGetter;
 import org.blockframe.core.DebugLog.Verbosity;
@@ -11,6 +13,9 @@ import org.blockframe.core.DebugLog.Verbosity;
  * When the client code calls {@link PdfChapter#write(Block)} or {@link Frame#write(Block)}, the block ends up being added to a pipe. 
  * <p>
  * Blocks are pulled from a pipe with the {@link BlockReader#read()} method, usually in a frame's {@link Block#fill(Quill, Layout)} method. 
+ * <p>
+ * Instead of writing every block up front, the client can write a {@link BlockSource}, which makes blocks only as the reader reaches them. 
+ * The pipe doesn't hold on to blocks which have been read and are no longer referenced by a placed block, so a long document from a source needs about the same memory as a short one. 
  */
 public class BlockPipe implements Verbosity { 
 
@@ -25,6 +30,17 @@ public class BlockPipe implements Verbosity {
 	 */
 	private BlockPipe.PipeLink lastLinkAdded = null ; 
 	
+	/**
+	 * The first block written to the pipe. 
+	 * Weak, so the blocks linked from it can be collected once they have been read and placed. See {@link BlockReader#isAtStart()}. 
+	 */
+	private WeakReference<Block> firstBlockWritten = null ; 
+	
+	/**
+	 * Makes the blocks after those written, as the reader reaches them. <code>null</code> when there is no source, or it has run out. 
+	 */
+	private BlockSource source = null ; 
+	
 	/**
 	 * Provides the next block in the pipe. 
 	 * <p>
@@ -47,16 +63,20 @@ public class BlockPipe implements Verbosity {
 		
 		public void write(Block block) { 
 			if (isClosed) DebugLog.add(WARNING_4, block, null, "Writing block to a closed pipe. Block is dropped.", true); // TODO BUG? This should return without writing. 
-			BlockPipe pipe = BlockPipe.this;
-			if (lastLinkAdded!=null) { 
-				BlockPipe.PipeLink oldLast = lastLinkAdded ; 
-				oldLast.setNext(block); 
-				pipe.lastLinkAdded = block.pipeLink ; 
-			} else { 
-				/* Adding first block. */ 
-				pipe.lastLinkAdded = block.pipeLink ; 
-				pipe.nextGetter = new NextGetter(block); 
-			}
+			append(block); 
+		}
+
+		/**
+		 * Writes the blocks the source makes, after those already written. 
+		 * The source is not asked for a block until the reader reaches the end of those before it, so its blocks need not all exist at once. 
+		 * <p>
+		 * The source must be the last thing written. The writer is closed. 
+		 */
+		public void write(BlockSource source) { 
+			if (isClosed) DebugLog.add(WARNING_4, null, null, "Writing source to a closed pipe.", true); 
+			if (BlockPipe.this.source!=null) throw new IllegalStateException("Pipe "+id+" already has a source."); 
+			BlockPipe.this.source = source ; 
+			close(); 
 		}
 
 		public void close() {
@@ -64,14 +84,49 @@ public class BlockPipe implements Verbosity {
 		}
 	}
 
+	private void append(Block block) { 
+		if (lastLinkAdded!=null) { 
+			BlockPipe.PipeLink oldLast = lastLinkAdded ; 
+			oldLast.setNext(block); 
+			this.lastLinkAdded = block.pipeLink ; 
+		} else { 
+			/* Adding first block. */ 
+			this.lastLinkAdded = block.pipeLink ; 
+			this.firstBlockWritten = new WeakReference<Block>(block); 
+			this.nextGetter = new NextGetter(block); 
+		}
+	}
+
+	/**
+	 * Makes blocks for a pipe, one at a time, as the pipe's reader reaches them. See {@link BlockWriter#write(BlockSource)}. 
+	 */
+	public interface BlockSource { 
+		/**
+		 * Returns the next block, or <code>null</code> if there are no more. 
+		 * After returning <code>null</code>, the source is not called again. 
+		 * <p>
+		 * Each block returned must be new, as a block can be in only one pipe, once. 
+		 */
+		Block nextBlock(); 
+	}
+
 	/**
 	 * An interface into {@link BlockPipe} for reading the next block from the pipe. 
 	 */
 	public final class BlockReader { 
 		
 		private Block peekNextBlock() { 
-			if (nextGetter==null) return null ; 
-			Block nextBlock = nextGetter.getNextBlockToFill(); 
+			Block nextBlock = (nextGetter!=null) ? nextGetter.getNextBlockToFill() : null ; 
+			while (nextBlock==null && source!=null) { 
+				/* At the end of the blocks so far, so make one more. */ 
+				Block sourceBlock = source.nextBlock(); 
+				if (sourceBlock==null) { 
+					BlockPipe.this.source = null ; 
+					break ; 
+				}
+				append(sourceBlock); 
+				nextBlock = nextGetter.getNextBlockToFill(); 
+			}
 			return nextBlock ; 
 		}
 
@@ -103,6 +158,16 @@ public class BlockPipe implements Verbosity {
 			}
 		}
 		
+		/**
+		 * Whether the next block to be read is the first written, that is, whether nothing has been read, or the pipe has been reverted to its start. 
+		 * A frame can use this to tell whether it is filling its first part. 
+		 */
+		public boolean isAtStart() { 
+			if (firstBlockWritten==null || !(nextGetter instanceof NextGetter)) return false ; 
+			Block firstBlock = firstBlockWritten.get(); 
+			return firstBlock!=null && ((NextGetter) nextGetter).nextBlock==firstBlock ; 
+		}
+		
 		/**
 		 * Reverts the pipe so the given block is the next block to be read. 
 		 * The given block should be one previously read from this pipe. 
@@ -2,10 +2,13 @@ package org.blockframe.core;
 
 import java.awt.Color;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.blockframe.core.Block.PlacedBlock;
 
 
@@ -14,11 +17,20 @@ import org.blockframe.core.Block.PlacedBlock;
  * A {@linkplain Canvas} instance is passed down through the {@link Block#draw(Canvas, double, double, double, double)} pass through the content-tree. 
  * <p>
  * The PDF-Box {@link PDPage} and {@link PDPageContentStream} objects are exposed in this class. 
+ * <p>
+ * Drawing code should prefer the drawing methods of this class (such as {@link #moveTo(float, float)} and {@link #showText(String)}) to calling the stream directly. 
+ * Then it also works on subclasses which don't write a PDF, such as {@link CountingCanvas}. 
+ * Code which must use the stream should get it from {@link #getStream()}. 
+ * <p>
+ * The canvas tracks the graphics state it has written: colours (compared by value), line width, dash, cap and join, and font and size. 
+ * An operator which would set the state to what it already is isn't written, and is counted in {@link #elided}. 
+ * {@link #saveGraphicsState()} and {@link #restoreGraphicsState()} save and restore the tracked state along with the stream's. 
  */
 public class Canvas { 
 	
 	/**
 	 * The PDF-Box page that canvas writes through to. 
+	 * This is <code>null</code> on a canvas which doesn't write a PDF (see {@link #Canvas(double)}). 
 	 */
 	public final PDPage page ; 
 	
@@ -26,7 +38,13 @@ public class Canvas {
 	 * The PDF-Box content-stream this canvas writes through. 
 	 * <p>
 	 * This is generated from both a specific {@link PDPage} and a specific {@link PDDocument}. 
+	 * <p>
+	 * This is <code>null</code> on a canvas which doesn't write a PDF (see {@link #Canvas(double)}). 
+	 * Graphics state set directly on the stream isn't tracked by the canvas, so should be saved and restored around. 
+	 * @deprecated Use {@link #getStream()}, which first ends any text object the canvas has left open. 
+	 * Path operators written here straight after a block's text would be inside that text object, which PDF-Box rejects. 
 	 */
+	@Deprecated
 	public final PDPageContentStream stream ; 
 	
 	/**
@@ -42,9 +60,9 @@ public class Canvas {
 	private Color requestedStrokingColor ; 
 	
 	/**
-	 * Last colour set to the stream for stroking a colour. 
+	 * Last colour set to the stream for stroking a colour. Black, the PDF default, until one is set. 
 	 */
-	private Color actualStrokingColor ; 
+	private Color actualStrokingColor = Color.BLACK ; 
 	
 	/**
 	 * Last colour requested by app-layer for non-stroking a colour. 
@@ -52,9 +70,60 @@ public class Canvas {
 	private Color requestedNonStrokingColor ; 
 	
 	/**
-	 * Last colour set to the stream for non-stroking a colour. 
+	 * Last colour set to the stream for non-stroking a colour. Black, the PDF default, until one is set. 
+	 */
+	private Color actualNonStrokingColor = Color.BLACK ; 
+	
+	/**
+	 * Font and size last set by {@link #setFont(PDFont, float)}, needed to encode kerned text, and to scale word spacing. 
+	 */
+	protected PDFont font ; 
+	
+	protected float fontSize ; 
+	
+	/**
+	 * Line state last written, starting with the PDF defaults: width 1, solid, butt caps and mitred joins. 
+	 */
+	private float lineWidth = 1 ; 
+	
+	private float[] dashPattern = NO_DASH ; 
+	
+	private float dashPhase = 0 ; 
+	
+	private int lineCapStyle = 0 ; 
+	
+	private int lineJoinStyle = 0 ; 
+	
+	private static final float[] NO_DASH = new float[0] ; 
+	
+	/**
+	 * The tracked state saved by each {@link #saveGraphicsState()} not yet restored. 
+	 */
+	private final ArrayList<SavedState> savedStates = new ArrayList<SavedState>(); 
+	
+	/**
+	 * Operators this canvas didn't write, because the state was already set. Added to {@link #totalElided} when the canvas is closed. 
+	 */
+	public final ElidedOperators elided = new ElidedOperators(); 
+	
+	/**
+	 * Operators not written, over all canvases closed since the program started. 
+	 */
+	public static final ElidedOperators totalElided = new ElidedOperators(); 
+	
+	private boolean isClosed = false ; 
+	
+	/**
+	 * Whether a text object begun by {@link #showTextAt(float, float, PDFont, float, String, Kerning)} is still open, and the start of its current line. 
+	 */
+	private boolean isTextBatchOpen = false ; 
+	
+	private float batchLineX, batchLineY ; 
+	
+	/**
+	 * Counts the quills drawn with on this canvas, for the document it belongs to. Null if nothing is counting them. 
 	 */
-	private Color actualNonStrokingColor ; 
+	private Quill.Counter quillCounter ; 
 
 	/**
 	 * Threshold for logging debug messages. Zero is no messages, large is more. 
@@ -76,12 +145,73 @@ public class Canvas {
 		this.stream = new PDPageContentStream(document, page); 
 	}
 	
+	/**
+	 * Constructor for subclasses which don't write to a PDF-Box page. 
+	 * The fields {@link #page} and {@link #stream} are <code>null</code>, so the subclass must override all the drawing methods. 
+	 * @param pageHeight Height of the page, needed for inverting the vertical co-ordinates. 
+	 */
+	protected Canvas(double pageHeight) { 
+		this.page = null ; 
+		this.pageHeight = pageHeight ; 
+		this.stream = null ; 
+	}
+	
 	/**
 	 * Ensures the resources are tidied up. 
 	 * The method <code>close</code> is called on field {@link #stream}. 
 	 */
 	public void close() throws IOException { 
-		stream.close(); 
+		if (isClosed) return ; 
+		this.isClosed = true ; 
+		endTextBatch(); 
+		if (!savedStates.isEmpty()) DebugLog.add(DebugLog.Verbosity.WARNING_4, null, this, "Canvas closed with "+savedStates.size()+" graphics states saved and not restored.", true); 
+		totalElided.add(elided); 
+		if (stream!=null) stream.close(); 
+	}
+
+	/**
+	 * Sets the counter of the quills drawn with. Called by {@link PdfChapter#makePages()} on each page's canvas. 
+	 */
+	void setQuillCounter(Quill.Counter quillCounter) { 
+		this.quillCounter = quillCounter ; 
+	}
+	
+	/**
+	 * Called by {@link Block.PlacedBlock#draw(Canvas, double, double)} before each block draws. 
+	 * Ends any open text object, unless the block draws only through the canvas, and counts the block's quill. 
+	 * <p>
+	 * This is one call, not two, to keep {@linkplain Block.PlacedBlock#draw(Canvas, double, double) draw} small enough for the JIT to inline what it calls. 
+	 */
+	void beginBlock(Quill quill, boolean isDrawnThroughCanvas) throws IOException { 
+		if (!isDrawnThroughCanvas) endTextBatch(); 
+		if (quillCounter!=null) quillCounter.add(quill); 
+	}
+	
+	/**
+	 * Records that the quill is drawn with, for {@link PdfChapter#getDistinctQuillCount()}. 
+	 * Blocks drawing in several quills, such as the runs of a paragraph, call this for each. 
+	 */
+	public void countQuill(Quill quill) { 
+		if (quillCounter!=null) quillCounter.add(quill); 
+	}
+	
+	/**
+	 * Returns the PDF-Box content-stream this canvas writes through, for drawing the canvas has no method for. 
+	 * Ends any text object left open by {@link #showTextAt(float, float, PDFont, float, String, Kerning)} first, so any operator may be written. 
+	 * <p>
+	 * This is <code>null</code> on a canvas which doesn't write a PDF (see {@link #Canvas(double)}). 
+	 * Graphics state set directly on the stream isn't tracked by the canvas, so should be saved and restored around. 
+	 */
+	public PDPageContentStream getStream() throws IOException { 
+		endTextBatch(); 
+		return stream ; 
+	}
+
+	/**
+	 * Whether {@link #close()} has been called. 
+	 */
+	public boolean isClosed() { 
+		return isClosed ; 
 	}
 
 	/**
@@ -139,10 +269,12 @@ public class Canvas {
 	public Color setStrokingColor(Color color) throws IOException { 
 		Color oldColor = this.requestedStrokingColor ; 
 		if (color!=null) this.requestedStrokingColor = color ; 
-		if (requestedStrokingColor!=actualStrokingColor) { 
-			Color newColor = requestedStrokingColor != null ? requestedStrokingColor : Color.BLACK ; 
-			stream.setStrokingColor(newColor); 
-			this.actualStrokingColor = requestedStrokingColor ; 
+		Color newColor = requestedStrokingColor != null ? requestedStrokingColor : Color.BLACK ; 
+		if (!newColor.equals(actualStrokingColor)) { 
+			writeStrokingColor(newColor); 
+			this.actualStrokingColor = newColor ; 
+		} else { 
+			elided.colorCount ++ ; 
 		}
 		return oldColor ; 
 	}
@@ -183,10 +315,12 @@ public class Canvas {
 	public Color setNonStrokingColor(Color color) throws IOException { 
 		Color oldColor = this.requestedNonStrokingColor ; 
 		if (color!=null) this.requestedNonStrokingColor = color ; 
-		if (requestedNonStrokingColor!=actualNonStrokingColor) { 
-			Color newColor = requestedNonStrokingColor != null ? requestedNonStrokingColor : Color.BLACK ; 
-			stream.setNonStrokingColor(newColor); 
-			this.actualNonStrokingColor = requestedNonStrokingColor ; 
+		Color newColor = requestedNonStrokingColor != null ? requestedNonStrokingColor : Color.BLACK ; 
+		if (!newColor.equals(actualNonStrokingColor)) { 
+			writeNonStrokingColor(newColor); 
+			this.actualNonStrokingColor = newColor ; 
+		} else { 
+			elided.colorCount ++ ; 
 		}
 		return oldColor ; 
 	}
@@ -200,4 +334,443 @@ public class Canvas {
 		this.requestedNonStrokingColor = oldColor ; 
 	}
 
+	//////////////////////////////////////////////////////////////////////////////////////////////
+	//////  Drawing 
+	
+	/*
+	 * These methods pass straight through to the PDF-Box stream. They use PDF-Box coordinates: bottom-left origin, Y increasing upwards. 
+	 * They are here, rather than calling the stream directly, so that subclasses (eg, CountingCanvas) can intercept them. 
+	 * Those which can't appear in a text object first call endTextBatch(), and so must overrides. 
+	 */
+	
+	/**
+	 * Writes the stroking colour to the stream. Called by {@link #setStrokingColor(Color)} when the colour changes. 
+	 */
+	protected void writeStrokingColor(Color color) throws IOException { 
+		stream.setStrokingColor(color); 
+	}
+	
+	/**
+	 * Writes the non-stroking colour to the stream. Called by {@link #setNonStrokingColor(Color)} when the colour changes. 
+	 */
+	protected void writeNonStrokingColor(Color color) throws IOException { 
+		stream.setNonStrokingColor(color); 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#moveTo(float, float)}. */
+	public void moveTo(float x, float y) throws IOException { 
+		endTextBatch(); 
+		stream.moveTo(x, y); 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#lineTo(float, float)}. */
+	public void lineTo(float x, float y) throws IOException { 
+		endTextBatch(); 
+		stream.lineTo(x, y); 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#curveTo(float, float, float, float, float, float)}. */
+	public void curveTo(float x1, float y1, float x2, float y2, float x3, float y3) throws IOException { 
+		endTextBatch(); 
+		stream.curveTo(x1, y1, x2, y2, x3, y3); 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#addRect(float, float, float, float)}. */
+	public void addRect(float x, float y, float width, float height) throws IOException { 
+		endTextBatch(); 
+		stream.addRect(x, y, width, height); 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#closePath()}. */
+	public void closePath() throws IOException { 
+		stream.closePath(); 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#fill()}. */
+	public void fill() throws IOException { 
+		stream.fill(); 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#stroke()}. */
+	public void stroke() throws IOException { 
+		stream.stroke(); 
+	}
+	
+	/**
+	 * Sets the line width, unless it is already set. 
+	 */
+	public void setLineWidth(float lineWidth) throws IOException { 
+		if (lineWidth==this.lineWidth) { 
+			elided.lineWidthCount ++ ; 
+			return ; 
+		}
+		writeLineWidth(lineWidth); 
+		this.lineWidth = lineWidth ; 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#setLineWidth(float)}. Called by {@link #setLineWidth(float)} when the width changes. */
+	protected void writeLineWidth(float lineWidth) throws IOException { 
+		stream.setLineWidth(lineWidth); 
+	}
+	
+	/**
+	 * Sets the dash pattern, unless it is already set. An empty or <code>null</code> pattern is a solid line. 
+	 */
+	public void setLineDashPattern(float[] pattern, float phase) throws IOException { 
+		if (pattern==null || pattern.length==0) { 
+			pattern = NO_DASH ; 
+			phase = 0 ; 
+		}
+		if (phase==dashPhase && Arrays.equals(pattern, dashPattern)) { 
+			elided.lineStyleCount ++ ; 
+			return ; 
+		}
+		float[] copy = (pattern.length>0) ? pattern.clone() : NO_DASH ; 
+		writeLineDashPattern(copy, phase); 
+		this.dashPattern = copy ; 
+		this.dashPhase = phase ; 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#setLineDashPattern(float[], float)}. Called by {@link #setLineDashPattern(float[], float)} when the pattern changes. */
+	protected void writeLineDashPattern(float[] pattern, float phase) throws IOException { 
+		stream.setLineDashPattern(pattern, phase); 
+	}
+	
+	/**
+	 * Sets the line cap style, 0 for butt, 1 for round and 2 for square, unless it is already set. 
+	 */
+	public void setLineCapStyle(int lineCapStyle) throws IOException { 
+		if (lineCapStyle==this.lineCapStyle) { 
+			elided.lineStyleCount ++ ; 
+			return ; 
+		}
+		writeLineCapStyle(lineCapStyle); 
+		this.lineCapStyle = lineCapStyle ; 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#setLineCapStyle(int)}. Called by {@link #setLineCapStyle(int)} when the style changes. */
+	protected void writeLineCapStyle(int lineCapStyle) throws IOException { 
+		stream.setLineCapStyle(lineCapStyle); 
+	}
+	
+	/**
+	 * Sets the line join style, 0 for mitre, 1 for round and 2 for bevel, unless it is already set. 
+	 */
+	public void setLineJoinStyle(int lineJoinStyle) throws IOException { 
+		if (lineJoinStyle==this.lineJoinStyle) { 
+			elided.lineStyleCount ++ ; 
+			return ; 
+		}
+		writeLineJoinStyle(lineJoinStyle); 
+		this.lineJoinStyle = lineJoinStyle ; 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#setLineJoinStyle(int)}. Called by {@link #setLineJoinStyle(int)} when the style changes. */
+	protected void writeLineJoinStyle(int lineJoinStyle) throws IOException { 
+		stream.setLineJoinStyle(lineJoinStyle); 
+	}
+	
+	/**
+	 * Saves the graphics state, in the stream and in the canvas's tracking. 
+	 * Each call should be matched by a {@link #restoreGraphicsState()}. 
+	 */
+	public void saveGraphicsState() throws IOException { 
+		endTextBatch(); 
+		writeSaveGraphicsState(); 
+		savedStates.add(new SavedState(this)); 
+	}
+	
+	/**
+	 * Restores the graphics state saved by the matching {@link #saveGraphicsState()}. 
+	 * The requested colours (see {@link #setStrokingColor(Color)}) are not changed, but will be written again if they differ from those restored. 
+	 */
+	public void restoreGraphicsState() throws IOException { 
+		if (savedStates.isEmpty()) throw new IllegalStateException("Graphics state restored without being saved."); 
+		endTextBatch(); 
+		writeRestoreGraphicsState(); 
+		savedStates.remove(savedStates.size()-1).restore(this); 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#saveGraphicsState()}. */
+	protected void writeSaveGraphicsState() throws IOException { 
+		stream.saveGraphicsState(); 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#restoreGraphicsState()}. */
+	protected void writeRestoreGraphicsState() throws IOException { 
+		stream.restoreGraphicsState(); 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#beginText()}. */
+	public void beginText() throws IOException { 
+		endTextBatch(); 
+		stream.beginText(); 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#endText()}. */
+	public void endText() throws IOException { 
+		stream.endText(); 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#newLineAtOffset(float, float)}. */
+	public void newLineAtOffset(float tx, float ty) throws IOException { 
+		stream.newLineAtOffset(tx, ty); 
+	}
+	
+	/**
+	 * Sets the font and size, unless they are already set. 
+	 * They stay set across text objects, as they are part of the graphics state. 
+	 */
+	public void setFont(PDFont font, float fontSize) throws IOException { 
+		if (font==this.font && fontSize==this.fontSize) { 
+			elided.fontCount ++ ; 
+			return ; 
+		}
+		writeFont(font, fontSize); 
+		this.font = font ; 
+		this.fontSize = fontSize ; 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#setFont(PDFont, float)}. Called by {@link #setFont(PDFont, float)} when the font changes. */
+	protected void writeFont(PDFont font, float fontSize) throws IOException { 
+		stream.setFont(font, fontSize); 
+	}
+	
+	/** Passes through to {@link PDPageContentStream#showText(String)}. */
+	public void showText(String text) throws IOException { 
+		stream.showText(text); 
+	}
+
+	/**
+	 * Shows the text with its baseline starting at the given point, in PDF-Box coordinates, and the text kerned if <code>kerning</code> is non-null. 
+	 * <p>
+	 * Consecutive calls share one text object. Each moves to its text with a <code>Td</code> relative to the previous, and the font is set only if it differs (see {@link #setFont(PDFont, float)}). 
+	 * The colour may change between calls, as colour operators are allowed in a text object. 
+	 * The text object is ended by the next operator which isn't allowed in one, such as a path or another text object, or by {@link #endTextBatch()}. 
+	 */
+	public void showTextAt(float pdfLeft, float pdfBottom, PDFont font, float fontSize, String text, Kerning kerning) throws IOException { 
+		if (!isTextBatchOpen) { 
+			beginText(); 
+			this.isTextBatchOpen = true ; 
+			this.batchLineX = 0 ; 
+			this.batchLineY = 0 ; 
+		}
+		if (pdfLeft!=batchLineX || pdfBottom!=batchLineY) { 
+			newLineAtOffset(pdfLeft-batchLineX, pdfBottom-batchLineY); 
+			this.batchLineX = pdfLeft ; 
+			this.batchLineY = pdfBottom ; 
+		}
+		setFont(font, fontSize); 
+		if (kerning!=null) { 
+			showText(text, kerning); 
+		} else { 
+			showText(text); 
+		}
+	}
+	
+	/**
+	 * Ends the text object left open by {@link #showTextAt(float, float, PDFont, float, String, Kerning)}, if there is one. 
+	 * {@link #getStream()} calls this, as does drawing a block which doesn't draw only through the canvas (see {@link Block#isDrawnThroughCanvas()} and {@link #beginBlock(Quill, boolean)}). 
+	 */
+	public void endTextBatch() throws IOException { 
+		if (!isTextBatchOpen) return ; 
+		this.isTextBatchOpen = false ; 
+		endText(); 
+	}
+
+	/**
+	 * Shows the text with the adjustments of the {@link Kerning} table between its characters, in the current font. 
+	 * <p>
+	 * Text with no kerned pairs is shown with {@link #showText(String)}. 
+	 * Otherwise, PDF-Box has no method for the <code>TJ</code> operator, so it is written raw, with each run of unkerned characters as a hex string. 
+	 */
+	@SuppressWarnings("deprecation")
+	public void showText(String text, Kerning kerning) throws IOException { 
+		if (kerning.getStringAdjustment(text)==0) { 
+			showText(text); 
+			return ; 
+		}
+		addToSubset(text); 
+		StringBuilder operands = new StringBuilder("["); 
+		int runStart = 0 ; 
+		for (int i=1 ; i<=text.length() ; i++) { 
+			int adjustment = (i<text.length()) ? kerning.getAdjustment(text.charAt(i-1), text.charAt(i)) : 0 ; 
+			if (adjustment==0 && i<text.length()) continue ; 
+			appendHex(operands, font.encode(text.substring(runStart, i))); 
+			/* TJ subtracts its numbers from the position, so a negative adjustment becomes positive. */
+			if (adjustment!=0) operands.append(' ').append(-adjustment).append(' '); 
+			runStart = i ; 
+		}
+		operands.append("] TJ\n"); 
+		stream.appendRawCommands(operands.toString()); 
+	}
+	
+	/**
+	 * Shows words separated by single spaces, with each space widened by <code>extraSpace</code>, in points at the current font size. 
+	 * The words are kerned if <code>kerning</code> is non-null, but not across the spaces, as words are measured one at a time. 
+	 * <p>
+	 * This is a single <code>TJ</code> operator, so a fully justified line can be drawn with one text position and one font. 
+	 * The word spacing operator <code>Tw</code> would be shorter, but applies only to single-byte fonts, and embedded fonts use two bytes. 
+	 */
+	@SuppressWarnings("deprecation")
+	public void showWords(String text, Kerning kerning, float extraSpace) throws IOException { 
+		if (kerning==null && extraSpace==0) { 
+			showText(text); 
+			return ; 
+		}
+		addToSubset(text); 
+		float spaceAdjustment = extraSpace * 1000 / fontSize ; 
+		StringBuilder operands = new StringBuilder("["); 
+		int runStart = 0 ; 
+		for (int i=1 ; i<=text.length() ; i++) { 
+			float adjustment = (i<text.length()) ? getWordAdjustment(text, i, kerning, spaceAdjustment) : 0 ; 
+			if (adjustment==0 && i<text.length()) continue ; 
+			appendHex(operands, font.encode(text.substring(runStart, i))); 
+			/* TJ subtracts its numbers from the position, so a widening becomes negative. */
+			if (adjustment!=0) appendNumber(operands.append(' '), -adjustment).append(' '); 
+			runStart = i ; 
+		}
+		operands.append("] TJ\n"); 
+		stream.appendRawCommands(operands.toString()); 
+	}
+	
+	/**
+	 * Returns the adjustment, in thousandths of an em, before character <code>i</code> of text shown by {@link #showWords(String, Kerning, float)}. 
+	 */
+	static float getWordAdjustment(String text, int i, Kerning kerning, float spaceAdjustment) { 
+		char before = text.charAt(i-1); 
+		if (before==' ') return spaceAdjustment ; 
+		char after = text.charAt(i); 
+		return (kerning!=null && after!=' ') ? kerning.getAdjustment(before, after) : 0 ; 
+	}
+	
+	/**
+	 * As <code>PDPageContentStream.showText</code> does, so the subset has the glyphs. 
+	 */
+	private void addToSubset(String text) { 
+		if (!font.willBeSubset()) return ; 
+		for (int i=0 ; i<text.length() ; ) { 
+			int codePoint = text.codePointAt(i); 
+			font.addToSubset(codePoint); 
+			i += Character.charCount(codePoint); 
+		}
+	}
+	
+	/**
+	 * Appends the number to two decimal places, without trailing zeros or an exponent, as PDF needs. 
+	 */
+	private static StringBuilder appendNumber(StringBuilder builder, float value) { 
+		long hundredths = Math.round(value*100.0); 
+		if (hundredths<0) { 
+			builder.append('-'); 
+			hundredths = -hundredths ; 
+		}
+		builder.append(hundredths/100); 
+		long fraction = hundredths%100 ; 
+		if (fraction!=0) { 
+			builder.append('.'); 
+			if (fraction<10) builder.append('0'); 
+			builder.append((fraction%10==0) ? fraction/10 : fraction); 
+		}
+		return builder ; 
+	}
+	
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray(); 
+	
+	private static void appendHex(StringBuilder builder, byte[] bytes) { 
+		builder.append('<'); 
+		for (byte b : bytes) builder.append(HEX_DIGITS[(b>>4)&0xf]).append(HEX_DIGITS[b&0xf]); 
+		builder.append('>'); 
+	}
+
+	/**
+	 * The tracked state saved by {@link Canvas#saveGraphicsState()}. 
+	 */
+	private static final class SavedState { 
+		
+		private final Color strokingColor, nonStrokingColor ; 
+		private final PDFont font ; 
+		private final float fontSize, lineWidth, dashPhase ; 
+		private final float[] dashPattern ; 
+		private final int lineCapStyle, lineJoinStyle ; 
+		
+		SavedState(Canvas canvas) { 
+			this.strokingColor = canvas.actualStrokingColor ; 
+			this.nonStrokingColor = canvas.actualNonStrokingColor ; 
+			this.font = canvas.font ; 
+			this.fontSize = canvas.fontSize ; 
+			this.lineWidth = canvas.lineWidth ; 
+			this.dashPattern = canvas.dashPattern ; // Never changed in place, so can be shared. 
+			this.dashPhase = canvas.dashPhase ; 
+			this.lineCapStyle = canvas.lineCapStyle ; 
+			this.lineJoinStyle = canvas.lineJoinStyle ; 
+		}
+		
+		void restore(Canvas canvas) { 
+			canvas.actualStrokingColor = strokingColor ; 
+			canvas.actualNonStrokingColor = nonStrokingColor ; 
+			canvas.font = font ; 
+			canvas.fontSize = fontSize ; 
+			canvas.lineWidth = lineWidth ; 
+			canvas.dashPattern = dashPattern ; 
+			canvas.dashPhase = dashPhase ; 
+			canvas.lineCapStyle = lineCapStyle ; 
+			canvas.lineJoinStyle = lineJoinStyle ; 
+		}
+	}
+	
+	/**
+	 * Counts of graphics state operators not written, because the state was already set. 
+	 * <p>
+	 * The counts of a canvas are public fields, for easy reading, and aren't thread-safe: each canvas should be drawn by one thread. 
+	 * {@link Canvas#totalElided} is shared, so is only changed through its synchronized methods. 
+	 */
+	public static final class ElidedOperators { 
+		
+		/** Stroking and non-stroking colours. */
+		public long colorCount ; 
+		
+		public long lineWidthCount ; 
+		
+		/** Dash patterns, cap styles and join styles. */
+		public long lineStyleCount ; 
+		
+		public long fontCount ; 
+		
+		public long getTotal() { 
+			return colorCount + lineWidthCount + lineStyleCount + fontCount ; 
+		}
+		
+		synchronized void add(ElidedOperators other) { 
+			this.colorCount += other.colorCount ; 
+			this.lineWidthCount += other.lineWidthCount ; 
+			this.lineStyleCount += other.lineStyleCount ; 
+			this.fontCount += other.fontCount ; 
+		}
+		
+		/**
+		 * Returns a copy of the counts, read together. 
+		 */
+		public synchronized ElidedOperators copy() { 
+			ElidedOperators copy = new ElidedOperators(); 
+			copy.add(this); 
+			return copy ; 
+		}
+		
+		/**
+		 * Zeroes the counts. 
+		 */
+		public synchronized void reset() { 
+			this.colorCount = 0 ; 
+			this.lineWidthCount = 0 ; 
+			this.lineStyleCount = 0 ; 
+			this.fontCount = 0 ; 
+		}
+		
+		@Override
+		public synchronized String toString() { 
+			return getTotal()+" operators elided (colour "+colorCount+", line-width "+lineWidthCount+", line-style "+lineStyleCount+", font "+fontCount+")" ; 
+		}
+	}
+
 }
@@ -0,0 +1,389 @@
+package org.blockframe.core;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+
+/**
+ * A {@link Canvas} which counts drawing operations, instead of writing them to a PDF.
+ * <p>
+ * This lets the layout engine be profiled without the cost of PDF-Box, and lets large documents be paginated just to count their pages.
+ * To use it, override {@link PdfChapter#newCanvas(org.apache.pdfbox.pdmodel.PDPage)} to return one of these.
+ * Usually, all the pages share one {@link Tally}, which accumulates the counts.
+ * <p>
+ * The tally also estimates the number of bytes PDF-Box would have written to the content streams (before compression),
+ * and the bounding box of everything drawn. These are estimates: for example, text is assumed to take one byte per character, and stroke widths are ignored.
+ */
+public class CountingCanvas extends Canvas { 
+
+	/**
+	 * The counts accumulated by this canvas.
+	 */
+	public final Tally tally ; 
+
+	/**
+	 * Bounds of the path built since the last fill or stroke, in PDF coordinates.
+	 */
+	private float pathMinX, pathMinY, pathMaxX, pathMaxY ; 
+
+	private boolean isPathEmpty = true ; 
+
+	/**
+	 * Current text position, needed to estimate the bounds of text.
+	 */
+	private float textX, textY ; 
+
+	/**
+	 * @param pageHeight Height of the page, in PDF units.
+	 * @param tally Accumulates the counts. This may be shared between pages.
+	 */
+	public CountingCanvas(double pageHeight, Tally tally) { 
+		super(pageHeight); 
+		this.tally = tally ; 
+		tally.pageCount ++ ; 
+	}
+
+	@Override
+	public void close() throws IOException { 
+		if (isClosed()) return ; 
+		super.close(); 
+		tally.elidedCount += elided.getTotal(); 
+	}
+
+	//////  Drawing
+
+	@Override
+	protected void writeStrokingColor(Color color) { 
+		tally.colorCount ++ ; 
+		tally.bytes += colorBytes(color) + 3 ; // "RG\n"
+	}
+
+	@Override
+	protected void writeNonStrokingColor(Color color) { 
+		tally.colorCount ++ ; 
+		tally.bytes += colorBytes(color) + 3 ; // "rg\n"
+	}
+
+	@Override
+	public void moveTo(float x, float y) throws IOException { 
+		endTextBatch(); 
+		tally.pathCount ++ ; 
+		tally.bytes += numberBytes(x) + numberBytes(y) + 2 ; 
+		addPathPoint(x, y); 
+	}
+
+	@Override
+	public void lineTo(float x, float y) throws IOException { 
+		endTextBatch(); 
+		tally.pathCount ++ ; 
+		tally.bytes += numberBytes(x) + numberBytes(y) + 2 ; 
+		addPathPoint(x, y); 
+	}
+
+	@Override
+	public void curveTo(float x1, float y1, float x2, float y2, float x3, float y3) throws IOException { 
+		endTextBatch(); 
+		tally.pathCount ++ ; 
+		tally.bytes += numberBytes(x1) + numberBytes(y1) + numberBytes(x2) + numberBytes(y2) + numberBytes(x3) + numberBytes(y3) + 2 ; 
+		/* The control points bound the curve. */
+		addPathPoint(x1, y1); 
+		addPathPoint(x2, y2); 
+		addPathPoint(x3, y3); 
+	}
+
+	@Override
+	public void addRect(float x, float y, float width, float height) throws IOException { 
+		endTextBatch(); 
+		tally.pathCount ++ ; 
+		tally.bytes += numberBytes(x) + numberBytes(y) + numberBytes(width) + numberBytes(height) + 3 ; 
+		addPathPoint(x, y); 
+		addPathPoint(x+width, y+height); 
+	}
+
+	@Override
+	public void closePath() { 
+		tally.pathCount ++ ; 
+		tally.bytes += 2 ; 
+	}
+
+	@Override
+	public void fill() { 
+		tally.fillCount ++ ; 
+		tally.bytes += 2 ; 
+		paintPath(); 
+	}
+
+	@Override
+	public void stroke() { 
+		tally.strokeCount ++ ; 
+		tally.bytes += 2 ; 
+		paintPath(); 
+	}
+
+	@Override
+	protected void writeLineWidth(float lineWidth) { 
+		tally.lineWidthCount ++ ; 
+		tally.bytes += numberBytes(lineWidth) + 2 ; 
+	}
+
+	@Override
+	protected void writeLineDashPattern(float[] pattern, float phase) { 
+		tally.lineStyleCount ++ ; 
+		tally.bytes += 2 + numberBytes(phase) + 2 ; // "[" ... "] " phase "d\n"
+		for (float dash : pattern) tally.bytes += numberBytes(dash);
+	}
+
+	@Override
+	protected void writeLineCapStyle(int lineCapStyle) { 
+		tally.lineStyleCount ++ ; 
+		tally.bytes += 4 ; // "0 J\n"
+	}
+
+	@Override
+	protected void writeLineJoinStyle(int lineJoinStyle) { 
+		tally.lineStyleCount ++ ; 
+		tally.bytes += 4 ; // "0 j\n"
+	}
+
+	@Override
+	protected void writeSaveGraphicsState() throws IOException { 
+		tally.saveRestoreCount ++ ; 
+		tally.bytes += 2 ; 
+	}
+
+	@Override
+	protected void writeRestoreGraphicsState() throws IOException { 
+		tally.saveRestoreCount ++ ; 
+		tally.bytes += 2 ; 
+	}
+
+	@Override
+	public void beginText() throws IOException { 
+		endTextBatch(); 
+		tally.textObjectCount ++ ; 
+		tally.bytes += 3 ; 
+		this.textX = 0 ; 
+		this.textY = 0 ; 
+	}
+
+	@Override
+	public void endText() { 
+		tally.bytes += 3 ; 
+	}
+
+	@Override
+	public void newLineAtOffset(float tx, float ty) { 
+		tally.textPositionCount ++ ; 
+		tally.bytes += numberBytes(tx) + numberBytes(ty) + 3 ; 
+		/* Each offset is from the start of the previous line, which is where the previous offset left the text. Text showing doesn't move the line start. */
+		this.textX += tx ; 
+		this.textY += ty ; 
+	}
+
+	@Override
+	protected void writeFont(PDFont font, float fontSize) { 
+		tally.fontCount ++ ; 
+		tally.bytes += 4 + numberBytes(fontSize) + 3 ; // "/F1 " ... "Tf\n"
+	}
+
+	@Override
+	public void showText(String text) throws IOException { 
+		tally.showTextCount ++ ; 
+		tally.charCount += text.length(); 
+		tally.bytes += text.length() + 6 ; // "(" text ") Tj\n"
+		float width = 0 ; 
+		if (tally.boxes!=null && font!=null) width = GlyphWidths.getStringWidth(text, font) / 1000 * fontSize ; 
+		tally.addBox(textX, textY, textX+width, textY+fontSize); 
+	}
+
+	@Override
+	public void showText(String text, Kerning kerning) throws IOException { 
+		int adjustment = kerning.getStringAdjustment(text); 
+		if (adjustment==0) { 
+			showText(text); 
+			return ; 
+		}
+		int kernedPairCount = 0 ; 
+		for (int i=1 ; i<text.length() ; i++) if (kerning.getAdjustment(text.charAt(i-1), text.charAt(i))!=0) kernedPairCount ++ ; 
+		tally.showTextCount ++ ; 
+		tally.charCount += text.length(); 
+		tally.bytes += 2*text.length() + 2*(kernedPairCount+1) + 5*kernedPairCount + 6 ; // "[" hex strings and numbers "] TJ\n"
+		float width = 0 ; 
+		if (tally.boxes!=null && font!=null) width = (GlyphWidths.getStringWidth(text, font) + adjustment) / 1000 * fontSize ; 
+		tally.addBox(textX, textY, textX+width, textY+fontSize); 
+	}
+
+	@Override
+	public void showWords(String text, Kerning kerning, float extraSpace) throws IOException { 
+		if (kerning==null && extraSpace==0) { 
+			showText(text); 
+			return ; 
+		}
+		float spaceAdjustment = extraSpace * 1000 / fontSize ; 
+		float adjustment = 0 ; 
+		int adjustmentCount = 0 ; 
+		for (int i=1 ; i<text.length() ; i++) { 
+			float charAdjustment = getWordAdjustment(text, i, kerning, spaceAdjustment); 
+			if (charAdjustment==0) continue ; 
+			adjustment += charAdjustment ; 
+			adjustmentCount ++ ; 
+		}
+		tally.showTextCount ++ ; 
+		tally.charCount += text.length(); 
+		tally.bytes += 2*text.length() + 2*(adjustmentCount+1) + 6*adjustmentCount + 6 ; // "[" hex strings and numbers "] TJ\n"
+		float width = 0 ; 
+		if (tally.boxes!=null && font!=null) width = (GlyphWidths.getStringWidth(text, font) + adjustment) / 1000 * fontSize ; 
+		tally.addBox(textX, textY, textX+width, textY+fontSize); 
+	}
+
+	//////  Bounds
+
+	private void addPathPoint(float x, float y) { 
+		if (isPathEmpty) { 
+			pathMinX = pathMaxX = x ; 
+			pathMinY = pathMaxY = y ; 
+			isPathEmpty = false ; 
+		} else { 
+			if (x<pathMinX) pathMinX = x ; 
+			if (x>pathMaxX) pathMaxX = x ; 
+			if (y<pathMinY) pathMinY = y ; 
+			if (y>pathMaxY) pathMaxY = y ; 
+		}
+	}
+
+	private void paintPath() { 
+		if (isPathEmpty) return ; 
+		tally.addBox(pathMinX, pathMinY, pathMaxX, pathMaxY); 
+		isPathEmpty = true ; 
+	}
+
+	//////  Byte estimates
+
+	/**
+	 * Returns the length of a number as PDF-Box writes it, with at most five decimal places and no trailing zeros, plus a following space.
+	 */
+	static int numberBytes(float value) { 
+		int length = 1 ; // The space after it.
+		if (value<0) { 
+			length ++ ; 
+			value = -value ; 
+		}
+		long scaled = Math.round(value*100000.0); 
+		long integer = scaled / 100000 ; 
+		long fraction = scaled % 100000 ; 
+		do { 
+			length ++ ; 
+			integer /= 10 ; 
+		} while (integer>0); 
+		if (fraction>0) { 
+			int fractionDigits = 5 ; 
+			while (fraction%10==0) { 
+				fraction /= 10 ; 
+				fractionDigits -- ; 
+			}
+			length += 1 + fractionDigits ; 
+		}
+		return length ; 
+	}
+
+	private static int colorBytes(Color color) { 
+		return numberBytes(color.getRed()/255f) + numberBytes(color.getGreen()/255f) + numberBytes(color.getBlue()/255f); 
+	}
+
+	//////  Tally
+
+	/**
+	 * Counts of the operations drawn on one or more {@link CountingCanvas} instances.
+	 * <p>
+	 * The counts are public fields, for easy reading. They are not thread-safe: each thread should have its own tally.
+	 */
+	public static class Tally { 
+
+		/** Number of canvases (that is, pages) created with this tally. */
+		public int pageCount ; 
+
+		/** Path construction operations: move, line, curve, rectangle and close. */
+		public long pathCount ; 
+
+		public long fillCount ; 
+
+		public long strokeCount ; 
+
+		/** Stroking and non-stroking colour changes actually written. */
+		public long colorCount ; 
+
+		public long lineWidthCount ; 
+
+		/** Dash patterns, cap styles and join styles written. */
+		public long lineStyleCount ; 
+
+		/** Graphics state saves and restores, that is, <code>q</code> and <code>Q</code>. */
+		public long saveRestoreCount ; 
+
+		/** Number of text objects, that is, <code>BT</code> ... <code>ET</code> pairs. */
+		public long textObjectCount ; 
+
+		public long textPositionCount ; 
+
+		public long fontCount ; 
+
+		public long showTextCount ; 
+
+		/** Number of characters of text shown. */
+		public long charCount ; 
+
+		/** Graphics state operators not written, because the state was already set. See {@link Canvas#elided}. */
+		public long elidedCount ; 
+
+		/** Estimate of the bytes which would have been written to the content streams. */
+		public long bytes ; 
+
+		/** Bounds of everything painted, over all pages, in PDF coordinates. */
+		public float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE ; 
+
+		/**
+		 * The bounding box of each fill, stroke and text, as <code>{minX, minY, maxX, maxY}</code>.
+		 * This is <code>null</code> unless requested in the constructor, because it can be large.
+		 */
+		public final ArrayList<float[]> boxes ; 
+
+		public Tally() { 
+			this(false); 
+		}
+
+		/**
+		 * @param wantBoxes Whether to record every bounding box in {@link #boxes}.
+		 * If so, text is measured to find its width. Otherwise, text is counted as zero width in the overall bounds.
+		 */
+		public Tally(boolean wantBoxes) { 
+			this.boxes = wantBoxes ? new ArrayList<float[]>() : null ; 
+		}
+
+		/**
+		 * Total number of drawing operations.
+		 */
+		public long getOperationCount() { 
+			return pathCount + fillCount + strokeCount + colorCount + lineWidthCount + lineStyleCount + saveRestoreCount + 2*textObjectCount + textPositionCount + fontCount + showTextCount ; 
+		}
+
+		void addBox(float boxMinX, float boxMinY, float boxMaxX, float boxMaxY) { 
+			if (boxMinX<minX) minX = boxMinX ; 
+			if (boxMinY<minY) minY = boxMinY ; 
+			if (boxMaxX>maxX) maxX = boxMaxX ; 
+			if (boxMaxY>maxY) maxY = boxMaxY ; 
+			if (boxes!=null) boxes.add(new float[] { boxMinX, boxMinY, boxMaxX, boxMaxY }); 
+		}
+
+		@Override
+		public String toString() { 
+			return pageCount+" pages, "+getOperationCount()+" operations (path "+pathCount+", fill "+fillCount+", stroke "+strokeCount
+					+", colour "+colorCount+", line-width "+lineWidthCount+", line-style "+lineStyleCount+", save/restore "+saveRestoreCount
+					+", text "+textObjectCount+", position "+textPositionCount+", font "+fontCount+", show "+showTextCount+"), "
+					+elidedCount+" elided, "+charCount+" chars, about "+bytes+" bytes" ; 
+		}
+	}
+
+}
@@ -207,6 +207,17 @@ public class DebugLog {
 	
 	// TODO Code the missing add()methods. 
 	
+	/**
+	 * Whether a message with the given <code>requiredVerbosity</code> would be added by the <code>add</code> methods. 
+	 * <p>
+	 * Most callers don't need this. But where building the message arguments costs something (for example, boxing a <code>double</code>), 
+	 * hot code can test this first, so nothing is allocated when logging is off. 
+	 */
+	public static boolean isLogging(double requiredVerbosity, Block block, Canvas canvas) { 
+		if (requiredVerbosity<=0) return false ; 
+		return (block!=null&&requiredVerbosity<=block.loggingVerbosity) || (canvas!=null&&requiredVerbosity<=canvas.loggingVerbosity) || (requiredVerbosity<=loggingVerbosity) ; 
+	}
+	
 	/**
 	 * Adds the message if its <code>requiredVerbosity</code> is equal or less any of the verbosities in {@link Block}, {@link Canvas} or globally. 
 	 * However, if the <code>level</code> is zero or less, the message is discarded. 
@@ -0,0 +1,85 @@
+package org.blockframe.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+
+
+/**
+ * Process-wide cache of parsed TrueType and OpenType (TrueType-outline) font programs.
+ * <p>
+ * Parsing a font file is the costly part of using it. With this cache, a batch of documents parses each font once.
+ * Each document then loads the parsed font with {@link PdfChapter#loadFont(TrueTypeFont)} or {@link PdfChapter#loadFontFamily(TrueTypeFont, TrueTypeFont, TrueTypeFont, TrueTypeFont)},
+ * which is cheap, and embeds only the glyphs the document uses.
+ * <p>
+ * Fonts are parsed completely into memory, so the parsed fonts can be shared by threads, and no files are held open.
+ * The cached fonts are never closed or evicted.
+ */
+public final class EmbeddedFonts {
+
+	private static final ConcurrentHashMap<String,TrueTypeFont> parsedFonts = new ConcurrentHashMap<String,TrueTypeFont>();
+
+	private EmbeddedFonts() {}
+
+	/**
+	 * Returns the parsed font from the file, parsing it if it hasn't been already.
+	 */
+	public static TrueTypeFont getTrueTypeFont(final File file) throws IOException {
+		final File canonicalFile = file.getCanonicalFile();
+		return getTrueTypeFont("file:"+canonicalFile.getPath(), new StreamOpener() {
+			public InputStream open() throws IOException {
+				return new FileInputStream(canonicalFile);
+			}
+		});
+	}
+
+	/**
+	 * Returns the parsed font from the class-path resource, such as <code>"/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf"</code>,
+	 * parsing it if it hasn't been already.
+	 */
+	public static TrueTypeFont getTrueTypeFont(final String resourceName) throws IOException {
+		return getTrueTypeFont("resource:"+resourceName, new StreamOpener() {
+			public InputStream open() throws IOException {
+				InputStream stream = EmbeddedFonts.class.getResourceAsStream(resourceName);
+				if (stream==null) throw new IOException("No font resource "+resourceName);
+				return stream ;
+			}
+		});
+	}
+
+	/**
+	 * Number of font programs parsed so far.
+	 */
+	public static int getParsedCount() {
+		return parsedFonts.size();
+	}
+
+	private interface StreamOpener {
+		InputStream open() throws IOException ;
+	}
+
+	private static TrueTypeFont getTrueTypeFont(String key, StreamOpener opener) throws IOException {
+		TrueTypeFont font = parsedFonts.get(key);
+		if (font!=null) return font ;
+		synchronized (parsedFonts) {
+			/* Parsing is slow, so make sure no other thread has just done it. */
+			font = parsedFonts.get(key);
+			if (font!=null) return font ;
+			InputStream stream = opener.open();
+			try {
+				/* Not an embedded subset, and not parsed on demand: every table is read now, so later reads don't race. */
+				font = new TTFParser(false, false).parse(stream);
+			} finally {
+				stream.close();
+			}
+			parsedFonts.put(key, font);
+			return font ;
+		}
+	}
+
+}
@@ -116,13 +116,14 @@ public abstract class Frame extends Block implements Verbosity {
 		
 		@Override
 		public void draw(Canvas canvas, double left, double top) throws IOException { 
-			DebugLog.add(ENTERING_5, this, canvas, logMessage_enteringDraw, left, top, true); 
+			if (DebugLog.isLogging(ENTERING_5, Frame.this, canvas)) DebugLog.add(ENTERING_5, this, canvas, logMessage_enteringDraw, left, top, true); 
+			if (!isDrawnThroughCanvas()) canvas.endTextBatch(); 
 			Frame.this.draw(canvas, left, top, getWidth(), getHeight()); 
 			for (PlacedBlock child : children) { 
 				logIfChildOutsideBounds(child); 
 				child.draw(canvas, left+child.getLeftInContainer(), top+child.getTopInContainer()); 
 			}
-			DebugLog.add(LEAVING_6, this, canvas, logMessage_leavingDraw, children.size(), null, false); 
+			if (DebugLog.isLogging(LEAVING_6, Frame.this, canvas)) DebugLog.add(LEAVING_6, this, canvas, logMessage_leavingDraw, children.size(), null, false); 
 		}
 
 		/**
@@ -140,7 +141,21 @@ public abstract class Frame extends Block implements Verbosity {
 			} 
 			reader.revertTo(newNextBlock.getBlock());
 		}
-		
+
+		/**
+		 * Like {@link #revertToFirstChildOfList(ArrayList)}, for children already added to this frame: 
+		 * the children from <code>firstIndex</code> onwards are removed from {@link #children}, reverted, and pushed back into the pipe. 
+		 */
+		public void revertChildrenFrom(int firstIndex) { 
+			if (firstIndex>=children.size()) return ; 
+			Block newNextBlock = children.get(firstIndex).getBlock(); 
+			while (children.size()>firstIndex) { 
+				/* Go backwards, coz in any given pipe, the earliest frame should be the one that takes effect. */
+				children.remove(children.size()-1).revertToStart(); 
+			}
+			reader.revertTo(newNextBlock); 
+		}
+
 		@Override
 		public void revertToStart() { 
 			PlacedBlock firstChild = children.size()>0 ? children.get(0) : null ; 
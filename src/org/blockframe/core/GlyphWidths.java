@@ -0,0 +1,255 @@
+package org.blockframe.core;
+
+import java.io.IOException;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDFontDescriptor;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+
+/**
+ * Table of the advance widths of the characters of one font, for measuring text without going through PDF-Box's encoding and width maps.
+ * <p>
+ * Tables are only built for the Standard-14 {@link PDType1Font} fonts, such as those in {@link Quill#TIMES_ROMAN}.
+ * These have a single-byte encoding, so the width of a string is simply the sum of the widths of its characters.
+ * The table covers characters 0 to 255. Strings with other characters, or with characters the font can't encode, are measured by PDF-Box as before.
+ * <p>
+ * The widths are in PDF-Box's glyph units, that is, thousandths of the font size, and are summed in the same order as {@link PDFont#getStringWidth(String)}.
+ * So the results are identical.
+ * <p>
+ * Tables are built when a font is first measured, and then shared by all threads.
+ * They are built from the precompiled {@link Standard14Metrics}, without asking PDF-Box for any widths.
+ * PDF-Box may still refuse a character the encoding has, if the system font it draws with lacks the glyph.
+ * So each character is checked with PDF-Box the first time it is measured.
+ * <p>
+ * The table also holds the font's bounding box, ascent and descent.
+ */
+public final class GlyphWidths {
+
+	private static final int TABLE_SIZE = Standard14Metrics.TABLE_SIZE ;
+
+	/**
+	 * Marks a character in {@link #widths} not yet checked with PDF-Box. Real widths are never negative.
+	 */
+	private static final float UNCHECKED = -1 ;
+
+	/**
+	 * The tables built so far. This array is replaced, never modified, so it can be read without locking.
+	 * There are only a few Standard-14 fonts, so it is searched linearly.
+	 */
+	private static volatile GlyphWidths[] tables = new GlyphWidths[0] ;
+
+	/**
+	 * The table of the most recently measured font, for the common case of measuring many words in one font.
+	 */
+	private static volatile GlyphWidths lastTable ;
+
+	public final PDFont font ;
+
+	/**
+	 * Widths indexed by character. {@link Float#NaN} marks characters the font can't encode, and {@link #UNCHECKED} those not yet checked.
+	 * Each entry only ever changes from {@link #UNCHECKED} to its final value, so threads may race to check a character.
+	 */
+	private final float[] widths = new float[TABLE_SIZE] ;
+
+	/**
+	 * The precompiled widths, or null if the font isn't in {@link Standard14Metrics}.
+	 */
+	private final String precompiledWidths ;
+
+	/**
+	 * Font bounding box height, ascent and descent, in glyph units.
+	 */
+	private final float boundingBoxHeight, ascent, descent ;
+
+	private GlyphWidths(PDFont font) {
+		this.font = font ;
+		int index = Standard14Metrics.indexOf(font.getName());
+		if (index>=0) {
+			this.precompiledWidths = Standard14Metrics.WIDTHS[index] ;
+			for (int c=0 ; c<TABLE_SIZE ; c++) widths[c] = (precompiledWidths.charAt(c)==Standard14Metrics.NO_GLYPH) ? Float.NaN : UNCHECKED ;
+			float[] bounds = Standard14Metrics.BOUNDS[index] ;
+			this.boundingBoxHeight = bounds[3] - bounds[1] ;
+			this.ascent = bounds[4] ;
+			this.descent = bounds[5] ;
+		} else {
+			this.precompiledWidths = null ;
+			for (int c=0 ; c<TABLE_SIZE ; c++) {
+				try {
+					widths[c] = font.getStringWidth(String.valueOf((char)c));
+				} catch (IllegalArgumentException e) {
+					widths[c] = Float.NaN ;
+				} catch (IOException e) {
+					widths[c] = Float.NaN ;
+				}
+			}
+			PDFontDescriptor descriptor = font.getFontDescriptor();
+			this.boundingBoxHeight = descriptor.getFontBoundingBox().getHeight();
+			this.ascent = descriptor.getAscent();
+			this.descent = descriptor.getDescent();
+		}
+	}
+
+	/**
+	 * Checks with PDF-Box that the font can encode the character, and records its width or {@link Float#NaN}.
+	 */
+	private float check(char c) {
+		float width ;
+		try {
+			font.encode(String.valueOf(c));
+			width = precompiledWidths.charAt(c);
+		} catch (IllegalArgumentException e) {
+			width = Float.NaN ;
+		} catch (IOException e) {
+			/* Let PDF-Box report it, when it measures the text instead. */
+			width = Float.NaN ;
+		}
+		widths[c] = width ;
+		return width ;
+	}
+
+	/**
+	 * Returns the table for the font, building it if need be.
+	 * Returns null if the font is not one of the Standard-14 {@link PDType1Font} fonts.
+	 */
+	public static GlyphWidths get(PDFont font) {
+		GlyphWidths table = lastTable ;
+		if (table!=null && table.font==font) return table ;
+		for (GlyphWidths candidate : tables) {
+			if (candidate.font==font) {
+				lastTable = candidate ;
+				return candidate ;
+			}
+		}
+		if (!(font instanceof PDType1Font) || !font.isStandard14()) return null ;
+		synchronized (GlyphWidths.class) {
+			for (GlyphWidths candidate : tables) if (candidate.font==font) return candidate ;
+			table = new GlyphWidths(font);
+			GlyphWidths[] newTables = new GlyphWidths[tables.length+1] ;
+			System.arraycopy(tables, 0, newTables, 0, tables.length);
+			newTables[tables.length] = table ;
+			tables = newTables ;
+		}
+		lastTable = table ;
+		return table ;
+	}
+
+	/**
+	 * Returns the width of the text in glyph units, or {@link Float#NaN} if the table doesn't cover all its characters.
+	 */
+	public float getStringWidth(String text) {
+		float width = 0 ;
+		for (int i=0, n=text.length() ; i<n ; i++) {
+			char c = text.charAt(i);
+			if (c>=TABLE_SIZE) return Float.NaN ;
+			float charWidth = widths[c] ;
+			if (charWidth==UNCHECKED) charWidth = check(c);
+			width += charWidth ;
+		}
+		/* Any unencodable character has made the sum NaN. */
+		return width ;
+	}
+
+	/**
+	 * Returns the kerned width of the text in glyph units, or {@link Float#NaN} if the table doesn't cover all its characters.
+	 * The widths and the {@link Kerning} adjustments are summed in one pass.
+	 */
+	public float getStringWidth(String text, Kerning kerning) {
+		if (kerning.pairCount==0) return getStringWidth(text);
+		float width = 0 ;
+		char previous = 0 ;
+		for (int i=0, n=text.length() ; i<n ; i++) {
+			char c = text.charAt(i);
+			if (c>=TABLE_SIZE) return Float.NaN ;
+			float charWidth = widths[c] ;
+			if (charWidth==UNCHECKED) charWidth = check(c);
+			width += charWidth ;
+			if (i>0) width += kerning.getAdjustment(previous, c);
+			previous = c ;
+		}
+		return width ;
+	}
+
+	/**
+	 * Measures words <code>fromWord</code> up to <code>toWord</code> of the text in one pass, in glyph units. Word <code>i</code> runs from <code>starts[i]</code> up to <code>ends[i]</code>.
+	 * Each width is summed as by {@link #getStringWidth(String)}, or {@link #getStringWidth(String, Kerning)} if <code>kerning</code> isn't null,
+	 * so the results are identical. Words the table doesn't cover are {@link Float#NaN}.
+	 */
+	public void getWordWidths(char[] chars, int[] starts, int[] ends, int fromWord, int toWord, Kerning kerning, double[] wordWidths) {
+		if (kerning!=null && kerning.pairCount==0) kerning = null ;
+		for (int w=fromWord ; w<toWord ; w++) wordWidths[w] = getWordWidth(chars, starts[w], ends[w], kerning);
+	}
+
+	/**
+	 * Sums the widths of one word, in the same order as {@link #getStringWidth(String, Kerning)}.
+	 */
+	private float getWordWidth(char[] chars, int start, int end, Kerning kerning) {
+		float width = 0 ;
+		for (int i=start ; i<end ; i++) {
+			char c = chars[i] ;
+			if (c>=TABLE_SIZE) return Float.NaN ;
+			float charWidth = widths[c] ;
+			if (charWidth==UNCHECKED) charWidth = check(c);
+			width += charWidth ;
+			if (kerning!=null && i>start) width += kerning.getAdjustment(chars[i-1], c);
+		}
+		return width ;
+	}
+
+	/**
+	 * As {@link #getWordWidths(char[], int[], int[], int, int, Kerning, double[])}, but reads the characters from the text one by one, without copying it.
+	 */
+	public void getWordWidths(CharSequence text, int[] starts, int[] ends, int fromWord, int toWord, Kerning kerning, double[] wordWidths) {
+		if (kerning!=null && kerning.pairCount==0) kerning = null ;
+		for (int w=fromWord ; w<toWord ; w++) wordWidths[w] = getWordWidth(text, starts[w], ends[w], kerning);
+	}
+
+	private float getWordWidth(CharSequence text, int start, int end, Kerning kerning) {
+		float width = 0 ;
+		char previous = 0 ;
+		for (int i=start ; i<end ; i++) {
+			char c = text.charAt(i);
+			if (c>=TABLE_SIZE) return Float.NaN ;
+			float charWidth = widths[c] ;
+			if (charWidth==UNCHECKED) charWidth = check(c);
+			width += charWidth ;
+			if (kerning!=null && i>start) width += kerning.getAdjustment(previous, c);
+			previous = c ;
+		}
+		return width ;
+	}
+
+	/**
+	 * Returns the height of the font's bounding box, in glyph units.
+	 */
+	public float getBoundingBoxHeight() {
+		return boundingBoxHeight ;
+	}
+
+	/**
+	 * Returns the font's ascent, in glyph units.
+	 */
+	public float getAscent() {
+		return ascent ;
+	}
+
+	/**
+	 * Returns the font's descent, in glyph units. This is usually negative.
+	 */
+	public float getDescent() {
+		return descent ;
+	}
+
+	/**
+	 * Returns the width of the text in glyph units, using the table if the font has one, and PDF-Box otherwise.
+	 */
+	public static float getStringWidth(String text, PDFont font) throws IOException {
+		GlyphWidths table = get(font);
+		if (table!=null) {
+			float width = table.getStringWidth(text);
+			if (!Float.isNaN(width)) return width ;
+		}
+		return font.getStringWidth(text);
+	}
+
+}
@@ -0,0 +1,406 @@
+package org.blockframe.core;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Finds where words may be hyphenated, using Liang's patterns, as TeX does.
+ * <p>
+ * BlockFrame doesn't ship any patterns. They are read from a file in TeX's format, such as <code>hyph-en-us.tex</code> from the <code>hyph-utf8</code> project,
+ * whose <code>\patterns{...}</code> and <code>\hyphenation{...}</code> groups give the patterns and the exceptions.
+ * A file of bare patterns, one or more per line, also works, and exceptions may be mixed in, written with their hyphens, such as <code>as-so-ciate</code>.
+ * Comments start with <code>%</code>.
+ * <p>
+ * Pattern files are compiled once into a compact trie of primitive arrays, when first asked for with {@link #get(String)} or {@link #get(File)},
+ * and then shared by all threads and documents. Each hyphenator also caches the hyphenation points of the words it has seen.
+ * <p>
+ * {@link org.blockframe.blocks.FrameReading#setHyphenator(Hyphenator)} uses a hyphenator to split words which don't fit on a line.
+ */
+public final class Hyphenator { 
+
+	/**
+	 * Fewest characters before a hyphen, and after. As in TeX's English.
+	 */
+	public static final int DEFAULT_LEFT_MIN = 2, DEFAULT_RIGHT_MIN = 3 ; 
+
+	/**
+	 * Words whose hyphenation points are cached, per hyphenator.
+	 */
+	public static final int CACHE_CAPACITY = 4096 ; 
+
+	private static final int[] NO_POINTS = new int[0] ; 
+
+	/**
+	 * The hyphenators loaded so far, keyed by where their patterns came from.
+	 */
+	private static final ConcurrentHashMap<String,Hyphenator> loaded = new ConcurrentHashMap<String,Hyphenator>(); 
+
+	public final int leftMin, rightMin ; 
+
+	/**
+	 * The trie. The transitions of state s are <code>transitionStarts[s]</code> up to <code>transitionStarts[s+1]</code>, sorted by character.
+	 * The root is state 0.
+	 */
+	private final int[] transitionStarts ; 
+
+	private final char[] transitionChars ; 
+
+	private final int[] transitionTargets ; 
+
+	/**
+	 * Where the values of the pattern ending at each state start in {@link #values}, or -1 if no pattern ends there.
+	 * A pattern of n characters has n+1 values: one before each character, and one after the last.
+	 * Patterns with the same values share one copy of them, as many do.
+	 */
+	private final int[] valueStarts ; 
+
+	private final byte[] values ; 
+
+	/**
+	 * Exceptions, as lower-case words and their hyphenation points.
+	 */
+	private final Map<String,int[]> exceptions ; 
+
+	/**
+	 * Hyphenation points of recently hyphenated words, least recently used first. Guarded by itself.
+	 */
+	@SuppressWarnings("serial")
+	private final LinkedHashMap<String,int[]> cache = new LinkedHashMap<String,int[]>(64, 0.75f, true) { 
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String,int[]> eldest) { 
+			return size()>CACHE_CAPACITY ; 
+		}
+	};
+
+	/**
+	 * Number of patterns in the trie.
+	 */
+	public final int patternCount ; 
+
+	/**
+	 * Compiles the patterns and exceptions read from the reader. See the class description for the format.
+	 */
+	public Hyphenator(Reader reader, int leftMin, int rightMin) throws IOException { 
+		this.leftMin = leftMin ; 
+		this.rightMin = rightMin ; 
+		//////  Read the patterns into a tree of maps, then flatten it.
+		TrieBuilder root = new TrieBuilder(); 
+		this.exceptions = new HashMap<String,int[]>(); 
+		int count = 0 ; 
+		String command = null ; // The TeX command before the current group, such as "\\patterns".
+		String group = null ; // The command whose group we are in. Null outside groups.
+		for (String token : tokenize(reader)) { 
+			if (token.startsWith("\\")) { 
+				command = token ; 
+				continue ; 
+			}
+			if (token.equals("{")) { 
+				group = (command!=null) ? command : "" ; 
+				continue ; 
+			}
+			if (token.equals("}")) { 
+				group = null ; 
+				command = null ; 
+				continue ; 
+			}
+			boolean isException ; 
+			if (group==null) { 
+				isException = token.indexOf('-')>0 && !containsDigit(token); 
+			} else if (group.equals("\\hyphenation")) { 
+				isException = true ; 
+			} else if (group.equals("\\patterns")) { 
+				isException = false ; 
+			} else { 
+				continue ; // Some other command, such as a message.
+			}
+			if (isException) { 
+				addException(token); 
+			} else { 
+				root.add(token); 
+				count ++ ; 
+			}
+		}
+		this.patternCount = count ; 
+		List<TrieBuilder> states = new ArrayList<TrieBuilder>(); 
+		root.number(states); 
+		int transitionCount = 0 ; 
+		int valueCount = 0 ; 
+		/* Each distinct sequence of values, and where it will start. */
+		Map<ByteBuffer,Integer> valueOffsets = new HashMap<ByteBuffer,Integer>(); 
+		for (TrieBuilder state : states) { 
+			transitionCount += state.children.size(); 
+			if (state.values==null) continue ; 
+			ByteBuffer valueKey = ByteBuffer.wrap(state.values); 
+			if (valueOffsets.containsKey(valueKey)) continue ; 
+			valueOffsets.put(valueKey, valueCount); 
+			valueCount += state.values.length ; 
+		}
+		this.transitionStarts = new int[states.size()+1] ; 
+		this.transitionChars = new char[transitionCount] ; 
+		this.transitionTargets = new int[transitionCount] ; 
+		this.valueStarts = new int[states.size()] ; 
+		this.values = new byte[valueCount] ; 
+		for (Map.Entry<ByteBuffer,Integer> entry : valueOffsets.entrySet()) { 
+			byte[] stateValues = entry.getKey().array(); 
+			System.arraycopy(stateValues, 0, values, entry.getValue(), stateValues.length); 
+		}
+		int nextTransition = 0 ; 
+		for (int s=0 ; s<states.size() ; s++) { 
+			TrieBuilder state = states.get(s); 
+			transitionStarts[s] = nextTransition ; 
+			Character[] chars = state.children.keySet().toArray(new Character[state.children.size()]); 
+			Arrays.sort(chars); 
+			for (Character c : chars) { 
+				transitionChars[nextTransition] = c ; 
+				transitionTargets[nextTransition] = state.children.get(c).number ; 
+				nextTransition ++ ; 
+			}
+			valueStarts[s] = (state.values!=null) ? valueOffsets.get(ByteBuffer.wrap(state.values)) : -1 ; 
+		}
+		transitionStarts[states.size()] = nextTransition ; 
+	}
+
+	//////  Loading, shared
+
+	/**
+	 * Returns the hyphenator for the pattern file, with the default minimums, compiling it if it hasn't been already.
+	 */
+	public static Hyphenator get(final File file) throws IOException { 
+		final File canonicalFile = file.getCanonicalFile(); 
+		return get("file:"+canonicalFile.getPath(), new StreamOpener() { 
+			public InputStream open() throws IOException { 
+				return new FileInputStream(canonicalFile); 
+			}
+		}); 
+	}
+
+	/**
+	 * Returns the hyphenator for the class-path resource, with the default minimums, compiling it if it hasn't been already.
+	 */
+	public static Hyphenator get(final String resourceName) throws IOException { 
+		return get("resource:"+resourceName, new StreamOpener() { 
+			public InputStream open() throws IOException { 
+				InputStream stream = Hyphenator.class.getResourceAsStream(resourceName); 
+				if (stream==null) throw new IOException("No hyphenation resource "+resourceName); 
+				return stream ; 
+			}
+		}); 
+	}
+
+	private interface StreamOpener { 
+		InputStream open() throws IOException; 
+	}
+
+	private static Hyphenator get(String key, StreamOpener opener) throws IOException { 
+		Hyphenator hyphenator = loaded.get(key); 
+		if (hyphenator!=null) return hyphenator ; 
+		synchronized (loaded) { 
+			/* Compiling is slow, so make sure no other thread has just done it. */
+			hyphenator = loaded.get(key); 
+			if (hyphenator!=null) return hyphenator ; 
+			InputStream stream = opener.open(); 
+			try { 
+				hyphenator = new Hyphenator(new BufferedReader(new InputStreamReader(stream, "UTF-8")), DEFAULT_LEFT_MIN, DEFAULT_RIGHT_MIN); 
+			} finally { 
+				stream.close(); 
+			}
+			loaded.put(key, hyphenator); 
+			return hyphenator ; 
+		}
+	}
+
+	//////  Hyphenation
+
+	/**
+	 * Returns where the word may be hyphenated, as offsets of the characters which may start a new line, in increasing order.
+	 * <p>
+	 * Punctuation before and after the letters is kept with the first and last parts.
+	 * A word which already contains hyphens may be broken after them, and its parts are hyphenated separately.
+	 * The returned array may be shared, so must not be changed.
+	 */
+	public int[] getHyphenationPoints(String word) { 
+		synchronized (cache) { 
+			int[] points = cache.get(word); 
+			if (points!=null) return points ; 
+		}
+		int[] points = findHyphenationPoints(word); 
+		synchronized (cache) { 
+			cache.put(word, points); 
+		}
+		return points ; 
+	}
+
+	private int[] findHyphenationPoints(String word) { 
+		int start = 0 ; 
+		int end = word.length(); 
+		while (start<end && !Character.isLetter(word.charAt(start))) start ++ ; 
+		while (end>start && !Character.isLetter(word.charAt(end-1))) end -- ; 
+		int[] points = new int[end-start] ; 
+		int count = 0 ; 
+		int segmentStart = start ; 
+		for (int i=start ; i<=end ; i++) { 
+			if (i<end && word.charAt(i)!='-') continue ; 
+			count = addSegmentPoints(word, segmentStart, i, points, count); 
+			if (i<end && i+1<end) points[count++] = i+1 ; // After an existing hyphen.
+			segmentStart = i+1 ; 
+		}
+		return (count==0) ? NO_POINTS : Arrays.copyOf(points, count); 
+	}
+
+	/**
+	 * Adds the points of one run of letters, from the exceptions, or else from the patterns.
+	 */
+	private int addSegmentPoints(String word, int start, int end, int[] points, int count) { 
+		int length = end - start ; 
+		if (length < leftMin+rightMin) return count ; 
+		char[] letters = new char[length+2] ; 
+		letters[0] = '.' ; 
+		for (int i=0 ; i<length ; i++) { 
+			char c = Character.toLowerCase(word.charAt(start+i)); 
+			if (!Character.isLetter(c)) return count ; // Digits or other marks: leave the word whole.
+			letters[i+1] = c ; 
+		}
+		letters[length+1] = '.' ; 
+		int[] exception = exceptions.get(new String(letters, 1, length)); 
+		if (exception!=null) { 
+			for (int point : exception) if (point>=leftMin && point<=length-rightMin) points[count++] = start + point ;
+			return count ; 
+		}
+		/* Priority before each character of the dotted word. An odd priority allows a hyphen there. */
+		byte[] priorities = new byte[letters.length+1] ; 
+		for (int i=0 ; i<letters.length ; i++) { 
+			int state = 0 ; 
+			for (int j=i ; j<letters.length ; j++) { 
+				state = getTransition(state, letters[j]); 
+				if (state<0) break ; 
+				int valueStart = valueStarts[state] ; 
+				if (valueStart<0) continue ; 
+				for (int k=0 ; k<=j-i+1 ; k++) { 
+					byte value = values[valueStart+k] ; 
+					if (value>priorities[i+k]) priorities[i+k] = value ; 
+				}
+			}
+		}
+		for (int point=leftMin ; point<=length-rightMin ; point++) { 
+			if ((priorities[point+1] & 1)!=0) points[count++] = start + point ; 
+		}
+		return count ; 
+	}
+
+	private int getTransition(int state, char c) { 
+		int low = transitionStarts[state] ; 
+		int high = transitionStarts[state+1] - 1 ; 
+		while (low<=high) { 
+			int middle = (low+high) >>> 1 ; 
+			char middleChar = transitionChars[middle] ; 
+			if (middleChar<c) low = middle + 1 ; 
+			else if (middleChar>c) high = middle - 1 ; 
+			else return transitionTargets[middle] ; 
+		}
+		return -1 ; 
+	}
+
+	//////  Compiling
+
+	private static List<String> tokenize(Reader reader) throws IOException { 
+		List<String> tokens = new ArrayList<String>(); 
+		StringBuilder token = new StringBuilder(); 
+		boolean isComment = false ; 
+		int c ; 
+		while ((c = reader.read())>=0) { 
+			if (isComment) { 
+				if (c=='\n' || c=='\r') isComment = false ; 
+				continue ; 
+			}
+			if (c=='%' || c=='{' || c=='}' || Character.isWhitespace(c)) { 
+				if (token.length()>0) tokens.add(token.toString()); 
+				token.setLength(0); 
+				if (c=='%') isComment = true ; 
+				if (c=='{' || c=='}') tokens.add(String.valueOf((char) c)); 
+			} else { 
+				token.append((char) c); 
+			}
+		}
+		if (token.length()>0) tokens.add(token.toString()); 
+		return tokens ; 
+	}
+
+	private static boolean containsDigit(String token) { 
+		for (int i=0 ; i<token.length() ; i++) if (Character.isDigit(token.charAt(i))) return true ; 
+		return false ; 
+	}
+
+	private void addException(String token) { 
+		StringBuilder word = new StringBuilder(); 
+		int[] points = new int[token.length()] ; 
+		int count = 0 ; 
+		for (int i=0 ; i<token.length() ; i++) { 
+			char c = token.charAt(i); 
+			if (c=='-') points[count++] = word.length(); 
+			else word.append(Character.toLowerCase(c)); 
+		}
+		exceptions.put(word.toString(), Arrays.copyOf(points, count)); 
+	}
+
+	/**
+	 * A state of the trie while it is being built.
+	 */
+	private static final class TrieBuilder { 
+
+		final Map<Character,TrieBuilder> children = new HashMap<Character,TrieBuilder>(); 
+
+		byte[] values ; 
+
+		int number ; 
+
+		/**
+		 * Adds a pattern such as <code>.hy3ph</code>: the letters, with a digit before any letter which isn't priority zero.
+		 */
+		void add(String pattern) { 
+			StringBuilder letters = new StringBuilder(); 
+			byte[] patternValues = new byte[pattern.length()+1] ; 
+			for (int i=0 ; i<pattern.length() ; i++) { 
+				char c = pattern.charAt(i); 
+				if (c>='0' && c<='9') patternValues[letters.length()] = (byte) (c-'0'); 
+				else letters.append(Character.toLowerCase(c)); 
+			}
+			TrieBuilder state = this ; 
+			for (int i=0 ; i<letters.length() ; i++) { 
+				TrieBuilder next = state.children.get(letters.charAt(i)); 
+				if (next==null) { 
+					next = new TrieBuilder(); 
+					state.children.put(letters.charAt(i), next); 
+				}
+				state = next ; 
+			}
+			state.values = Arrays.copyOf(patternValues, letters.length()+1); 
+		}
+
+		/**
+		 * Numbers this state and those below it, breadth first, so the root is 0.
+		 */
+		void number(List<TrieBuilder> states) { 
+			states.add(this); 
+			for (int i=0 ; i<states.size() ; i++) { 
+				TrieBuilder state = states.get(i); 
+				state.number = i ; 
+				states.addAll(state.children.values()); 
+			}
+		}
+	}
+
+}
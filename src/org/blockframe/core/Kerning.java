@@ -0,0 +1,320 @@
+package org.blockframe.core;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.fontbox.afm.AFMParser;
+import org.apache.fontbox.afm.FontMetrics;
+import org.apache.fontbox.afm.KernPair;
+import org.apache.fontbox.ttf.CmapSubtable;
+import org.apache.fontbox.ttf.TTFTable;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.encoding.GlyphList;
+
+
+/**
+ * Table of the kerning pairs of one font: how much closer, or further apart, to set each pair of characters.
+ * <p>
+ * The pairs are keyed by character, and the adjustments are in glyph units (thousandths of the font size), as are the widths of {@link GlyphWidths}.
+ * A negative adjustment moves the second character closer to the first.
+ * So the kerned width of a string is its width plus {@link #getStringAdjustment(String)}.
+ * <p>
+ * Tables are compiled once per font, when it is first kerned, into an open-addressed hash map of primitive arrays,
+ * and then shared by all threads. Looking up a pair allocates nothing, and most pairs which aren't kerned are rejected by a bit set, without probing the map.
+ * <ul>
+ * <li>The Standard-14 {@link PDType1Font} fonts take their pairs from the AFM metrics which PDF-Box ships.</li>
+ * <li>Fonts with TrueType outlines take theirs from the horizontal, format 0, subtable of the <code>kern</code> table.
+ * The table is keyed by the parsed font program, so documents loading the same {@link EmbeddedFonts} font share it.
+ * Kerning in the <code>GPOS</code> table is not read.</li>
+ * <li>Other fonts have no pairs, so kerning them changes nothing.</li>
+ * </ul>
+ * Kerning is switched on with {@link Quill#copyKerning(boolean)}, and drawn with {@link Canvas#showText(String, Kerning)}.
+ */
+public final class Kerning { 
+
+	/**
+	 * A table with no pairs.
+	 */
+	public static final Kerning NONE = new Kerning(new int[0], new short[0]); 
+
+	private static final String AFM_RESOURCE_DIRECTORY = "/org/apache/pdfbox/resources/afm/" ; 
+
+	/**
+	 * The tables compiled so far, keyed by the font's width key (see {@link WordWidthCache}). Weak, so documents' fonts can be collected.
+	 */
+	private static final Map<Object,Kerning> tables = Collections.synchronizedMap(new WeakHashMap<Object,Kerning>()); 
+
+	/**
+	 * The tables of the fonts kerned most recently, searched before {@link #tables}, so that switching between a few fonts, as between
+	 * a paragraph's regular and bold words, neither locks nor allocates.
+	 * A holder is only made when a font isn't here, and replaces the oldest. Threads may race to replace one, which is harmless.
+	 * The fonts are held weakly: an embedded font refers to its document, which should be collectable once the document is finished.
+	 */
+	private static final RecentTable[] recentTables = new RecentTable[8] ; 
+
+	private static int nextRecentTable = 0 ; 
+
+	/**
+	 * Pairs, as the first character in the high 16 bits and the second in the low 16 bits. Zero marks an empty slot.
+	 */
+	private final int[] keys ; 
+
+	private final short[] adjustments ; 
+
+	private final int mask ; 
+
+	/**
+	 * Which pairs of characters below 256 are kerned, one bit per pair, so most pairs are rejected without probing the map.
+	 * Pairs with a character from 256 are always looked up.
+	 */
+	private final long[] latinPairs = new long[1024] ; 
+
+	/**
+	 * Number of kerned pairs in the table.
+	 */
+	public final int pairCount ; 
+
+	/**
+	 * @param pairKeys Pair keys, as in {@link #keys}.
+	 * @param pairAdjustments The adjustment of each pair.
+	 */
+	private Kerning(int[] pairKeys, short[] pairAdjustments) { 
+		int capacity = 2 ; 
+		while (capacity < pairKeys.length*2) capacity <<= 1 ; 
+		this.keys = new int[capacity] ; 
+		this.adjustments = new short[capacity] ; 
+		this.mask = capacity - 1 ; 
+		int count = 0 ; 
+		for (int i=0 ; i<pairKeys.length ; i++) { 
+			int key = pairKeys[i] ; 
+			if (key==0 || pairAdjustments[i]==0) continue ; 
+			int slot = slot(key); 
+			while (keys[slot]!=0 && keys[slot]!=key) slot = (slot+1) & mask ; 
+			if (keys[slot]==0) count ++ ; 
+			keys[slot] = key ; 
+			adjustments[slot] = pairAdjustments[i] ; 
+			int first = key >>> 16 ; 
+			int second = key & 0xffff ; 
+			if (first<256 && second<256) latinPairs[first<<2 | second>>6] |= 1L << second ; 
+		}
+		this.pairCount = count ; 
+	}
+
+	private int slot(int key) { 
+		int hash = key * 0x9E3779B9 ; 
+		return (hash ^ hash>>>16) & mask ; 
+	}
+
+	/**
+	 * Returns the adjustment between the two characters, in glyph units.
+	 */
+	public int getAdjustment(char first, char second) { 
+		if ((first|second)<256 && (latinPairs[first<<2 | second>>6] & (1L << second))==0) return 0 ; 
+		int key = first<<16 | second ; 
+		int slot = slot(key); 
+		while (true) { 
+			int candidate = keys[slot] ; 
+			if (candidate==key) return adjustments[slot] ; 
+			if (candidate==0) return 0 ; 
+			slot = (slot+1) & mask ; 
+		}
+	}
+
+	/**
+	 * Returns the sum of the adjustments between each pair of neighbouring characters in the text, in glyph units.
+	 */
+	public int getStringAdjustment(String text) { 
+		if (pairCount==0) return 0 ; 
+		int sum = 0 ; 
+		int n = text.length(); 
+		if (n<2) return 0 ; 
+		char previous = text.charAt(0); 
+		for (int i=1 ; i<n ; i++) { 
+			char c = text.charAt(i); 
+			sum += getAdjustment(previous, c); 
+			previous = c ; 
+		}
+		return sum ; 
+	}
+
+	/**
+	 * Returns the table for the font, compiling it if need be. Fonts without kerning pairs return {@link #NONE}.
+	 */
+	public static Kerning get(PDFont font) { 
+		for (int i=0 ; i<recentTables.length ; i++) { 
+			RecentTable recent = recentTables[i] ; 
+			if (recent!=null && recent.font.get()==font) return recent.kerning ; 
+		}
+		Object fontKey = WordWidthCache.getFontKey(font); 
+		Kerning kerning = tables.get(fontKey); 
+		if (kerning==null) { 
+			synchronized (tables) { 
+				kerning = tables.get(fontKey); 
+				if (kerning==null) { 
+					kerning = compile(font, fontKey); 
+					tables.put(fontKey, kerning); 
+				}
+			}
+		}
+		int slot = nextRecentTable ; 
+		recentTables[slot] = new RecentTable(font, kerning); 
+		nextRecentTable = (slot+1) % recentTables.length ; 
+		return kerning ; 
+	}
+
+	private static Kerning compile(PDFont font, Object fontKey) { 
+		try { 
+			if (font instanceof PDType1Font && font.isStandard14()) return compileAfm(font.getName()); 
+			if (fontKey instanceof TrueTypeFont) return compileTrueType((TrueTypeFont) fontKey); 
+		} catch (IOException e) { 
+			/* A font whose kerning can't be read is simply not kerned. */
+		}
+		return NONE ; 
+	}
+
+	//////  Standard-14 fonts
+
+	private static Kerning compileAfm(String fontName) throws IOException { 
+		InputStream stream = Kerning.class.getResourceAsStream(AFM_RESOURCE_DIRECTORY+fontName+".afm"); 
+		if (stream==null) return NONE ; 
+		FontMetrics metrics ; 
+		try { 
+			metrics = new AFMParser(stream).parse(); 
+		} finally { 
+			stream.close(); 
+		}
+		GlyphList glyphList = fontName.equals("ZapfDingbats") ? GlyphList.getZapfDingbats() : GlyphList.getAdobeGlyphList(); 
+		List<KernPair> pairs = metrics.getKernPairs(); 
+		int[] pairKeys = new int[pairs.size()] ; 
+		short[] pairAdjustments = new short[pairs.size()] ; 
+		for (int i=0 ; i<pairs.size() ; i++) { 
+			KernPair pair = pairs.get(i); 
+			String first = glyphList.toUnicode(pair.getFirstKernCharacter()); 
+			String second = glyphList.toUnicode(pair.getSecondKernCharacter()); 
+			/* Glyphs without a single character can't be typed, so can't be kerned. */
+			if (first==null || second==null || first.length()!=1 || second.length()!=1) continue ; 
+			pairKeys[i] = first.charAt(0)<<16 | second.charAt(0); 
+			pairAdjustments[i] = (short) Math.round(pair.getX()); 
+		}
+		return new Kerning(pairKeys, pairAdjustments); 
+	}
+
+	//////  TrueType fonts
+
+	/**
+	 * Reads the first horizontal format 0 subtable, which holds the pairs by glyph, then maps the glyphs to characters through the Unicode <code>cmap</code>.
+	 */
+	private static Kerning compileTrueType(TrueTypeFont font) throws IOException { 
+		TTFTable kernTable = font.getTableMap().get("kern"); 
+		CmapSubtable cmap = font.getUnicodeCmap(false); 
+		if (kernTable==null || cmap==null) return NONE ; 
+		float scale = 1000f / font.getUnitsPerEm(); 
+		int[] glyphPairs ; 
+		short[] glyphAdjustments ; 
+		DataInputStream in = new DataInputStream(font.getOriginalData()); 
+		try { 
+			skipFully(in, kernTable.getOffset()); 
+			if (in.readUnsignedShort()!=0) return NONE ; // Apple's version 1 table.
+			int subtableCount = in.readUnsignedShort(); 
+			glyphPairs = null ; 
+			glyphAdjustments = null ; 
+			for (int s=0 ; s<subtableCount && glyphPairs==null ; s++) { 
+				in.readUnsignedShort(); // Version
+				int length = in.readUnsignedShort(); 
+				int coverage = in.readUnsignedShort(); 
+				boolean isHorizontalPairs = (coverage & 0x0007)==0x0001 && (coverage>>8)==0 ; // Horizontal, not minimum, not cross-stream, format 0.
+				if (!isHorizontalPairs) { 
+					skipFully(in, length-6); 
+					continue ; 
+				}
+				int pairCount = in.readUnsignedShort(); 
+				skipFully(in, 6); // Search range, entry selector, range shift.
+				glyphPairs = new int[pairCount] ; 
+				glyphAdjustments = new short[pairCount] ; 
+				for (int i=0 ; i<pairCount ; i++) { 
+					glyphPairs[i] = in.readUnsignedShort()<<16 | in.readUnsignedShort(); 
+					glyphAdjustments[i] = in.readShort(); 
+				}
+			}
+		} finally { 
+			in.close(); 
+		}
+		if (glyphPairs==null) return NONE ; 
+		/* Invert the cmap, so each glyph gives the characters drawn with it. Most glyphs have one. */
+		int glyphCount = font.getNumberOfGlyphs(); 
+		char[] glyphCharacters = new char[glyphCount] ; 
+		List<char[]> extraCharacters = new ArrayList<char[]>(); 
+		for (int c=1 ; c<=Character.MAX_VALUE ; c++) { 
+			int glyph = cmap.getGlyphId(c); 
+			if (glyph<=0 || glyph>=glyphCount) continue ; 
+			if (glyphCharacters[glyph]==0) glyphCharacters[glyph] = (char) c ; 
+			else extraCharacters.add(new char[] { (char) glyph, (char) c }); 
+		}
+		ArrayList<Integer> pairKeys = new ArrayList<Integer>(); 
+		ArrayList<Short> pairAdjustments = new ArrayList<Short>(); 
+		for (int i=0 ; i<glyphPairs.length ; i++) { 
+			int left = glyphPairs[i] >>> 16 ; 
+			int right = glyphPairs[i] & 0xffff ; 
+			if (left>=glyphCount || right>=glyphCount) continue ; 
+			short adjustment = (short) Math.round(glyphAdjustments[i]*scale); 
+			for (char first : charactersOf(left, glyphCharacters, extraCharacters)) { 
+				for (char second : charactersOf(right, glyphCharacters, extraCharacters)) { 
+					pairKeys.add(first<<16 | second); 
+					pairAdjustments.add(adjustment); 
+				}
+			}
+		}
+		int[] keyArray = new int[pairKeys.size()] ; 
+		short[] adjustmentArray = new short[pairKeys.size()] ; 
+		for (int i=0 ; i<keyArray.length ; i++) { 
+			keyArray[i] = pairKeys.get(i); 
+			adjustmentArray[i] = pairAdjustments.get(i); 
+		}
+		return new Kerning(keyArray, adjustmentArray); 
+	}
+
+	private static char[] charactersOf(int glyph, char[] glyphCharacters, List<char[]> extraCharacters) { 
+		char first = glyphCharacters[glyph] ; 
+		if (first==0) return new char[0] ; 
+		int count = 1 ; 
+		for (char[] extra : extraCharacters) if (extra[0]==glyph) count ++ ;
+		char[] characters = new char[count] ; 
+		characters[0] = first ; 
+		count = 1 ; 
+		for (char[] extra : extraCharacters) if (extra[0]==glyph) characters[count++] = extra[1] ;
+		return characters ; 
+	}
+
+	private static void skipFully(DataInputStream in, long count) throws IOException { 
+		while (count>0) { 
+			long skipped = in.skip(count); 
+			if (skipped<=0) { 
+				in.readByte(); 
+				skipped = 1 ; 
+			}
+			count -= skipped ; 
+		}
+	}
+
+	/**
+	 * A font and its table, replaced together so readers see a matching pair.
+	 */
+	private static final class RecentTable { 
+		final WeakReference<PDFont> font ; 
+		final Kerning kerning ; 
+		RecentTable(PDFont font, Kerning kerning) { 
+			this.font = new WeakReference<PDFont>(font); 
+			this.kerning = kerning ; 
+		}
+	}
+
+}
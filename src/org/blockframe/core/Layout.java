@@ -50,6 +50,14 @@ public class Layout implements Verbosity {
 	 */
 	public boolean allowSplitting = true ; 
 	
+	/**
+	 * Whether nothing has been placed above the block in the frame being filled, so the block starts at the top of it. 
+	 * <p>
+	 * The default is <code>true</code>. {@link org.blockframe.blocks.FrameVertical} clears it for the children after one with some height. 
+	 * Orphan control only pushes the start of a paragraph to the next frame when this is <code>false</code>, as at the top of a frame, moving it would gain nothing. 
+	 */
+	public boolean isAtTop = true ; 
+	
 	/**
 	 * How the children of this block are laid out within this block. 
 	 * This is mostly relevant in {@link Frame}, {@link TableBlock} and their subclasses. 
@@ -79,6 +87,7 @@ public class Layout implements Verbosity {
 		this.isHeightTight = old.isHeightTight ; 
 		this.justification = old.justification ; 
 		this.allowSplitting = old.allowSplitting ; 
+		this.isAtTop = old.isAtTop ; 
 	}
 	
 	/**
@@ -0,0 +1,108 @@
+package org.blockframe.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Counts the refill caused by keep and widow/orphan control, over all documents and threads since the program started, or since {@link #reset()}.
+ * <p>
+ * When {@link org.blockframe.blocks.FrameVertical} honours {@link Block#setKeepWithNext(boolean) keep-with-next} or {@link Block#setKeepTogether(boolean) keep-together},
+ * it pushes blocks it has already filled back into its pipe, and they are filled again on the next page.
+ * When a paragraph honours {@link Block#setWidowOrphanLines(int, int) widows and orphans}, it fills a few lines ahead to count them, and may push lines back.
+ * These counters show how much of that extra filling there is.
+ */
+public final class PaginationCounters { 
+
+	private static final AtomicLong keepBacktrackCount = new AtomicLong(); 
+
+	private static final AtomicLong keepRevertedBlockCount = new AtomicLong(); 
+
+	private static final AtomicLong widowOrphanCount = new AtomicLong(); 
+
+	private static final AtomicLong widowOrphanRevertedLineCount = new AtomicLong(); 
+
+	private static final AtomicLong lookaheadLineCount = new AtomicLong(); 
+
+	private PaginationCounters() {}
+
+	/**
+	 * Records that a frame pushed back blocks for keep control.
+	 * @param revertedBlockCount How many of the frame's children were pushed back, to be filled again.
+	 */
+	public static void addKeepBacktrack(int revertedBlockCount) { 
+		keepBacktrackCount.incrementAndGet(); 
+		keepRevertedBlockCount.addAndGet(revertedBlockCount); 
+	}
+
+	/**
+	 * Records that a paragraph pushed back lines for widow or orphan control.
+	 * @param revertedLineCount How many lines were pushed back, to be filled again.
+	 */
+	public static void addWidowOrphan(int revertedLineCount) { 
+		widowOrphanCount.incrementAndGet(); 
+		widowOrphanRevertedLineCount.addAndGet(revertedLineCount); 
+	}
+
+	/**
+	 * Records lines filled ahead, to count the widows, and then pushed back.
+	 */
+	public static void addLookaheadLines(int lineCount) { 
+		lookaheadLineCount.addAndGet(lineCount); 
+	}
+
+	/**
+	 * Number of times a frame pushed back blocks for keep-with-next or keep-together.
+	 */
+	public static long getKeepBacktrackCount() { 
+		return keepBacktrackCount.get(); 
+	}
+
+	/**
+	 * Number of blocks pushed back for keep-with-next or keep-together, each of which is filled again.
+	 */
+	public static long getKeepRevertedBlockCount() { 
+		return keepRevertedBlockCount.get(); 
+	}
+
+	/**
+	 * Number of times a paragraph pushed back lines for widow or orphan control.
+	 */
+	public static long getWidowOrphanCount() { 
+		return widowOrphanCount.get(); 
+	}
+
+	/**
+	 * Number of lines pushed back for widow or orphan control, each of which is filled again.
+	 */
+	public static long getWidowOrphanRevertedLineCount() { 
+		return widowOrphanRevertedLineCount.get(); 
+	}
+
+	/**
+	 * Number of lines filled ahead to count widows, each of which is filled again.
+	 */
+	public static long getLookaheadLineCount() { 
+		return lookaheadLineCount.get(); 
+	}
+
+	/**
+	 * Zeroes the counters.
+	 */
+	public static void reset() { 
+		keepBacktrackCount.set(0); 
+		keepRevertedBlockCount.set(0); 
+		widowOrphanCount.set(0); 
+		widowOrphanRevertedLineCount.set(0); 
+		lookaheadLineCount.set(0); 
+	}
+
+	/**
+	 * Returns the counts, on one line.
+	 */
+	public static String describe() { 
+		return "PaginationCounters: "+getKeepBacktrackCount()+" keep backtracks reverting "+getKeepRevertedBlockCount()+" blocks, "
+				+getWidowOrphanCount()+" widow/orphan adjustments reverting "+getWidowOrphanRevertedLineCount()+" lines, "
+				+getLookaheadLineCount()+" lookahead lines" ; 
+	}
+
+}
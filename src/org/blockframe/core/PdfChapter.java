@@ -1,14 +1,20 @@
 package org.blockframe.core;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
+import org.apache.fontbox.ttf.TrueTypeFont;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
 import org.blockframe.blocks.FrameVertical;
 import org.blockframe.core.Block.PlacedBlock;
+import org.blockframe.core.BlockPipe.BlockSource;
 import org.blockframe.core.DebugLog.StringGetter;
 import org.blockframe.core.DebugLog.Verbosity;
+import org.blockframe.core.Quill.FontFamily;
 import org.blockframe.examples.H_PageFrame;
 
 
@@ -44,9 +50,21 @@ public class PdfChapter implements Verbosity {
 	 */
 	private Integer maxPageCount = 1000 ; 
 	
+	/**
+	 * TrueType fonts already loaded into {@link #pdDocument}, so each is embedded only once. 
+	 */
+	private final Map<TrueTypeFont,PDType0Font> loadedFonts = new HashMap<TrueTypeFont,PDType0Font>(); 
+	
+	/**
+	 * Counts the distinct quills of this chapter's pages and blocks. See {@link #getDistinctQuillCount()}. 
+	 */
+	private final Quill.Counter quillCounter = new Quill.Counter(); 
+	
 	/**
 	 * Constructor. 
 	 * @param pdDocument The PDF-Box document we are writing to. 
+	 * This may be <code>null</code> if {@link #newCanvas(PDPage)} is overridden to return a canvas which doesn't write a PDF, such as {@link CountingCanvas}. 
+	 * The pages are then laid out and drawn, but not added to any document. 
 	 */
 	protected PdfChapter(PDDocument pdDocument) { 
 		this.pdDocument = pdDocument ; 
@@ -107,12 +125,13 @@ public class PdfChapter implements Verbosity {
 		pipe.writer.close(); 
 		while (pipe.reader.hasMore()) { 
 			PDPage pdPage = new PDPage(); 
-			pdDocument.addPage(pdPage); 
+			if (pdDocument!=null) pdDocument.addPage(pdPage); 
 			Page prevPage = currentPage;
 			this.currentPage = null ; 
 			Page newPage = newPage(pipe, pdPage, prevPage); 
 			this.currentPage = newPage ; 
-			Canvas canvas = new Canvas(pdDocument, pdPage); 
+			Canvas canvas = newCanvas(pdPage); 
+			canvas.setQuillCounter(quillCounter); 
 			PlacedBlock placedPageBlock = fillPageFrame(newPage); 
 			placedPageBlock.setOffsetInContainer(leftMargin, topMargin); 
 			drawPageFrame(canvas, placedPageBlock.getLeftInContainer(), placedPageBlock.getTopInContainer(), placedPageBlock); 
@@ -129,6 +148,15 @@ public class PdfChapter implements Verbosity {
 		pipe.writer.write(block); 
 	}
 
+	/**
+	 * Adds the blocks made by the source, after those already written, as {@link #makePages()} reaches them. 
+	 * Use this for long documents, such as a {@link org.blockframe.blocks.MarkdownSource} reading a large file, so the whole document is never in memory. 
+	 * Nothing can be written after the source. 
+	 */
+	public void write(BlockSource source) { 
+		pipe.writer.write(source); 
+	}
+
 	/**
 	 * Returns the {@link Page} that we are currently writing to. 
 	 * This exposes the top-level frame, and the {@link Layout} and {@link Quill} passed into the top-level frame. 
@@ -156,6 +184,14 @@ public class PdfChapter implements Verbosity {
 		return pageCount ; 
 	}
 	
+	/**
+	 * Returns the number of distinct {@link Quill} styles used by this chapter so far: by its pages, and by the blocks drawn by {@link #makePages()}. 
+	 * Quills which are equal count once, so this is the number of font, size, colour and kerning combinations in use. 
+	 */
+	public int getDistinctQuillCount() { 
+		return quillCounter.getCount(); 
+	}
+	
 	/**
 	 * Setter for field {@link #maxPageCount}. 
 	 */
@@ -195,6 +231,7 @@ public class PdfChapter implements Verbosity {
 		if (frame.pipe!=pipe) throw new RuntimeException("Top level frame must use BlockPipe from newPageFrame() arguments. Have you called 'super(pipe)'?"); 
 		Layout layout = newPageLayout(pdPage, prevPage); 
 		Quill quill = newPageQuill(prevPage);
+		quillCounter.add(quill); 
 		Page page = new Page(frame, layout, quill); 
 		incrementPageCount(); 
 		DebugLog.add(DETAIL_8, frame, null, logMessage_newPage, page, null, false); 
@@ -225,10 +262,59 @@ public class PdfChapter implements Verbosity {
 	}
 	
 	/**
-	 * Creates the {@link Quill} object for a new page. 
+	 * Returns the font loaded into this chapter's document, loading it the first time. 
+	 * Only the glyphs used are embedded, when the document is saved. 
+	 * <p>
+	 * Parse the font with {@link EmbeddedFonts}, so a batch of documents parses it only once. 
+	 * The returned font belongs to this chapter's document, and should not be used in any other. 
+	 */
+	public PDType0Font loadFont(TrueTypeFont trueTypeFont) throws IOException { 
+		PDType0Font font = loadedFonts.get(trueTypeFont); 
+		if (font==null) { 
+			if (pdDocument==null) throw new IllegalStateException("Chapter has no document to load fonts into."); 
+			font = PDType0Font.load(pdDocument, trueTypeFont, true); 
+			loadedFonts.put(trueTypeFont, font); 
+		}
+		return font ; 
+	}
+	
+	/**
+	 * Returns a {@link FontFamily} of fonts loaded with {@link #loadFont(TrueTypeFont)}. 
+	 * Null styles default to the plain font, and bold-italic to bold. 
+	 * <p>
+	 * Use the family in {@link #newPageQuill(Page)}, for example <code>return super.newPageQuill(prevPage).copy(family, null, null)</code>. 
+	 */
+	public FontFamily loadFontFamily(TrueTypeFont plain, TrueTypeFont bold, TrueTypeFont italic, TrueTypeFont boldItalic) throws IOException { 
+		return new FontFamily(loadFont(plain), 
+				(bold!=null) ? loadFont(bold) : null, 
+				(italic!=null) ? loadFont(italic) : null, 
+				(boldItalic!=null) ? loadFont(boldItalic) : null); 
+	}
+	
+	/**
+	 * Returns the {@link Quill} object for a new page. 
+	 * <p>
+	 * By default, this is {@link Quill#getDefault()}, shared by all pages. 
+	 * It is frozen, so subclasses should return a copy, such as <code>super.newPageQuill(prevPage).copy(Color.BLUE)</code>. 
+	 * <p>
+	 * This is a change from earlier versions, which returned a new {@linkplain Quill} for each page. 
+	 * Overrides which modify the quill from <code>super.newPageQuill(prevPage)</code> with its setters, such as {@link Quill#setColor(java.awt.Color)}, 
+	 * now throw {@link IllegalStateException}. That pattern is deprecated: replace each setter with the matching copy method, 
+	 * or, if the fields really must be set one by one, call the setters on <code>super.newPageQuill(prevPage).copyUnshared()</code>. 
+	 * An unshared quill doesn't remember its copies, so blocks which change the style make new quills on every fill. 
 	 */
 	public Quill newPageQuill(Page prevPage) { 
-		return new Quill(); 
+		return Quill.getDefault(); 
+	}
+	
+	/**
+	 * Creates the {@link Canvas} to draw a page on. 
+	 * <p>
+	 * This method is called by {@link #makePages()}, which closes the canvas after drawing. 
+	 * Override it to draw somewhere other than the PDF-Box page. For example, a {@link CountingCanvas} measures drawing without writing a PDF. 
+	 */
+	protected Canvas newCanvas(PDPage pdPage) throws IOException { 
+		return new Canvas(pdDocument, pdPage); 
 	}
 	
 	/**
@@ -39,7 +39,7 @@ public class PdfOverlay {
 		Layout pageSpec = templateSpec.copyAndSetSize(page); 
 		Frame pageFrame = new FrameVertical(pipe); // TODO Code method to supply a list of rectangles (which may be over-ridden). Return a frame which fills the rectangles in turn. 
 		Canvas canvas = new Canvas(document, page); 
-		Quill quill = new Quill(); 
+		Quill quill = Quill.getDefault(); 
 		PlacedBlock placedBlock = pageFrame.fill(quill, pageSpec); 
 		pageFrame.draw(canvas, placedBlock.getLeftInContainer(), placedBlock.getTopInContainer(), placedBlock.getWidth(), placedBlock.getHeight()); 
 		canvas.close(); 
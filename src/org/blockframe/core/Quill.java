@@ -2,6 +2,11 @@ package org.blockframe.core;
 
 import java.awt.Color;
 import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
@@ -15,6 +20,14 @@ import org.apache.pdfbox.pdmodel.font.PDType1Font;
  * <p>
  * Each block should store a copy of the {@linkplain Quill} instance for use in the later {@link Block#draw(Canvas, double, double, double, double)} traversal. 
  * <p>
+ * The copy methods return interned instances: copying with the same changes returns the same, frozen, {@linkplain Quill}. 
+ * So quills can be compared by identity, as in {@link Frame#getHorizontalGap(Quill)}, and repeated copies allocate nothing. 
+ * <p>
+ * The setters, and {@link FontMgr#adjust(FontFamily, FontStyle, Float)}, are deprecated. 
+ * On a frozen quill they throw {@link IllegalStateException}, as the quill is shared. 
+ * To change a quill, use the copy method for the change, such as {@link #copy(Color)} or {@link #copy(FontFamily, FontStyle, Float)}. 
+ * Code which must set fields one by one should do so on a quill from {@link #copyUnshared()}, which is never frozen. 
+ * <p>
  * PDF-Box has a standard set of fonts: see "https://pdfbox.apache.org/1.8/cookbook/workingwithfonts.html".
  */
 public class Quill {
@@ -39,6 +52,46 @@ public class Quill {
 	
 	private Color color ; 
 	
+	/**
+	 * Whether text is kerned, when measured and drawn. See {@link Kerning}. 
+	 */
+	private boolean isKerning = false ; 
+	
+	/**
+	 * Whether this is an interned instance, which may not be modified. 
+	 */
+	private boolean isFrozen = false ; 
+	
+	/**
+	 * Copies already made of this quill, if it is frozen. 
+	 * The copies are interned, so racing threads can only ever write the same instance. 
+	 */
+	private volatile Quill plainCopy, boldCopy, italicCopy, boldItalicCopy, sizeCopy, colorCopy, kerningCopy ; 
+	
+	/**
+	 * Copies already made of this quill by {@link #copy(TextStyle)}, if it is frozen, as style and copy pairs. 
+	 * Replaced whole when a pair is added, so racing threads see matching pairs. 
+	 * At most {@link #MAX_STYLE_COPIES} are kept: once there are that many, adding one drops the oldest. 
+	 */
+	private volatile Object[] styleCopies ; 
+	
+	private static final int MAX_STYLE_COPIES = 64 ; 
+	
+	/**
+	 * The interned quills, held weakly, so a quill no block or style uses any more can be collected. 
+	 */
+	private static final ConcurrentHashMap<Key,InternedRef> internedQuills = new ConcurrentHashMap<Key,InternedRef>(); 
+	
+	/**
+	 * Where the references to collected quills are queued, to be removed from {@link #internedQuills}. 
+	 */
+	private static final ReferenceQueue<Quill> collectedQuills = new ReferenceQueue<Quill>(); 
+	
+	/**
+	 * The interned quill with the default font and no colour. 
+	 */
+	private static final Quill DEFAULT_QUILL = intern(new Quill()); 
+	
 	Quill() { 
 		setFont(); 
 	}
@@ -51,6 +104,7 @@ public class Quill {
 		this.fontSize = old.fontSize ; 
 		this.fontMgr = new FontMgr(old.fontMgr); 
 		this.color = old.color ; 
+		this.isKerning = old.isKerning ; 
 	}
 	
 	/**
@@ -60,38 +114,99 @@ public class Quill {
 	 */
 	public Quill copy(FontFamily family, FontStyle style, Float size) { 
 		Quill quill = new Quill(this); 
-		quill.font = this.font ; 
-		quill.fontSize = this.fontSize ; 
-		quill.fontMgr = new FontMgr(this.fontMgr).adjust(family, style, size); 
+		quill.fontMgr.adjust(family, style, size); 
 		quill.setFont(); 
-		return quill ; 
+		return intern(quill); 
 	}
 	
 	/**
-	 * Creates a copy instance, and modifies {@link #fontMgr}. 
+	 * Returns the interned copy, modifying {@link #fontMgr}. 
+	 */
+	public Quill copyPlain() { 
+		Quill quill = plainCopy ; 
+		if (quill==null) quill = copyStyle(PLAIN); 
+		if (isFrozen) plainCopy = quill ; 
+		return quill ; 
+	} 
+	
+	/**
+	 * Returns the interned copy, modifying {@link #fontMgr}. 
+	 */
+	public Quill copyBold() { 
+		Quill quill = boldCopy ; 
+		if (quill==null) quill = copyStyle(BOLD); 
+		if (isFrozen) boldCopy = quill ; 
+		return quill ; 
+	} 
+	
+	/**
+	 * Returns the interned copy, modifying {@link #fontMgr}. 
+	 */
+	public Quill copyItalic() { 
+		Quill quill = italicCopy ; 
+		if (quill==null) quill = copyStyle(ITALIC); 
+		if (isFrozen) italicCopy = quill ; 
+		return quill ; 
+	} 
+	
+	/**
+	 * Returns the interned copy, modifying {@link #fontMgr}. 
 	 */
-	public Quill copyPlain() { Quill quill = new Quill(this); quill.fontMgr.style = PLAIN ; quill.setFont(); return quill ; } 
+	public Quill copyBoldItalic() { 
+		Quill quill = boldItalicCopy ; 
+		if (quill==null) quill = copyStyle(BOLD_ITALIC); 
+		if (isFrozen) boldItalicCopy = quill ; 
+		return quill ; 
+	} 
+	
+	private Quill copyStyle(FontStyle style) { 
+		Quill quill = new Quill(this); 
+		quill.fontMgr.style = style ; 
+		quill.setFont(); 
+		return intern(quill); 
+	}
 	
 	/**
-	 * Creates a copy instance, and modifies {@link #fontMgr}. 
+	 * Returns the interned copy, modifying the font size. 
+	 * The most recent size is remembered, as blocks usually ask for the same size each time. 
 	 */
-	public Quill copyBold() { Quill quill = new Quill(this); quill.fontMgr.style = BOLD ; quill.setFont(); return quill ; } 
+	public Quill copySize(float newSize) { 
+		Quill quill = sizeCopy ; 
+		if (quill!=null && quill.fontMgr.size==newSize) return quill ; 
+		quill = new Quill(this); 
+		quill.fontMgr.size = newSize ; 
+		quill.setFont(); 
+		quill = intern(quill); 
+		if (isFrozen) sizeCopy = quill ; 
+		return quill ; 
+	} 
 	
 	/**
-	 * Creates a copy instance, and modifies {@link #fontMgr}. 
+	 * Returns a copy which is not interned, and so may be modified. 
 	 */
-	public Quill copyItalic() { Quill quill = new Quill(this); quill.fontMgr.style = ITALIC ; quill.setFont(); return quill ; } 
+	public Quill copyUnshared() { 
+		return new Quill(this); 
+	}
 	
 	/**
-	 * Creates a copy instance, and modifies {@link #fontMgr}. 
+	 * Returns the interned quill with the default font, size and colour. 
 	 */
-	public Quill copyBoldItalic() { Quill quill = new Quill(this); quill.fontMgr.style = BOLD_ITALIC ; quill.setFont(); return quill ; } 
+	public static Quill getDefault() { 
+		return DEFAULT_QUILL ; 
+	}
 	
 	/**
-	 * Creates a copy instance, and modifies the font size. 
+	 * Whether this quill is interned, and so may not be modified. 
 	 */
-	public Quill copySize(float newSize) { Quill quill = new Quill(this); quill.fontMgr.size = newSize ; quill.setFont(); return quill ; } 
+	public boolean isFrozen() { 
+		return isFrozen ; 
+	}
 	
+	private void checkNotFrozen() { 
+		if (isFrozen) throw new IllegalStateException("Quill is interned, and may not be modified. Use copyUnshared() for a modifiable copy."); 
+	}
+	
+
 	public PDFont getFont() {
 		return font;
 	}
@@ -99,8 +214,11 @@ public class Quill {
 	/**
 	 * Sets the font, ignoring whatever is in {@link #fontMgr}. 
 	 * Usually, client code would use {@link #fontMgr}. 
+	 * @deprecated Throws on a frozen quill. Use {@link #copy(FontFamily, FontStyle, Float)} with a family of the font, or call this on a quill from {@link #copyUnshared()}. 
 	 */
+	@Deprecated
 	public void setFont(PDFont font) { 
+		checkNotFrozen(); 
 		this.font = font;
 	}
 	
@@ -111,15 +229,21 @@ public class Quill {
 	/**
 	 * Sets the font size, ignoring whatever is in {@link #fontMgr}. 
 	 * Usually, client code would use {@link #fontMgr}. 
+	 * @deprecated Throws on a frozen quill. Use {@link #copySize(float)}, or call this on a quill from {@link #copyUnshared()}. 
 	 */
+	@Deprecated
 	public void setFontSize(float fontSize) {
+		checkNotFrozen(); 
 		this.fontSize = fontSize;
 	}
 	
 	/**
 	 * Sets {@link #font} and {@link #fontSize} from {@link #fontMgr}. 
+	 * @deprecated Throws on a frozen quill. The copy methods set the font themselves. Call this only on a quill from {@link #copyUnshared()}. 
 	 */
+	@Deprecated
 	public void setFont() { 
+		checkNotFrozen(); 
 		this.font = fontMgr.family.getStyleFont(fontMgr.style); 
 		this.fontSize = fontMgr.size ; 
 	}
@@ -128,26 +252,295 @@ public class Quill {
 		return color;
 	}
 
+	/**
+	 * @deprecated Throws on a frozen quill. Use {@link #copy(Color)}, or call this on a quill from {@link #copyUnshared()}. 
+	 */
+	@Deprecated
 	public void setColor(Color color) {
+		checkNotFrozen(); 
 		this.color = color;
 	}
 
+	/**
+	 * Returns the interned copy, with the given colour. 
+	 * The most recent colour is remembered, as blocks usually ask for the same colour each time. 
+	 */
 	public Quill copy(Color color) { 
-		Quill quill = new Quill(this); 
+		Quill quill = colorCopy ; 
+		if (quill!=null && (color==null ? quill.color==null : color.equals(quill.color))) return quill ; 
+		quill = new Quill(this); 
 		quill.color = color ; 
+		quill = intern(quill); 
+		if (isFrozen) colorCopy = quill ; 
+		return quill ; 
+	}
+	
+	/**
+	 * Returns the interned copy, with the font family, style, size and colour changed as the text style says. 
+	 * A frozen quill remembers the copies made from it, so applying the same style to it again creates nothing. 
+	 */
+	public Quill copy(TextStyle textStyle) { 
+		Object[] copies = styleCopies ; 
+		if (copies!=null) { 
+			for (int i=0 ; i<copies.length ; i+=2) { 
+				if (textStyle.equals(copies[i])) return (Quill) copies[i+1] ; 
+			}
+		}
+		Quill quill = new Quill(this); 
+		quill.fontMgr.adjust(textStyle.family, textStyle.style, textStyle.size); 
+		quill.setFont(); 
+		if (textStyle.color!=null) quill.color = textStyle.color ; 
+		quill = intern(quill); 
+		if (isFrozen) { 
+			int n = (copies==null) ? 0 : copies.length ; 
+			int dropped = (n==2*MAX_STYLE_COPIES) ? 2 : 0 ; 
+			Object[] added = new Object[n-dropped+2] ; 
+			if (n>0) System.arraycopy(copies, dropped, added, 0, n-dropped); 
+			added[n-dropped] = textStyle ; 
+			added[n-dropped+1] = quill ; 
+			styleCopies = added ; 
+		}
+		return quill ; 
+	}
+	
+	public boolean isKerning() { 
+		return isKerning ; 
+	}
+	
+	/**
+	 * @deprecated Throws on a frozen quill. Use {@link #copyKerning(boolean)}, or call this on a quill from {@link #copyUnshared()}. 
+	 */
+	@Deprecated
+	public void setKerning(boolean isKerning) { 
+		checkNotFrozen(); 
+		this.isKerning = isKerning ; 
+	}
+	
+	/**
+	 * Returns the interned copy, with kerning on or off. 
+	 */
+	public Quill copyKerning(boolean isKerning) { 
+		if (isKerning==this.isKerning) return isFrozen ? this : intern(new Quill(this)); 
+		Quill quill = kerningCopy ; 
+		if (quill==null) { 
+			quill = new Quill(this); 
+			quill.isKerning = isKerning ; 
+			quill = intern(quill); 
+			if (isFrozen) kerningCopy = quill ; 
+		}
 		return quill ; 
 	}
 	
+	//////  Interning 
+	
+	/**
+	 * Returns the interned quill equal to the given one. If there is none, freezes the given quill and interns it. 
+	 * <p>
+	 * Quills with an embedded font are frozen, but not interned, because the font belongs to one document. 
+	 * Interning them would keep every document of a long batch in memory. 
+	 * <p>
+	 * The table holds quills weakly, so it only grows with the quills in use. A quill collected and asked for again is interned afresh, 
+	 * which is safe, as nothing is left to compare the old instance with. 
+	 */
+	private static Quill intern(Quill quill) { 
+		if (quill.font.isEmbedded()) { 
+			quill.isFrozen = true ; 
+			quill.fontMgr.isFrozen = true ; 
+			return quill ; 
+		}
+		purgeCollected(); 
+		Key key = new Key(quill); 
+		quill.isFrozen = true ; 
+		quill.fontMgr.isFrozen = true ; 
+		while (true) { 
+			InternedRef ref = internedQuills.get(key); 
+			Quill interned = (ref!=null) ? ref.get() : null ; 
+			if (interned!=null) return interned ; 
+			InternedRef newRef = new InternedRef(key, quill); 
+			if (ref==null) { 
+				if (internedQuills.putIfAbsent(key, newRef)==null) return quill ; 
+			} else { 
+				if (internedQuills.replace(key, ref, newRef)) return quill ; 
+			}
+		}
+	}
+	
+	/**
+	 * Removes the entries of quills which have been collected. 
+	 */
+	private static void purgeCollected() { 
+		InternedRef ref ; 
+		while ((ref=(InternedRef) collectedQuills.poll())!=null) internedQuills.remove(ref.key, ref); 
+	}
+	
+	/**
+	 * A weak reference to an interned quill, knowing its key, so its entry can be removed once the quill is collected. 
+	 */
+	private static final class InternedRef extends WeakReference<Quill> { 
+		private final Key key ; 
+		InternedRef(Key key, Quill quill) { 
+			super(quill, collectedQuills); 
+			this.key = key ; 
+		}
+	}
+	
+	/**
+	 * Counts the distinct quills seen, such as those used by one document (see {@link PdfChapter#getDistinctQuillCount()}). 
+	 * <p>
+	 * Quills are told apart by the same fields as in interning, so equal quills count once, even if they are separate instances, 
+	 * as quills with embedded fonts are. 
+	 * A counter is not thread-safe: it belongs to one document, which is made on one thread. 
+	 */
+	public static final class Counter { 
+		/** Every instance seen, so a quill seen before is recognised without building its key. */
+		private final IdentityHashMap<Quill,Boolean> seenQuills = new IdentityHashMap<Quill,Boolean>(); 
+		private final HashSet<Key> distinctKeys = new HashSet<Key>(); 
+		/** Consecutive blocks usually have the same quill, so it is checked first. */
+		private Quill lastQuill ; 
+		public void add(Quill quill) { 
+			if (quill==lastQuill || quill==null) return ; 
+			this.lastQuill = quill ; 
+			if (seenQuills.put(quill, Boolean.TRUE)==null) distinctKeys.add(new Key(quill)); 
+		}
+		public int getCount() { 
+			return distinctKeys.size(); 
+		}
+	}
+	
+	/**
+	 * The fields which distinguish quills. Fonts, families and styles are compared by identity. 
+	 */
+	private static final class Key { 
+		private final PDFont font ; 
+		private final float fontSize ; 
+		private final FontFamily family ; 
+		private final FontStyle style ; 
+		private final float mgrSize ; 
+		private final Color color ; 
+		private final boolean isKerning ; 
+		Key(Quill quill) { 
+			this.font = quill.font ; 
+			this.fontSize = quill.fontSize ; 
+			this.family = quill.fontMgr.family ; 
+			this.style = quill.fontMgr.style ; 
+			this.mgrSize = quill.fontMgr.size ; 
+			this.color = quill.color ; 
+			this.isKerning = quill.isKerning ; 
+		}
+		@Override
+		public int hashCode() { 
+			int hash = System.identityHashCode(font) ; 
+			hash = hash*31 + Float.floatToIntBits(fontSize) ; 
+			hash = hash*31 + System.identityHashCode(family) ; 
+			hash = hash*31 + System.identityHashCode(style) ; 
+			hash = hash*31 + Float.floatToIntBits(mgrSize) ; 
+			hash = hash*31 + (color!=null ? color.hashCode() : 0) ; 
+			hash = hash*2 + (isKerning ? 1 : 0) ; 
+			return hash ; 
+		}
+		@Override
+		public boolean equals(Object obj) { 
+			if (!(obj instanceof Key)) return false ; 
+			Key other = (Key) obj ; 
+			return font==other.font && Float.floatToIntBits(fontSize)==Float.floatToIntBits(other.fontSize) 
+					&& family==other.family && style==other.style && Float.floatToIntBits(mgrSize)==Float.floatToIntBits(other.mgrSize) 
+					&& (color==null ? other.color==null : color.equals(other.color)) && isKerning==other.isKerning ; 
+		}
+	}
+	
+	/**
+	 * Returns the width of the text in this quill's font, kerned if this quill {@link #isKerning()}. 
+	 */
 	public double getStringWidth(String str) throws IOException { 
-		return getStringWidth(str, font, fontSize); 
+		return getStringWidth(str, font, fontSize, isKerning); 
 	}
 	
+	/**
+	 * Returns the width of the text in the font. 
+	 * <p>
+	 * The Standard-14 fonts are measured from a {@link GlyphWidths} table. 
+	 * Other fonts, and text the table doesn't cover, are measured through the shared {@link WordWidthCache}. 
+	 */
 	public static double getStringWidth(String text, PDFont font, float fontSize) throws IOException {
-		return font.getStringWidth(text) / 1000 * fontSize;
+		GlyphWidths table = GlyphWidths.get(font); 
+		float width = (table!=null) ? table.getStringWidth(text) : Float.NaN ; 
+		if (Float.isNaN(width)) width = WordWidthCache.getShared().getStringWidth(text, font); 
+		return width / 1000 * fontSize;
+	}
+	
+	/**
+	 * Returns the width of the text in the font, optionally with the {@link Kerning} adjustments between its characters. 
+	 * The Standard-14 fonts sum the widths and adjustments in one pass over the text. 
+	 */
+	public static double getStringWidth(String text, PDFont font, float fontSize, boolean isKerning) throws IOException {
+		if (!isKerning) return getStringWidth(text, font, fontSize); 
+		Kerning kerning = Kerning.get(font); 
+		GlyphWidths table = GlyphWidths.get(font); 
+		float width = (table!=null) ? table.getStringWidth(text, kerning) : Float.NaN ; 
+		if (Float.isNaN(width)) width = WordWidthCache.getShared().getStringWidth(text, font) + kerning.getStringAdjustment(text); 
+		return width / 1000 * fontSize;
 	}
 
+	/**
+	 * Measures many words in one call, such as all the words of a paragraph, into <code>widths</code>. 
+	 * Word <code>i</code> is the characters from <code>starts[i]</code> up to <code>ends[i]</code>. 
+	 * <p>
+	 * The results are identical to calling {@link #getStringWidth(String)} on each word, but for the Standard-14 fonts, 
+	 * the words are summed in one loop over the {@link GlyphWidths} table, with no strings made and no calls per word. 
+	 * Other fonts, and words the table doesn't cover, are measured word by word. 
+	 */
+	public void measureWords(char[] chars, int[] starts, int[] ends, int wordCount, double[] widths) throws IOException { 
+		measureWords(chars, starts, ends, 0, wordCount, widths); 
+	}
+	
+	/**
+	 * As {@link #measureWords(char[], int[], int[], int, double[])}, but only measures words <code>fromWord</code> up to <code>toWord</code>. 
+	 * Useful when runs of words are in different quills. 
+	 */
+	public void measureWords(char[] chars, int[] starts, int[] ends, int fromWord, int toWord, double[] widths) throws IOException { 
+		GlyphWidths table = GlyphWidths.get(font); 
+		Kerning kerning = isKerning ? Kerning.get(font) : null ; 
+		if (table!=null) table.getWordWidths(chars, starts, ends, fromWord, toWord, kerning, widths); 
+		for (int w=fromWord ; w<toWord ; w++) { 
+			/* The table leaves glyph units, as floats, so this is the same arithmetic as getStringWidth. */
+			float width = (table!=null) ? (float) widths[w] : Float.NaN ; 
+			if (Float.isNaN(width)) { 
+				widths[w] = getStringWidth(new String(chars, starts[w], ends[w]-starts[w]), font, fontSize, isKerning); 
+			} else { 
+				widths[w] = width / 1000 * fontSize ; 
+			}
+		}
+	}
+	
+	/**
+	 * As {@link #measureWords(char[], int[], int[], int, double[])}, reading the characters from the text, without copying it into an array. 
+	 */
+	public void measureWords(CharSequence text, int[] starts, int[] ends, int wordCount, double[] widths) throws IOException { 
+		GlyphWidths table = GlyphWidths.get(font); 
+		Kerning kerning = isKerning ? Kerning.get(font) : null ; 
+		if (table!=null) table.getWordWidths(text, starts, ends, 0, wordCount, kerning, widths); 
+		for (int w=0 ; w<wordCount ; w++) { 
+			float width = (table!=null) ? (float) widths[w] : Float.NaN ; 
+			if (Float.isNaN(width)) { 
+				widths[w] = getStringWidth(text.subSequence(starts[w], ends[w]).toString(), font, fontSize, isKerning); 
+			} else { 
+				widths[w] = width / 1000 * fontSize ; 
+			}
+		}
+	}
+	
 	public double getFontHeight() { 
-		return font.getFontDescriptor().getFontBoundingBox().getHeight() / 1000 * fontSize ; 
+		return getFontHeight(font, fontSize); 
+	}
+	
+	/**
+	 * Returns the height of the font's bounding box, at the given size. 
+	 * The Standard-14 fonts take this from their {@link GlyphWidths} table, other fonts from their descriptor. 
+	 */
+	public static double getFontHeight(PDFont font, float fontSize) { 
+		GlyphWidths table = GlyphWidths.get(font); 
+		float height = (table!=null) ? table.getBoundingBoxHeight() : font.getFontDescriptor().getFontBoundingBox().getHeight() ; 
+		return height / 1000 * fontSize ; 
 	}
 	
 	// TODO The FontMgr, FontFamily and FontStyle classes should extend Layout.NamedConstant. . 
@@ -159,6 +552,8 @@ public class Quill {
 		private FontFamily family ; 
 		private FontStyle style ; 
 		private float size ; 
+		/** Whether this belongs to a frozen {@link Quill}. */
+		private boolean isFrozen = false ; 
 		FontMgr() { 
 			this.family = DEFAULT_FONT_FAMILY ; 
 			this.style = DEFAULT_FONT_STYLE ; 
@@ -169,7 +564,12 @@ public class Quill {
 			this.style = templateFont.style ; 
 			this.size = templateFont.size ; 
 		}
+		/**
+		 * @deprecated Throws if the quill is frozen. Use {@link Quill#copy(FontFamily, FontStyle, Float)}, or adjust the manager of a quill from {@link Quill#copyUnshared()}, then call its {@link Quill#setFont()}. 
+		 */
+		@Deprecated
 		public FontMgr adjust(FontFamily family, FontStyle style, Float size) { 
+			if (isFrozen) throw new IllegalStateException("FontMgr belongs to an interned quill, and may not be modified."); 
 			if (family!=null) this.family = family ; 
 			if (style!=null) this.style = style ; 
 			if (size!=null) this.size = size ; 
@@ -179,17 +579,24 @@ public class Quill {
 	
 	/**
 	 * Font-family information needed by {@link FontMgr}. 
+	 * <p>
+	 * The fonts may be any {@link PDFont}. Fonts embedded in a document, such as the TrueType fonts from {@link PdfChapter#loadFontFamily(org.apache.fontbox.ttf.TrueTypeFont, org.apache.fontbox.ttf.TrueTypeFont, org.apache.fontbox.ttf.TrueTypeFont, org.apache.fontbox.ttf.TrueTypeFont)}, 
+	 * belong to that document, so their family should only be used in that document. 
 	 */
 	public static class FontFamily { 
-		public final PDType1Font plain ; 
-		public final PDType1Font bold ; 
-		public final PDType1Font italic ; 
-		public final PDType1Font boldItalic ; 
-		FontFamily(PDType1Font plain, PDType1Font bold, PDType1Font italic, PDType1Font boldItalic) {
+		public final PDFont plain ; 
+		public final PDFont bold ; 
+		public final PDFont italic ; 
+		public final PDFont boldItalic ; 
+		/**
+		 * Null styles default to the plain font. 
+		 */
+		public FontFamily(PDFont plain, PDFont bold, PDFont italic, PDFont boldItalic) {
+			if (plain==null) throw new IllegalArgumentException("Argument 'plain' should not be null"); 
 			this.plain = plain ; 
-			this.bold = bold ; 
-			this.italic = italic ; 
-			this.boldItalic = boldItalic ; 
+			this.bold = (bold!=null) ? bold : plain ; 
+			this.italic = (italic!=null) ? italic : plain ; 
+			this.boldItalic = (boldItalic!=null) ? boldItalic : this.bold ; 
 		}
 		public PDFont getStyleFont(FontStyle style) {
 			if (style==Quill.PLAIN) return plain ; 
@@ -206,5 +613,80 @@ public class Quill {
 	 * The default implementation of {@link FontFamily} understands four different styles: plain, bold, italic, bold-italic. 
 	 */
 	public static class FontStyle {} 
+	
+	/**
+	 * Changes to a quill's font family, style, size and colour, such as for a span of text in a {@link org.blockframe.blocks.ParagraphBlock}. 
+	 * Null fields leave the quill's own unchanged. 
+	 * <p>
+	 * Instances are immutable, and may be shared between paragraphs and threads. 
+	 * Each is resolved against a quill by {@link Quill#copy(TextStyle)}, which the quill remembers, so a paragraph's styles are resolved once, not on every fill. 
+	 */
+	public static final class TextStyle { 
+		
+		public static final TextStyle PLAIN = new TextStyle(null, Quill.PLAIN, null, null); 
+		public static final TextStyle BOLD = new TextStyle(null, Quill.BOLD, null, null); 
+		public static final TextStyle ITALIC = new TextStyle(null, Quill.ITALIC, null, null); 
+		public static final TextStyle BOLD_ITALIC = new TextStyle(null, Quill.BOLD_ITALIC, null, null); 
+		
+		public final FontFamily family ; 
+		public final FontStyle style ; 
+		public final Float size ; 
+		public final Color color ; 
+		
+		public TextStyle(FontFamily family, FontStyle style, Float size, Color color) { 
+			this.family = family ; 
+			this.style = style ; 
+			this.size = size ; 
+			this.color = color ; 
+		}
+		
+		/**
+		 * Returns the constant for one of the four standard styles, or a new instance for any other. Null for null. 
+		 */
+		public static TextStyle get(FontStyle style) { 
+			if (style==null) return null ; 
+			if (style==Quill.PLAIN) return PLAIN ; 
+			if (style==Quill.BOLD) return BOLD ; 
+			if (style==Quill.ITALIC) return ITALIC ; 
+			if (style==Quill.BOLD_ITALIC) return BOLD_ITALIC ; 
+			return new TextStyle(null, style, null, null); 
+		}
+		
+		/**
+		 * Returns a style with the same changes as this, but also the given size. 
+		 */
+		public TextStyle withSize(float size) { 
+			return new TextStyle(family, style, size, color); 
+		}
+		
+		/**
+		 * Returns a style with the same changes as this, but also the given colour. 
+		 */
+		public TextStyle withColor(Color color) { 
+			return new TextStyle(family, style, size, color); 
+		}
+		
+		/**
+		 * Families and styles are compared by identity, as in the quill's interning. 
+		 */
+		@Override
+		public boolean equals(Object obj) { 
+			if (obj==this) return true ; 
+			if (!(obj instanceof TextStyle)) return false ; 
+			TextStyle other = (TextStyle) obj ; 
+			return family==other.family && style==other.style 
+					&& (size==null ? other.size==null : size.equals(other.size)) 
+					&& (color==null ? other.color==null : color.equals(other.color)) ; 
+		}
+		
+		@Override
+		public int hashCode() { 
+			int hash = System.identityHashCode(family) ; 
+			hash = hash*31 + System.identityHashCode(style) ; 
+			hash = hash*31 + (size!=null ? size.hashCode() : 0) ; 
+			hash = hash*31 + (color!=null ? color.hashCode() : 0) ; 
+			return hash ; 
+		}
+	}
 
 }
@@ -0,0 +1,301 @@
+package org.blockframe.core;
+
+
+/**
+ * Metrics of the Standard-14 fonts, so {@link GlyphWidths} can build its tables without asking PDF-Box.
+ * <p>
+ * Generated by <code>Standard14MetricsGenerator</code>, in the test sources. Do not edit.
+ */
+final class Standard14Metrics {
+
+	static final int TABLE_SIZE = 256 ;
+
+	/** Marks a character the font's encoding doesn't have. */
+	static final char NO_GLYPH = 0xffff ;
+
+	static final String[] NAMES = {
+		"Times-Roman",
+		"Times-Bold",
+		"Times-Italic",
+		"Times-BoldItalic",
+		"Helvetica",
+		"Helvetica-Bold",
+		"Helvetica-Oblique",
+		"Helvetica-BoldOblique",
+		"Courier",
+		"Courier-Bold",
+		"Courier-Oblique",
+		"Courier-BoldOblique",
+		"Symbol",
+		"ZapfDingbats",
+	};
+
+	/** Width of each character from 0 to 255, in glyph units, one string per font. */
+	static final String[] WIDTHS = {
+		/* Times-Roman */
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\u00fa\u014d\u0198\u01f4\u01f4\u0341\u030a\u00b4\u014d\u014d\u01f4\u0234\u00fa\u014d\u00fa\u0116" +
+		"\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u0116\u0116\u0234\u0234\u0234\u01bc" +
+		"\u0399\u02d2\u029b\u029b\u02d2\u0263\u022c\u02d2\u02d2\u014d\u0185\u02d2\u0263\u0379\u02d2\u02d2" +
+		"\u022c\u02d2\u029b\u022c\u0263\u02d2\u02d2\u03b0\u02d2\u02d2\u0263\u014d\u0116\u014d\u01d5\u01f4" +
+		"\u014d\u01bc\u01f4\u01bc\u01f4\u01bc\u014d\u01f4\u01f4\u0116\u0116\u01f4\u0116\u030a\u01f4\u01f4" +
+		"\u01f4\u01f4\u014d\u0185\u0116\u01f4\u01f4\u02d2\u01f4\u01f4\u01bc\u01e0\u00c8\u01e0\u021d\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\u014d\u01f4\u01f4\u01f4\u01f4\u00c8\u01f4\u014d\u02f8\u0114\u01f4\u0234\uffff\u02f8\u014d" +
+		"\u0190\u0234\u012c\u012c\u014d\u01f4\u01c5\uffff\u014d\u012c\u0136\u01f4\u02ee\u02ee\u02ee\u01bc" +
+		"\u02d2\u02d2\u02d2\u02d2\u02d2\u02d2\u0379\u029b\u0263\u0263\u0263\u0263\u014d\u014d\u014d\u014d" +
+		"\u02d2\u02d2\u02d2\u02d2\u02d2\u02d2\u02d2\u0234\u02d2\u02d2\u02d2\u02d2\u02d2\u02d2\u022c\u01f4" +
+		"\u01bc\u01bc\u01bc\u01bc\u01bc\u01bc\u029b\u01bc\u01bc\u01bc\u01bc\u01bc\u0116\u0116\u0116\u0116" +
+		"\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u0234\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4",
+		/* Times-Bold */
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\u00fa\u014d\u022b\u01f4\u01f4\u03e8\u0341\u0116\u014d\u014d\u01f4\u023a\u00fa\u014d\u00fa\u0116" +
+		"\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u014d\u014d\u023a\u023a\u023a\u01f4" +
+		"\u03a2\u02d2\u029b\u02d2\u02d2\u029b\u0263\u030a\u030a\u0185\u01f4\u030a\u029b\u03b0\u02d2\u030a" +
+		"\u0263\u030a\u02d2\u022c\u029b\u02d2\u02d2\u03e8\u02d2\u02d2\u029b\u014d\u0116\u014d\u0245\u01f4" +
+		"\u014d\u01f4\u022c\u01bc\u022c\u01bc\u014d\u01f4\u022c\u0116\u014d\u022c\u0116\u0341\u022c\u01f4" +
+		"\u022c\u022c\u01bc\u0185\u014d\u022c\u01f4\u02d2\u01f4\u01f4\u01bc\u018a\u00dc\u018a\u0208\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\u014d\u01f4\u01f4\u01f4\u01f4\u00dc\u01f4\u014d\u02eb\u012c\u01f4\u023a\uffff\u02eb\u014d" +
+		"\u0190\u023a\u012c\u012c\u014d\u022c\u021c\uffff\u014d\u012c\u014a\u01f4\u02ee\u02ee\u02ee\u01f4" +
+		"\u02d2\u02d2\u02d2\u02d2\u02d2\u02d2\u03e8\u02d2\u029b\u029b\u029b\u029b\u0185\u0185\u0185\u0185" +
+		"\u02d2\u02d2\u030a\u030a\u030a\u030a\u030a\u023a\u030a\u02d2\u02d2\u02d2\u02d2\u02d2\u0263\u022c" +
+		"\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u02d2\u01bc\u01bc\u01bc\u01bc\u01bc\u0116\u0116\u0116\u0116" +
+		"\u01f4\u022c\u01f4\u01f4\u01f4\u01f4\u01f4\u023a\u01f4\u022c\u022c\u022c\u022c\u01f4\u022c\u01f4",
+		/* Times-Italic */
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\u00fa\u014d\u01a4\u01f4\u01f4\u0341\u030a\u00d6\u014d\u014d\u01f4\u02a3\u00fa\u014d\u00fa\u0116" +
+		"\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u014d\u014d\u02a3\u02a3\u02a3\u01f4" +
+		"\u0398\u0263\u0263\u029b\u02d2\u0263\u0263\u02d2\u02d2\u014d\u01bc\u029b\u022c\u0341\u029b\u02d2" +
+		"\u0263\u02d2\u0263\u01f4\u022c\u02d2\u0263\u0341\u0263\u022c\u022c\u0185\u0116\u0185\u01a6\u01f4" +
+		"\u014d\u01f4\u01f4\u01bc\u01f4\u01bc\u0116\u01f4\u01f4\u0116\u0116\u01bc\u0116\u02d2\u01f4\u01f4" +
+		"\u01f4\u01f4\u0185\u0185\u0116\u01f4\u01bc\u029b\u01bc\u01bc\u0185\u0190\u0113\u0190\u021d\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\u0185\u01f4\u01f4\u01f4\u01f4\u0113\u01f4\u014d\u02f8\u0114\u01f4\u02a3\uffff\u02f8\u014d" +
+		"\u0190\u02a3\u012c\u012c\u014d\u01f4\u020b\uffff\u014d\u012c\u0136\u01f4\u02ee\u02ee\u02ee\u01f4" +
+		"\u0263\u0263\u0263\u0263\u0263\u0263\u0379\u029b\u0263\u0263\u0263\u0263\u014d\u014d\u014d\u014d" +
+		"\u02d2\u029b\u02d2\u02d2\u02d2\u02d2\u02d2\u02a3\u02d2\u02d2\u02d2\u02d2\u02d2\u022c\u0263\u01f4" +
+		"\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u029b\u01bc\u01bc\u01bc\u01bc\u01bc\u0116\u0116\u0116\u0116" +
+		"\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u02a3\u01f4\u01f4\u01f4\u01f4\u01f4\u01bc\u01f4\u01bc",
+		/* Times-BoldItalic */
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\u00fa\u0185\u022b\u01f4\u01f4\u0341\u030a\u0116\u014d\u014d\u01f4\u023a\u00fa\u014d\u00fa\u0116" +
+		"\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u014d\u014d\u023a\u023a\u023a\u01f4" +
+		"\u0340\u029b\u029b\u029b\u02d2\u029b\u029b\u02d2\u030a\u0185\u01f4\u029b\u0263\u0379\u02d2\u02d2" +
+		"\u0263\u02d2\u029b\u022c\u0263\u02d2\u029b\u0379\u029b\u0263\u0263\u014d\u0116\u014d\u023a\u01f4" +
+		"\u014d\u01f4\u01f4\u01bc\u01f4\u01bc\u014d\u01f4\u022c\u0116\u0116\u01f4\u0116\u030a\u022c\u01f4" +
+		"\u01f4\u01f4\u0185\u0185\u0116\u022c\u01bc\u029b\u01f4\u01bc\u0185\u015c\u00dc\u015c\u023a\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\u0185\u01f4\u01f4\u01f4\u01f4\u00dc\u01f4\u014d\u02eb\u010a\u01f4\u025e\uffff\u02eb\u014d" +
+		"\u0190\u023a\u012c\u012c\u014d\u0240\u01f4\uffff\u014d\u012c\u012c\u01f4\u02ee\u02ee\u02ee\u01f4" +
+		"\u029b\u029b\u029b\u029b\u029b\u029b\u03b0\u029b\u029b\u029b\u029b\u029b\u0185\u0185\u0185\u0185" +
+		"\u02d2\u02d2\u02d2\u02d2\u02d2\u02d2\u02d2\u023a\u02d2\u02d2\u02d2\u02d2\u02d2\u0263\u0263\u01f4" +
+		"\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u02d2\u01bc\u01bc\u01bc\u01bc\u01bc\u0116\u0116\u0116\u0116" +
+		"\u01f4\u022c\u01f4\u01f4\u01f4\u01f4\u01f4\u023a\u01f4\u022c\u022c\u022c\u022c\u01bc\u01f4\u01bc",
+		/* Helvetica */
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\u0116\u0116\u0163\u022c\u022c\u0379\u029b\u00bf\u014d\u014d\u0185\u0248\u0116\u014d\u0116\u0116" +
+		"\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u0116\u0116\u0248\u0248\u0248\u022c" +
+		"\u03f7\u029b\u029b\u02d2\u02d2\u029b\u0263\u030a\u02d2\u0116\u01f4\u029b\u022c\u0341\u02d2\u030a" +
+		"\u029b\u030a\u02d2\u029b\u0263\u02d2\u029b\u03b0\u029b\u029b\u0263\u0116\u0116\u0116\u01d5\u022c" +
+		"\u014d\u022c\u022c\u01f4\u022c\u022c\u0116\u022c\u022c\u00de\u00de\u01f4\u00de\u0341\u022c\u022c" +
+		"\u022c\u022c\u014d\u01f4\u0116\u022c\u01f4\u02d2\u01f4\u01f4\u01f4\u014e\u0104\u014e\u0248\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\u014d\u022c\u022c\u022c\u022c\u0104\u022c\u014d\u02e1\u0172\u022c\u0248\uffff\u02e1\u014d" +
+		"\u0190\u0248\u014d\u014d\u014d\u022c\u0219\uffff\u014d\u014d\u016d\u022c\u0342\u0342\u0342\u0263" +
+		"\u029b\u029b\u029b\u029b\u029b\u029b\u03e8\u02d2\u029b\u029b\u029b\u029b\u0116\u0116\u0116\u0116" +
+		"\u02d2\u02d2\u030a\u030a\u030a\u030a\u030a\u0248\u030a\u02d2\u02d2\u02d2\u02d2\u029b\u029b\u0263" +
+		"\u022c\u022c\u022c\u022c\u022c\u022c\u0379\u01f4\u022c\u022c\u022c\u022c\u0116\u0116\u0116\u0116" +
+		"\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u0248\u0263\u022c\u022c\u022c\u022c\u01f4\u022c\u01f4",
+		/* Helvetica-Bold */
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\u0116\u014d\u01da\u022c\u022c\u0379\u02d2\u00ee\u014d\u014d\u0185\u0248\u0116\u014d\u0116\u0116" +
+		"\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u014d\u014d\u0248\u0248\u0248\u0263" +
+		"\u03cf\u02d2\u02d2\u02d2\u02d2\u029b\u0263\u030a\u02d2\u0116\u022c\u02d2\u0263\u0341\u02d2\u030a" +
+		"\u029b\u030a\u02d2\u029b\u0263\u02d2\u029b\u03b0\u029b\u029b\u0263\u014d\u0116\u014d\u0248\u022c" +
+		"\u014d\u022c\u0263\u022c\u0263\u022c\u014d\u0263\u0263\u0116\u0116\u022c\u0116\u0379\u0263\u0263" +
+		"\u0263\u0263\u0185\u022c\u014d\u0263\u022c\u030a\u022c\u022c\u01f4\u0185\u0118\u0185\u0248\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\u014d\u022c\u022c\u022c\u022c\u0118\u022c\u014d\u02e1\u0172\u022c\u0248\uffff\u02e1\u014d" +
+		"\u0190\u0248\u014d\u014d\u014d\u0263\u022c\uffff\u014d\u014d\u016d\u022c\u0342\u0342\u0342\u0263" +
+		"\u02d2\u02d2\u02d2\u02d2\u02d2\u02d2\u03e8\u02d2\u029b\u029b\u029b\u029b\u0116\u0116\u0116\u0116" +
+		"\u02d2\u02d2\u030a\u030a\u030a\u030a\u030a\u0248\u030a\u02d2\u02d2\u02d2\u02d2\u029b\u029b\u0263" +
+		"\u022c\u022c\u022c\u022c\u022c\u022c\u0379\u022c\u022c\u022c\u022c\u022c\u0116\u0116\u0116\u0116" +
+		"\u0263\u0263\u0263\u0263\u0263\u0263\u0263\u0248\u0263\u0263\u0263\u0263\u0263\u022c\u0263\u022c",
+		/* Helvetica-Oblique */
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\u0116\u0116\u0163\u022c\u022c\u0379\u029b\u00bf\u014d\u014d\u0185\u0248\u0116\u014d\u0116\u0116" +
+		"\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u0116\u0116\u0248\u0248\u0248\u022c" +
+		"\u03f7\u029b\u029b\u02d2\u02d2\u029b\u0263\u030a\u02d2\u0116\u01f4\u029b\u022c\u0341\u02d2\u030a" +
+		"\u029b\u030a\u02d2\u029b\u0263\u02d2\u029b\u03b0\u029b\u029b\u0263\u0116\u0116\u0116\u01d5\u022c" +
+		"\u014d\u022c\u022c\u01f4\u022c\u022c\u0116\u022c\u022c\u00de\u00de\u01f4\u00de\u0341\u022c\u022c" +
+		"\u022c\u022c\u014d\u01f4\u0116\u022c\u01f4\u02d2\u01f4\u01f4\u01f4\u014e\u0104\u014e\u0248\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\u014d\u022c\u022c\u022c\u022c\u0104\u022c\u014d\u02e1\u0172\u022c\u0248\uffff\u02e1\u014d" +
+		"\u0190\u0248\u014d\u014d\u014d\u022c\u0219\uffff\u014d\u014d\u016d\u022c\u0342\u0342\u0342\u0263" +
+		"\u029b\u029b\u029b\u029b\u029b\u029b\u03e8\u02d2\u029b\u029b\u029b\u029b\u0116\u0116\u0116\u0116" +
+		"\u02d2\u02d2\u030a\u030a\u030a\u030a\u030a\u0248\u030a\u02d2\u02d2\u02d2\u02d2\u029b\u029b\u0263" +
+		"\u022c\u022c\u022c\u022c\u022c\u022c\u0379\u01f4\u022c\u022c\u022c\u022c\u0116\u0116\u0116\u0116" +
+		"\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u0248\u0263\u022c\u022c\u022c\u022c\u01f4\u022c\u01f4",
+		/* Helvetica-BoldOblique */
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\u0116\u014d\u01da\u022c\u022c\u0379\u02d2\u00ee\u014d\u014d\u0185\u0248\u0116\u014d\u0116\u0116" +
+		"\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u022c\u014d\u014d\u0248\u0248\u0248\u0263" +
+		"\u03cf\u02d2\u02d2\u02d2\u02d2\u029b\u0263\u030a\u02d2\u0116\u022c\u02d2\u0263\u0341\u02d2\u030a" +
+		"\u029b\u030a\u02d2\u029b\u0263\u02d2\u029b\u03b0\u029b\u029b\u0263\u014d\u0116\u014d\u0248\u022c" +
+		"\u014d\u022c\u0263\u022c\u0263\u022c\u014d\u0263\u0263\u0116\u0116\u022c\u0116\u0379\u0263\u0263" +
+		"\u0263\u0263\u0185\u022c\u014d\u0263\u022c\u030a\u022c\u022c\u01f4\u0185\u0118\u0185\u0248\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\u014d\u022c\u022c\u022c\u022c\u0118\u022c\u014d\u02e1\u0172\u022c\u0248\uffff\u02e1\u014d" +
+		"\u0190\u0248\u014d\u014d\u014d\u0263\u022c\uffff\u014d\u014d\u016d\u022c\u0342\u0342\u0342\u0263" +
+		"\u02d2\u02d2\u02d2\u02d2\u02d2\u02d2\u03e8\u02d2\u029b\u029b\u029b\u029b\u0116\u0116\u0116\u0116" +
+		"\u02d2\u02d2\u030a\u030a\u030a\u030a\u030a\u0248\u030a\u02d2\u02d2\u02d2\u02d2\u029b\u029b\u0263" +
+		"\u022c\u022c\u022c\u022c\u022c\u022c\u0379\u022c\u022c\u022c\u022c\u022c\u0116\u0116\u0116\u0116" +
+		"\u0263\u0263\u0263\u0263\u0263\u0263\u0263\u0248\u0263\u0263\u0263\u0263\u0263\u022c\u0263\u022c",
+		/* Courier */
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\uffff\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\uffff\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258",
+		/* Courier-Bold */
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\uffff\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\uffff\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258",
+		/* Courier-Oblique */
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\uffff\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\uffff\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258",
+		/* Courier-BoldOblique */
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\uffff\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\uffff\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258" +
+		"\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258\u0258",
+		/* Symbol */
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\u00fa\u014d\u0000\u01f4\u0000\u0341\u030a\u0000\u014d\u014d\u0000\u0225\u00fa\u0000\u00fa\u0116" +
+		"\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u01f4\u0116\u0116\u0225\u0225\u0225\u01bc" +
+		"\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000" +
+		"\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u014d\u0000\u014d\u0000\u01f4" +
+		"\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000" +
+		"\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u01e0\u00c8\u01e0\u0000\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u02c9\uffff\u0000\u0000" +
+		"\u0190\u0225\u0000\u0000\u0000\u0240\u0000\uffff\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000" +
+		"\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000" +
+		"\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0225\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000" +
+		"\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000" +
+		"\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0225\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000",
+		/* ZapfDingbats */
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff" +
+		"\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff\uffff",
+	};
+
+	/** Font bounding box (lower-left x and y, upper-right x and y), ascent and descent, in glyph units. */
+	static final float[][] BOUNDS = {
+		{ -168.0f, -218.0f, 1000.0f, 898.0f, 683.0f, -217.0f }, // Times-Roman
+		{ -168.0f, -218.0f, 1000.0f, 935.0f, 683.0f, -217.0f }, // Times-Bold
+		{ -169.0f, -217.0f, 1010.0f, 883.0f, 683.0f, -217.0f }, // Times-Italic
+		{ -200.0f, -218.0f, 996.0f, 921.0f, 683.0f, -217.0f }, // Times-BoldItalic
+		{ -166.0f, -225.0f, 1000.0f, 931.0f, 718.0f, -207.0f }, // Helvetica
+		{ -170.0f, -228.0f, 1003.0f, 962.0f, 718.0f, -207.0f }, // Helvetica-Bold
+		{ -170.0f, -225.0f, 1116.0f, 931.0f, 718.0f, -207.0f }, // Helvetica-Oblique
+		{ -174.0f, -228.0f, 1114.0f, 962.0f, 718.0f, -207.0f }, // Helvetica-BoldOblique
+		{ -23.0f, -250.0f, 715.0f, 805.0f, 629.0f, -157.0f }, // Courier
+		{ -113.0f, -250.0f, 749.0f, 801.0f, 629.0f, -157.0f }, // Courier-Bold
+		{ -27.0f, -250.0f, 849.0f, 805.0f, 629.0f, -157.0f }, // Courier-Oblique
+		{ -57.0f, -250.0f, 869.0f, 801.0f, 629.0f, -157.0f }, // Courier-BoldOblique
+		{ -180.0f, -293.0f, 1090.0f, 1010.0f, 0.0f, 0.0f }, // Symbol
+		{ -1.0f, -143.0f, 981.0f, 820.0f, 0.0f, 0.0f }, // ZapfDingbats
+	};
+
+	/**
+	 * Returns the index of the font in {@link #NAMES}, or -1.
+	 */
+	static int indexOf(String fontName) {
+		for (int i=0 ; i<NAMES.length ; i++) if (NAMES[i].equals(fontName)) return i ;
+		return -1 ;
+	}
+
+}
@@ -0,0 +1,143 @@
+package org.blockframe.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.blockframe.blocks.FrameHorizontal;
+import org.blockframe.blocks.FrameReading;
+import org.blockframe.blocks.SpacerHeight;
+import org.blockframe.blocks.SpacerWidth;
+import org.blockframe.blocks.StringBlock;
+import org.blockframe.blocks.StringBlockBold;
+import org.blockframe.blocks.TableBlock;
+import org.blockframe.core.Quill.FontFamily;
+
+
+/**
+ * Primes BlockFrame, so that the first real document isn't slowed by loading classes and fonts, and by code not yet compiled.
+ * <p>
+ * Short-lived programs can call {@link #warmUp()} at start-up, perhaps on a background thread while they read their input.
+ * It takes about a second, most of it PDF-Box loading the metrics of the Standard-14 fonts and finding system fonts to draw them with.
+ * <p>
+ * The warm-up:
+ * <ul>
+ * <li>Builds the {@link GlyphWidths} table of every font in {@link Quill#TIMES_ROMAN}, {@link Quill#HELVETICA} and {@link Quill#COURIER},
+ * and measures the printable ASCII characters, so PDF-Box checks them.</li>
+ * <li>Lays out and draws a small document of paragraphs, rows and a table several times, onto a {@link CountingCanvas}, so the fill and draw methods are compiled.</li>
+ * <li>Writes the same document once with PDF-Box, to a stream which discards it.</li>
+ * </ul>
+ * It uses no files, and leaves nothing behind except the shared caches it fills.
+ */
+public final class WarmUp {
+
+	public static final int DEFAULT_DOCUMENT_COUNT = 20 ;
+
+	private static final String SAMPLE_TEXT ;
+	static {
+		StringBuilder sample = new StringBuilder();
+		for (char c=' ' ; c<='~' ; c++) sample.append(c);
+		SAMPLE_TEXT = sample.toString();
+	}
+
+	private static final String[] SAMPLE_WORDS = { "The", "quick", "brown", "fox", "jumps", "over", "the", "lazy", "dog,", "and", "then", "sleeps." };
+
+	private WarmUp() {}
+
+	/**
+	 * Warms up with {@link #DEFAULT_DOCUMENT_COUNT} documents.
+	 *
+	 * @return The time taken, in nanoseconds.
+	 */
+	public static long warmUp() throws IOException {
+		return warmUp(DEFAULT_DOCUMENT_COUNT);
+	}
+
+	/**
+	 * Primes the fonts, then lays out and draws <code>documentCount</code> documents, then writes one with PDF-Box.
+	 *
+	 * @return The time taken, in nanoseconds.
+	 */
+	public static long warmUp(int documentCount) throws IOException {
+		long start = System.nanoTime();
+		primeFonts();
+		for (int i=0 ; i<documentCount ; i++) new WarmUpDocument(true).makePagesAndClose();
+		WarmUpDocument document = new WarmUpDocument(false);
+		document.makePagesAndClose();
+		return System.nanoTime() - start ;
+	}
+
+	/**
+	 * Builds the {@link GlyphWidths} tables of the fonts in the {@link Quill} font families.
+	 */
+	public static void primeFonts() {
+		for (FontFamily family : new FontFamily[] { Quill.TIMES_ROMAN, Quill.HELVETICA, Quill.COURIER }) {
+			for (PDFont font : new PDFont[] { family.plain, family.bold, family.italic, family.boldItalic }) {
+				GlyphWidths table = GlyphWidths.get(font);
+				if (table!=null) table.getStringWidth(SAMPLE_TEXT);
+				font.getFontDescriptor();
+			}
+		}
+	}
+
+	/**
+	 * A document exercising the common blocks.
+	 */
+	private static class WarmUpDocument extends PdfDocument {
+
+		private final boolean isLayoutOnly ;
+
+		private final CountingCanvas.Tally tally = new CountingCanvas.Tally();
+
+		WarmUpDocument(boolean isLayoutOnly) {
+			this.isLayoutOnly = isLayoutOnly ;
+			for (int p=0 ; p<30 ; p++) {
+				Frame paragraph = new FrameReading();
+				paragraph.write(new SpacerWidth("W"));
+				for (int w=0 ; w<50 ; w++) paragraph.write((w%10==0) ? new StringBlockBold(SAMPLE_WORDS[(p+w)%SAMPLE_WORDS.length]) : new StringBlock(SAMPLE_WORDS[(p+w)%SAMPLE_WORDS.length]));
+				write(paragraph);
+				write(new SpacerHeight(true, 0.5));
+				if (p%10==0) {
+					Frame row = new FrameHorizontal();
+					for (int w=0 ; w<5 ; w++) row.write(new StringBlock(SAMPLE_WORDS[w]));
+					write(row);
+					write(new WarmUpTable());
+				}
+			}
+		}
+
+		@Override
+		protected Canvas newCanvas(PDPage pdPage) throws IOException {
+			if (isLayoutOnly) return new CountingCanvas(pdPage.getMediaBox().getHeight(), tally);
+			return super.newCanvas(pdPage);
+		}
+
+		void makePagesAndClose() throws IOException {
+			makePages();
+			if (!isLayoutOnly) {
+				pdDocument.save(new OutputStream() {
+					@Override
+					public void write(int b) {}
+					@Override
+					public void write(byte[] b, int off, int len) {}
+				});
+			}
+			pdDocument.close();
+		}
+	}
+
+	/**
+	 * A small table of words.
+	 */
+	private static class WarmUpTable extends TableBlock {
+		WarmUpTable() {
+			super(5, 4);
+		}
+		@Override
+		protected Block getCellBlock(int row, int column) {
+			return new StringBlock(SAMPLE_WORDS[(row+column)%SAMPLE_WORDS.length]);
+		}
+	}
+
+}
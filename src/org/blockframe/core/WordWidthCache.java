@@ -0,0 +1,261 @@
+package org.blockframe.core;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.pdmodel.font.PDCIDFont;
+import org.apache.pdfbox.pdmodel.font.PDCIDFontType2;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+
+
+/**
+ * Bounded cache of the widths of words, shared by all blocks, documents and threads.
+ * <p>
+ * Widths are stored in glyph units (thousandths of the font size), keyed by font and text.
+ * Widths scale exactly with font size, so one entry serves every size of the font.
+ * A TrueType font loaded into several documents is keyed by its parsed font program, so all the documents share its entries.
+ * See {@link EmbeddedFonts}.
+ * Fonts are held weakly, as in {@link Kerning}: an embedded font refers to its document, which should be collectable once the document is finished.
+ * Entries for a collected font are dropped the next time their stripe stores a word.
+ * <p>
+ * The cache is split into stripes, each with its own lock, so threads building separate documents rarely wait for each other.
+ * Each stripe evicts its own entries when it is full, either the least recently used, or the oldest.
+ * Looking up a word already in the cache allocates nothing.
+ * <p>
+ * {@link Quill#getStringWidth(String, PDFont, float)} uses the {@link #getShared() shared} instance for fonts which don't have a {@link GlyphWidths} table.
+ * Those fonts are measured by PDF-Box, which is slow. The Standard-14 fonts are measured from their table, which is quicker than any cache lookup.
+ */
+public final class WordWidthCache { 
+
+	public static final int DEFAULT_CAPACITY = 65536 ; 
+
+	private static final int STRIPE_COUNT = 16 ; 
+
+	private static volatile WordWidthCache shared = new WordWidthCache(DEFAULT_CAPACITY, true); 
+
+	private final Stripe[] stripes = new Stripe[STRIPE_COUNT] ; 
+
+	public final int capacity ; 
+
+	public final boolean isLeastRecentlyUsed ; 
+
+	/**
+	 * @param capacity The most entries to hold. Each stripe holds an equal share.
+	 * @param isLeastRecentlyUsed Whether a full stripe evicts its least recently used entry. Otherwise, it evicts its oldest entry.
+	 */
+	public WordWidthCache(int capacity, boolean isLeastRecentlyUsed) { 
+		if (capacity<STRIPE_COUNT) throw new IllegalArgumentException("Capacity must be at least "+STRIPE_COUNT); 
+		this.capacity = capacity ; 
+		this.isLeastRecentlyUsed = isLeastRecentlyUsed ; 
+		for (int i=0 ; i<STRIPE_COUNT ; i++) stripes[i] = new Stripe(capacity/STRIPE_COUNT, isLeastRecentlyUsed); 
+	}
+
+	/**
+	 * Returns the cache shared by all {@link Quill} instances.
+	 */
+	public static WordWidthCache getShared() { 
+		return shared ; 
+	}
+
+	/**
+	 * Replaces the shared cache. For example, to change the capacity or eviction policy.
+	 */
+	public static void setShared(WordWidthCache cache) { 
+		if (cache==null) throw new IllegalArgumentException("Argument 'cache' should not be null"); 
+		shared = cache ; 
+	}
+
+	/**
+	 * Returns the width of the text in glyph units, measuring and caching it if it isn't already cached.
+	 */
+	public float getStringWidth(String text, PDFont font) throws IOException { 
+		Object fontKey = getFontKey(font); 
+		Stripe stripe = stripes[(text.hashCode() ^ System.identityHashCode(fontKey)) & (STRIPE_COUNT-1)] ; 
+		synchronized (stripe) { 
+			stripe.probe.font = fontKey ; 
+			stripe.probe.text = text ; 
+			Float width = stripe.get(stripe.probe); 
+			stripe.probe.font = null ; 
+			stripe.probe.text = null ; 
+			if (width!=null) { 
+				stripe.hitCount ++ ; 
+				return width ; 
+			}
+			stripe.missCount ++ ; 
+		}
+		/* Measure outside the lock: PDF-Box may be slow. Another thread may measure the same word meanwhile, which is harmless. */
+		float width = GlyphWidths.getStringWidth(text, font); 
+		synchronized (stripe) { 
+			stripe.expungeCollectedFonts(); 
+			stripe.put(new Key(fontKey, text, stripe.collectedKeys), width); 
+		}
+		return width ; 
+	}
+
+	/**
+	 * Returns the object whose identity distinguishes the font's widths.
+	 * For a {@link PDType0Font} with TrueType outlines, this is the parsed font program, which may be shared by many documents.
+	 */
+	static Object getFontKey(PDFont font) { 
+		if (font instanceof PDType0Font) { 
+			PDCIDFont descendant = ((PDType0Font) font).getDescendantFont(); 
+			if (descendant instanceof PDCIDFontType2) { 
+				TrueTypeFont trueTypeFont = ((PDCIDFontType2) descendant).getTrueTypeFont(); 
+				if (trueTypeFont!=null) return trueTypeFont ; 
+			}
+		}
+		return font ; 
+	}
+
+	/**
+	 * Number of lookups which found the word in the cache.
+	 */
+	public long getHitCount() { 
+		long count = 0 ; 
+		for (Stripe stripe : stripes) synchronized (stripe) { count += stripe.hitCount ; }
+		return count ; 
+	}
+
+	/**
+	 * Number of lookups which had to measure the word.
+	 */
+	public long getMissCount() { 
+		long count = 0 ; 
+		for (Stripe stripe : stripes) synchronized (stripe) { count += stripe.missCount ; }
+		return count ; 
+	}
+
+	/**
+	 * Number of entries currently cached.
+	 */
+	public int size() { 
+		int size = 0 ; 
+		for (Stripe stripe : stripes) synchronized (stripe) { size += stripe.size(); }
+		return size ; 
+	}
+
+	/**
+	 * Removes all entries, and zeroes the counters.
+	 */
+	public void clear() { 
+		for (Stripe stripe : stripes) { 
+			synchronized (stripe) { 
+				stripe.clear(); 
+				stripe.hitCount = 0 ; 
+				stripe.missCount = 0 ; 
+			}
+		}
+	}
+
+	@Override
+	public String toString() { 
+		return "WordWidthCache: "+size()+"/"+capacity+" entries, "+getHitCount()+" hits, "+getMissCount()+" misses" ; 
+	}
+
+	/**
+	 * One lock's share of the cache. Fields are guarded by the stripe itself.
+	 */
+	@SuppressWarnings("serial")
+	private static final class Stripe extends LinkedHashMap<Key,Float> { 
+
+		private final int stripeCapacity ; 
+
+		/**
+		 * Reused for lookups, so a hit doesn't allocate a key.
+		 */
+		final Probe probe = new Probe(); 
+
+		/**
+		 * Keys whose fonts have been collected. Their entries can never be found again.
+		 */
+		final ReferenceQueue<Object> collectedKeys = new ReferenceQueue<Object>(); 
+
+		long hitCount ; 
+
+		long missCount ; 
+
+		Stripe(int stripeCapacity, boolean isAccessOrder) { 
+			super(16, 0.75f, isAccessOrder); 
+			this.stripeCapacity = stripeCapacity ; 
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key,Float> eldest) { 
+			return size()>stripeCapacity ; 
+		}
+
+		void expungeCollectedFonts() { 
+			Reference<?> key ; 
+			while ((key = collectedKeys.poll())!=null) remove(key); 
+		}
+	}
+
+	/**
+	 * A font and text, as stored in a stripe. The key is a weak reference to the font, so the cache doesn't keep a finished document alive.
+	 * Fonts are compared by identity, as PDF-Box compares them by their dictionaries.
+	 * The font is the key from {@link WordWidthCache#getFontKey(PDFont)}.
+	 */
+	private static final class Key extends WeakReference<Object> { 
+
+		final String text ; 
+
+		/**
+		 * Computed while the font is alive, so the key can still be found and removed after the font is collected.
+		 */
+		private final int hash ; 
+
+		Key(Object font, String text, ReferenceQueue<Object> queue) { 
+			super(font, queue); 
+			this.text = text ; 
+			this.hash = hash(font, text); 
+		}
+
+		static int hash(Object font, String text) { 
+			return text.hashCode() * 31 + System.identityHashCode(font); 
+		}
+
+		@Override
+		public int hashCode() { 
+			return hash ; 
+		}
+
+		@Override
+		public boolean equals(Object obj) { 
+			if (obj==this) return true ; 
+			if (!(obj instanceof Key)) return false ; 
+			Key other = (Key) obj ; 
+			Object font = get(); 
+			return font!=null && font==other.get() && text.equals(other.text); 
+		}
+	}
+
+	/**
+	 * A font and text being looked up. Holds the font strongly, but only for the duration of the lookup.
+	 * Equal to a {@link Key} for the same font and text, though not the other way round. {@link LinkedHashMap#get(Object)} asks the probe.
+	 */
+	private static final class Probe { 
+
+		Object font ; 
+
+		String text ; 
+
+		@Override
+		public int hashCode() { 
+			return Key.hash(font, text); 
+		}
+
+		@Override
+		public boolean equals(Object obj) { 
+			if (!(obj instanceof Key)) return false ; 
+			Key key = (Key) obj ; 
+			return font==key.get() && text.equals(key.text); 
+		}
+	}
+
+}
@@ -10,11 +10,13 @@ import java.util.Random;
 
 import org.blockframe.blocks.FrameHorizontal;
 import org.blockframe.blocks.FrameReading;
+import org.blockframe.blocks.ParagraphBlock;
 import org.blockframe.blocks.StringBlock;
 import org.blockframe.core.Block;
 import org.blockframe.core.DebugLog;
 import org.blockframe.core.PdfDocument;
 import org.blockframe.core.Quill;
+import org.blockframe.core.Quill.TextStyle;
 import org.blockframe.core.BlockPipe.BlockWriter;
 
 
@@ -38,12 +40,23 @@ public class E_Quill extends PdfDocument {
 		 * To give a block different font or colour properties to its container, you should override the 'inheritQuill' method, and pass in a copied-and-modified Quill instance. 
 		 * 
 		 * The Quill class has many convenience methods to create a copy of an instance and edit specific fields. 
+		 * The copies are shared, so they may not be modified afterwards: make each change with a copy method, as below. 
 		 */
 		
 		write(new LineFrame()); 
 		write(new BlueLineFrame()); 
 		write(new GrayLineFrame()); 
 
+		/*
+		 * Styles can also be mixed within one ParagraphBlock, without a subclass for each styled word. 
+		 * The text is appended in spans, each with a TextStyle, which changes the paragraph's quill for that span. 
+		 */
+		write(new ParagraphBlock("Hello")
+				.append("Hello", TextStyle.ITALIC)
+				.append("Hello", TextStyle.PLAIN.withSize(18))
+				.append("Hello", TextStyle.PLAIN.withColor(Color.RED))
+				.append("Hello", new TextStyle(Quill.HELVETICA, null, null, null))); 
+
 		File file = new File(UtilsForExamples.getExamplesDir(), getClass().getSimpleName()+".pdf"); 
 		writeFile(file); 
 		DebugLog.out(); 
@@ -73,7 +73,7 @@ public class H_PageFrame extends PdfDocument {
 	 * The custom {@link Frame} subclass to hold the top-level content of a page. 
 	 * We configure this {@link PdfDocument} to use this class by overriding the {@link PdfChapter#newPageFrame(BlockPipe, Page)} method. 
 	 */
-	static class TwoColumnFrame extends Frame { 
+	public static class TwoColumnFrame extends Frame { 
 		
 		final Frame leftFrame ; 
 		
@@ -88,7 +88,7 @@ public class H_PageFrame extends PdfDocument {
 		 */
 		double rightFrameLeftEdge ; 
 		
-		TwoColumnFrame(BlockPipe pipe) { 
+		public TwoColumnFrame(BlockPipe pipe) { 
 			super(pipe); 
 			this.leftFrame = new FrameVertical(pipe); 
 			this.rightFrame = new FrameVertical(pipe); 
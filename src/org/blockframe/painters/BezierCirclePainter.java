@@ -48,10 +48,10 @@ public class BezierCirclePainter extends PathPainter {
 		float bezier2Y = centreY + verticalBezierFactor * verticalSignedRadius ; 
 		if (verticalSignedRadius*horizontalSignedRadius>0) { 
 			/* Here we know: this is a top-right or bottom-left quadrant. Clockwise starts at the vertical-extreme and horizontal-centre. */
-			stream.curveTo(bezier1X, extremeY, extremeX, bezier2Y, extremeX, centreY); 
+			canvas.curveTo(bezier1X, extremeY, extremeX, bezier2Y, extremeX, centreY); 
 		} else { 
 			/* Here we know: this is a bottom-right or top-left quadrant. Clockwise starts at the horizontal-extreme and vertical-centre. */
-			stream.curveTo(extremeX, bezier2Y, bezier1X, extremeY, centreX, extremeY); 
+			canvas.curveTo(extremeX, bezier2Y, bezier1X, extremeY, centreX, extremeY); 
 		}
 	}
 	
@@ -69,14 +69,14 @@ public class BezierCirclePainter extends PathPainter {
 		float bezier2Y = centreY + verticalBezierFactor * verticalSignedRadius ; 
 		if (verticalSignedRadius*horizontalSignedRadius>0) { 
 			/* Here we know: this is a top-right or bottom-left quadrant. Clockwise starts at the vertical-extreme and horizontal-centre. */
-			stream.moveTo(centreX, extremeY); 
+			canvas.moveTo(centreX, extremeY); 
 		} else { 
 			/* Here we know: this is a bottom-right or top-left quadrant. Clockwise starts at the horizontal-extreme and vertical-centre. */
-			stream.moveTo(extremeX, centreY); 
+			canvas.moveTo(extremeX, centreY); 
 		}
 		appendBezierQuarterCircle(centreX, centreY, horizontalSignedRadius, verticalSignedRadius, horizontalBezierFactor, verticalBezierFactor); 
-		stream.lineTo(centreX, centreY); 
-		stream.closePath(); 
+		canvas.lineTo(centreX, centreY); 
+		canvas.closePath(); 
 	}
 	
 	/**
@@ -90,10 +90,10 @@ public class BezierCirclePainter extends PathPainter {
 		float centreY = bottom + height / 2 ; 
 		float verticalRadius = height / 2 ; 
 		float horizontalSignedRadius = width ; 
-		stream.moveTo(left, bottom+height); 
+		canvas.moveTo(left, bottom+height); 
 		appendBezierQuarterCircle(centreX, centreY, horizontalSignedRadius, verticalRadius, horizontalBezierFactor, verticalBezierFactor); 
 		appendBezierQuarterCircle(centreX, centreY, horizontalSignedRadius, -verticalRadius, horizontalBezierFactor, verticalBezierFactor); 
-		stream.closePath(); 
+		canvas.closePath(); 
 	}
 
 	/**
@@ -107,10 +107,10 @@ public class BezierCirclePainter extends PathPainter {
 		float centreY = bottom + height / 2 ; 
 		float verticalRadius = height / 2 ; 
 		float horizontalSignedRadius = -width ; 
-		stream.moveTo(centreX, bottom); 
+		canvas.moveTo(centreX, bottom); 
 		appendBezierQuarterCircle(centreX, centreY, horizontalSignedRadius, -verticalRadius, horizontalBezierFactor, verticalBezierFactor); 
 		appendBezierQuarterCircle(centreX, centreY, horizontalSignedRadius, verticalRadius, horizontalBezierFactor, verticalBezierFactor); 
-		stream.closePath(); 
+		canvas.closePath(); 
 	}
 
 	/**
@@ -124,10 +124,10 @@ public class BezierCirclePainter extends PathPainter {
 		float centreY = bottom ; 
 		float verticalSignedRadius = height ; 
 		float horizontalRadius = width / 2 ; 
-		stream.moveTo(left, bottom); 
+		canvas.moveTo(left, bottom); 
 		appendBezierQuarterCircle(centreX, centreY, -horizontalRadius, verticalSignedRadius, horizontalBezierFactor, verticalBezierFactor); 
 		appendBezierQuarterCircle(centreX, centreY, horizontalRadius, verticalSignedRadius, horizontalBezierFactor, verticalBezierFactor); 
-		stream.closePath(); 
+		canvas.closePath(); 
 	}
 
 	/**
@@ -141,10 +141,10 @@ public class BezierCirclePainter extends PathPainter {
 		float centreY = bottom + height ; 
 		float verticalSignedRadius = - height ; 
 		float horizontalRadius = width / 2 ; 
-		stream.moveTo(left+width, bottom+height); 
+		canvas.moveTo(left+width, bottom+height); 
 		appendBezierQuarterCircle(centreX, centreY, horizontalRadius, verticalSignedRadius, horizontalBezierFactor, verticalBezierFactor); 
 		appendBezierQuarterCircle(centreX, centreY, -horizontalRadius, verticalSignedRadius, horizontalBezierFactor, verticalBezierFactor); 
-		stream.closePath(); 
+		canvas.closePath(); 
 	}
 
 	/**
@@ -158,12 +158,12 @@ public class BezierCirclePainter extends PathPainter {
 		float centreY = bottom + height / 2 ; 
 		float verticalRadius = height / 2 ; 
 		float horizontalRadius = width / 2 ; 
-		stream.moveTo(centreX, centreY+verticalRadius); 
+		canvas.moveTo(centreX, centreY+verticalRadius); 
 		appendBezierQuarterCircle(centreX, centreY, horizontalRadius, verticalRadius, horizontalBezierFactor, verticalBezierFactor); 
 		appendBezierQuarterCircle(centreX, centreY, horizontalRadius, -verticalRadius, horizontalBezierFactor, verticalBezierFactor); 
 		appendBezierQuarterCircle(centreX, centreY, -horizontalRadius, -verticalRadius, horizontalBezierFactor, verticalBezierFactor); 
 		appendBezierQuarterCircle(centreX, centreY, -horizontalRadius, verticalRadius, horizontalBezierFactor, verticalBezierFactor); 
-		stream.closePath(); 
+		canvas.closePath(); 
 	}
 	
 }
@@ -18,32 +18,40 @@ public class PathPainter {
 	
 	protected final Canvas canvas;
 	
+	/**
+	 * The canvas's PDF-Box stream. 
+	 * This is <code>null</code> if the canvas doesn't write a PDF (for example, {@link org.blockframe.core.CountingCanvas}), 
+	 * so subclasses should draw through the methods of {@link #canvas} instead. 
+	 * @deprecated Use {@link Canvas#getStream()}, which first ends any text object the canvas has left open. 
+	 */
+	@Deprecated
 	protected final PDPageContentStream stream;
 
+	@SuppressWarnings("deprecation")
 	public PathPainter(Canvas canvas) {
 		this.canvas = canvas ; 
 		this.stream = canvas.stream ; 
 	}
 	
 	/**
-	 * Convenience method for {@link PDPageContentStream#closePath()}. 
+	 * Convenience method for {@link Canvas#closePath()}. 
 	 */
 	public void closePath() throws IOException { 
-		stream.closePath(); 
+		canvas.closePath(); 
 	}
 
 	/**
-	 * Convenience method for {@link PDPageContentStream#fill()}. 
+	 * Convenience method for {@link Canvas#fill()}. 
 	 */
 	public void fillPath() throws IOException { 
-		stream.fill(); 
+		canvas.fill(); 
 	}
 
 	/**
-	 * Convenience method for {@link PDPageContentStream#stroke()}. 
+	 * Convenience method for {@link Canvas#stroke()}. 
 	 */
 	public void strokePath() throws IOException { 
-		stream.stroke(); 
+		canvas.stroke(); 
 	}
 
 }
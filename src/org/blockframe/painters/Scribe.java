@@ -4,7 +4,9 @@ import java.awt.Color;
 import java.io.IOException;
 
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.blockframe.core.Canvas;
+import org.blockframe.core.Kerning;
 import org.blockframe.core.Quill;
 
 
@@ -28,16 +30,15 @@ public class Scribe {
 
 	/**
 	 * Draws the given text, using PDF-Box coordinates. 
+	 * The text is kerned if the quill {@link Quill#isKerning()}. 
+	 * <p>
+	 * Consecutive strings share a text object, and the font is only set when it changes. See {@link Canvas#showTextAt(float, float, PDFont, float, String, Kerning)}. 
 	 */
 	public static void string_lb(Canvas canvas, Quill quill, float pdfLeft, float pdfBottom, String text) throws IOException { 
-		PDPageContentStream stream = canvas.stream; 
 		final Color quillColor = quill.getColor();
 		Color oldColor = canvas.setNonStrokingColor(quillColor); 
-		stream.beginText();
-		stream.newLineAtOffset(pdfLeft, pdfBottom); 
-		stream.setFont(quill.getFont(), quill.getFontSize()); 
-		stream.showText(text); 
-		stream.endText();
+		PDFont font = quill.getFont(); 
+		canvas.showTextAt(pdfLeft, pdfBottom, font, quill.getFontSize(), text, quill.isKerning() ? Kerning.get(font) : null); 
 		canvas.restoreNonStrokingColor(oldColor); 
 	}
 	
@@ -68,7 +69,6 @@ public class Scribe {
 	 * @param thickness May be null, defaults to 1. 
 	 */
 	public static void cross(Canvas canvas, Color color, double left, double top, double width, double height, Double thickness) throws IOException { 
-		PDPageContentStream stream = canvas.stream;
 		float pdfLeft = (float) left ; 
 		float pdfWidth = (float) width ; 
 		float pdfHeight = (float) height ;
@@ -77,14 +77,14 @@ public class Scribe {
 		float midX = pdfLeft + pdfWidth * 0.5f ; 
 		float midY = pdfBottom + pdfHeight * 0.5f ; 
 		float pdfThickness = (thickness!=null) ? (float) (thickness+0) : 1.0f ; 
-		stream.setLineWidth(pdfThickness); 
+		canvas.setLineWidth(pdfThickness); 
 		Color oldColor = canvas.setStrokingColor(color); 
-		stream.moveTo(midX, pdfBottom); 
-		stream.lineTo(midX, pdfTop); 
-		stream.stroke(); 
-		stream.moveTo(pdfLeft, midY); 
-		stream.lineTo(pdfLeft+pdfWidth, midY); 
-		stream.stroke(); 
+		canvas.moveTo(midX, pdfBottom); 
+		canvas.lineTo(midX, pdfTop); 
+		canvas.stroke(); 
+		canvas.moveTo(pdfLeft, midY); 
+		canvas.lineTo(pdfLeft+pdfWidth, midY); 
+		canvas.stroke(); 
 		canvas.restoreStrokingColor(oldColor); 
 	}
 	
@@ -94,21 +94,20 @@ public class Scribe {
 	 * @param thickness May be null, defaults to 1. 
 	 */
 	public static void diagonals(Canvas canvas, Color color, double left, double top, double width, double height, Double thickness) throws IOException { 
-		PDPageContentStream stream = canvas.stream;
 		float pdfLeft = (float) left ; 
 		float pdfWidth = (float) width ; 
 		float pdfHeight = (float) height ;
 		float pdfTop = canvas.getPdfY(top); 
 		float pdfBottom = canvas.getPdfY(top+pdfHeight); 
 		float pdfThickness = (thickness!=null) ? (float) (thickness+0) : 1.0f ; 
-		stream.setLineWidth(pdfThickness); 
+		canvas.setLineWidth(pdfThickness); 
 		Color oldColor = canvas.setStrokingColor(color); 
-		stream.moveTo(pdfLeft, pdfBottom); 
-		stream.lineTo(pdfLeft+pdfWidth, pdfTop); 
-		stream.stroke(); 
-		stream.moveTo(pdfLeft, pdfTop); 
-		stream.lineTo(pdfLeft+pdfWidth, pdfBottom); 
-		stream.stroke(); 
+		canvas.moveTo(pdfLeft, pdfBottom); 
+		canvas.lineTo(pdfLeft+pdfWidth, pdfTop); 
+		canvas.stroke(); 
+		canvas.moveTo(pdfLeft, pdfTop); 
+		canvas.lineTo(pdfLeft+pdfWidth, pdfBottom); 
+		canvas.stroke(); 
 		canvas.restoreStrokingColor(oldColor); 
 	}
 	
@@ -128,18 +127,21 @@ public class Scribe {
 	 * Draws a rectangle with bottom and left as given (in PDF coordinates, not BlockFrame), and width and height as given. 
 	 * <p>
 	 * NOTE: In the calling code, remember to convert the <em>bottom</code> of the rectangle to PDF coordinates, not the top. 
+	 * <p>
+	 * The colour is set before the rectangle's path is begun, as no colour operator may come between a path and its painting. 
+	 * Filling ends the path, so to both fill and stroke, the rectangle is added again for the stroke. 
 	 */
 	public static void rect_lbwh(Canvas canvas, boolean wantFill, boolean wantStroke, Color color, float pdfLeft, float pdfBottom, float pdfWidth, float pdfHeight) throws IOException { 
-		PDPageContentStream stream = canvas.stream;
-		stream.addRect(pdfLeft, pdfBottom, pdfWidth, pdfHeight); 
 		if (wantFill) { 
 			Color oldColor = canvas.setNonStrokingColor(color); 
-			stream.fill(); 
+			canvas.addRect(pdfLeft, pdfBottom, pdfWidth, pdfHeight); 
+			canvas.fill(); 
 			canvas.restoreNonStrokingColor(oldColor); 
 		}
 		if (wantStroke) { 
 			Color oldColor = canvas.setStrokingColor(color); 
-			stream.stroke();
+			canvas.addRect(pdfLeft, pdfBottom, pdfWidth, pdfHeight); 
+			canvas.stroke();
 			canvas.restoreStrokingColor(oldColor); 
 		}
 	}
@@ -0,0 +1,264 @@
+package org.blockframe.blocks;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.blockframe.core.Block;
+import org.blockframe.core.Block.PlacedBlock;
+import org.blockframe.core.Canvas;
+import org.blockframe.core.CountingCanvas;
+import org.blockframe.core.Frame;
+import org.blockframe.core.Kerning;
+import org.blockframe.core.Layout;
+import org.blockframe.core.PdfChapter;
+import org.blockframe.core.PdfDocument;
+import org.blockframe.core.Quill;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Checks that the steady-state hot paths allocate no more than their budgets.
+ * <p>
+ * Each test runs an operation until it is warm, then counts the bytes allocated by this thread over several rounds of many more operations,
+ * and divides the least by the number of units (words, cells) in them.
+ * The budgets are a little above the current figures, so an unexpected allocation on a hot path will push a test over its budget.
+ * <p>
+ * The allocation counts come from the HotSpot extension of {@link ThreadMXBean}. On a JVM without it, the tests are skipped.
+ */
+public class AllocationBudgetsTest {
+
+	private static final double PAGE_WIDTH = 612 - 2*36 ;
+
+	private static final double PAGE_HEIGHT = 792 - 2*36 ;
+
+	/**
+	 * Source of {@link Quill} instances. The {@linkplain Quill} constructor is not visible outside the <code>core</code> package.
+	 */
+	private static final PdfChapter quillSource = new PdfChapter(null) {};
+
+	/**
+	 * Rounds of measurement per test. A round during which the JIT recompiles the operation can allocate several times as much, so the least is taken.
+	 */
+	private static final int ROUND_COUNT = 5 ;
+
+	private Quill quill ;
+
+	@Before
+	public void setUp() {
+		assumeTrue("Per-thread allocation counting is not available", getAllocatedBytes()>=0);
+		this.quill = quillSource.newPageQuill(null);
+	}
+
+	/**
+	 * An operation whose allocation is measured.
+	 */
+	private interface Op {
+		void op() throws IOException ;
+	}
+
+	/**
+	 * Runs the operation for about a second to warm up, then for {@link #ROUND_COUNT} rounds of <code>opCount</code> more operations, counting the bytes allocated in each round.
+	 *
+	 * @return The bytes allocated per operation, in the round which allocated least.
+	 */
+	private static double measureBytesPerOp(Op op, int opCount) throws IOException {
+		long warmupEnd = System.nanoTime() + 1000000000L ;
+		do op.op(); while (System.nanoTime()<warmupEnd);
+		double minBytesPerOp = Double.MAX_VALUE ;
+		for (int round=0 ; round<ROUND_COUNT ; round++) {
+			long bytesBefore = getAllocatedBytes();
+			for (int i=0 ; i<opCount ; i++) op.op();
+			long bytesAfter = getAllocatedBytes();
+			minBytesPerOp = Math.min(minBytesPerOp, (bytesAfter-bytesBefore) / (double) opCount);
+		}
+		return minBytesPerOp ;
+	}
+
+	private static void assertWithinBudget(String name, double bytesPerUnit, double maxBytesPerUnit) {
+		assertTrue(name+" allocated "+bytesPerUnit+" bytes, over its budget of "+maxBytesPerUnit, bytesPerUnit<=maxBytesPerUnit);
+	}
+
+	/**
+	 * Returns the number of bytes allocated so far by the current thread, or <code>-1</code> if the JVM can't tell us.
+	 */
+	private static long getAllocatedBytes() {
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if (threadBean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) threadBean ;
+			if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+				return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return -1 ;
+	}
+
+	/**
+	 * With its measurement cached, a fill allocates only the {@link PlacedBlock} it returns, 48 bytes on a 64-bit JVM with compressed pointers.
+	 * That one can't be removed: the parent frame keeps it until the page is drawn, and a block may be placed again after a revert.
+	 * Here the caller discards it, so escape analysis sometimes removes it, and some runs measure nothing.
+	 * The budget allows the one placed block, with room for a JVM which lays it out a little larger.
+	 */
+	@Test
+	public void stringBlockFill() throws IOException {
+		final StringBlock block = new StringBlock("seventy");
+		final Layout layout = new Layout(PAGE_WIDTH, PAGE_HEIGHT);
+		double bytesPerFill = measureBytesPerOp(new Op() {
+			public void op() throws IOException {
+				block.fill(quill, layout);
+			}
+		}, 100000);
+		assertWithinBudget("StringBlock.fill", bytesPerFill, 64);
+	}
+
+	/**
+	 * The bold {@link Quill} is interned, so it is not copied on each fill. As for {@link #stringBlockFill()}, what remains is the returned {@link PlacedBlock}.
+	 */
+	@Test
+	public void stringBlockBoldFill() throws IOException {
+		final StringBlockBold block = new StringBlockBold("seventy");
+		final Layout layout = new Layout(PAGE_WIDTH, PAGE_HEIGHT);
+		double bytesPerFill = measureBytesPerOp(new Op() {
+			public void op() throws IOException {
+				block.fill(quill, layout);
+			}
+		}, 100000);
+		assertWithinBudget("StringBlockBold.fill", bytesPerFill, 64);
+	}
+
+	/**
+	 * Logging is off, so the draw of a block which draws nothing should allocate nothing.
+	 */
+	@Test
+	public void placedBlockDraw() throws IOException {
+		final PlacedBlock placedBlock = new EmptyBlock().fill(quill, new Layout(PAGE_WIDTH, PAGE_HEIGHT));
+		/* The draw ends any open text object first, so it needs a canvas, though the empty block draws nothing on it. */
+		final Canvas canvas = new CountingCanvas(PAGE_HEIGHT, new CountingCanvas.Tally());
+		double bytesPerDraw = measureBytesPerOp(new Op() {
+			public void op() throws IOException {
+				placedBlock.draw(canvas, 100.5, 200.5);
+			}
+		}, 100000);
+		assertWithinBudget("PlacedBlock.draw", bytesPerDraw, 8);
+	}
+
+	/**
+	 * Words in a paragraph switch between fonts, such as regular and bold. The tables of recent fonts are kept, so switching back allocates nothing.
+	 */
+	@Test
+	public void kerningGetAlternatingFonts() throws IOException {
+		double bytesPerSwitch = measureBytesPerOp(new Op() {
+			public void op() throws IOException {
+				Kerning.get(PDType1Font.HELVETICA);
+				Kerning.get(PDType1Font.HELVETICA_BOLD);
+			}
+		}, 100000);
+		assertWithinBudget("Kerning.get, alternating fonts", bytesPerSwitch, 8);
+	}
+
+	/**
+	 * Lines are built in buffers owned by the frame, so what remains per word is the frame's list of children, and the list of those it keeps when reverted.
+	 * The paragraph is laid out in a layout tall enough that it is never split, then reverted ready for the next fill.
+	 */
+	@Test
+	public void frameReadingFillPerWord() throws IOException {
+		final int wordCount = 10000 ;
+		final Frame paragraph = new FrameReading();
+		for (int i=0 ; i<wordCount ; i++) paragraph.write(new StringBlock(WORDS[i%WORDS.length]));
+		final Layout layout = new Layout(PAGE_WIDTH, Double.MAX_VALUE/2);
+		double bytesPerFill = measureBytesPerOp(new Op() {
+			public void op() throws IOException {
+				paragraph.fill(quill, layout).revertToStart();
+			}
+		}, 50);
+		assertWithinBudget("FrameReading.fill, per word", bytesPerFill/wordCount, 160);
+	}
+
+	/**
+	 * Draws a 100x20 table onto a real PDF-Box page, which is made tall enough to hold the whole table.
+	 * The table is laid out by {@link PdfDocument#makePages()}, which closes its canvas once the page is drawn,
+	 * so the draws are measured on a fresh canvas over a new content stream for the page.
+	 * The borders are collected and merged in work space the table keeps between draws, so most of what remains is PDF-Box writing the operators.
+	 */
+	@Test
+	public void tableBlockDrawPerCell() throws IOException {
+		final int rowCount = 100 ;
+		final int columnCount = 20 ;
+		final TableDrawDocument document = new TableDrawDocument();
+		document.write(new NumberTable(rowCount, columnCount));
+		document.makePages();
+		final Canvas canvas = document.newPageCanvas();
+		try {
+			double bytesPerDraw = measureBytesPerOp(new Op() {
+				public void op() throws IOException {
+					document.placedPageFrame.draw(canvas, document.left, document.top);
+				}
+			}, 20);
+			assertWithinBudget("TableBlock.draw, per cell", bytesPerDraw/(rowCount*columnCount), 384);
+		} finally {
+			canvas.close();
+			document.close();
+		}
+	}
+
+	/**
+	 * A document on a page tall enough for a whole table. It keeps the placed page frame, and makes fresh canvases to draw it on again.
+	 */
+	private static class TableDrawDocument extends PdfDocument {
+		PDPage pdPage ;
+		double left ;
+		double top ;
+		PlacedBlock placedPageFrame ;
+		@Override
+		public Layout newPageLayout(PDPage pdPage, Page prevPage) {
+			return super.newPageLayout(pdPage, prevPage).setSize(null, Double.MAX_VALUE/2);
+		}
+		@Override
+		protected void drawPageFrame(Canvas canvas, double left, double top, PlacedBlock placedPageFrame) throws IOException {
+			this.pdPage = canvas.page ;
+			this.left = left ;
+			this.top = top ;
+			this.placedPageFrame = placedPageFrame ;
+		}
+		Canvas newPageCanvas() throws IOException {
+			return newCanvas(pdPage);
+		}
+		void close() throws IOException {
+			pdDocument.close();
+		}
+	}
+
+	private static final String[] WORDS = "the quick brown fox jumps over a lazy dog while seventy two zebras watch in amazement".split(" ");
+
+	/**
+	 * A block which draws nothing.
+	 */
+	private static class EmptyBlock extends Block {
+		@Override
+		public PlacedBlock fill(Quill receivedQuill, Layout receivedLayout) throws IOException {
+			return new PlacedBlock().setDimensions(10, 10);
+		}
+		@Override
+		public void draw(Canvas canvas, double left, double top, double width, double height) throws IOException {}
+	}
+
+	/**
+	 * A table whose cells hold the product of the row and column numbers, like {@link org.blockframe.examples.G_Table}.
+	 */
+	private static class NumberTable extends TableBlock {
+		NumberTable(int rowCount, int columnCount) {
+			super(rowCount, columnCount);
+		}
+		@Override
+		protected Block getCellBlock(int row, int column) {
+			return new StringBlock(String.valueOf((row+1)*(column+1)));
+		}
+	}
+
+}
@@ -0,0 +1,153 @@
+package org.blockframe.blocks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.blockframe.core.Block;
+import org.junit.Test;
+
+
+/**
+ * Checks how {@link MarkdownSource} splits text into blocks, which asterisks it takes as emphasis marks, and that it reads no further than it must.
+ */
+public class MarkdownSourceTest {
+
+	/**
+	 * Returns the text of the first paragraph made from the Markdown.
+	 */
+	private static String getFirstText(String markdown) {
+		ParagraphBlock paragraph = (ParagraphBlock) new MarkdownSource(new StringReader(markdown)).nextBlock();
+		return paragraph.getText() ;
+	}
+
+	/**
+	 * Returns the text of the paragraph, failing if the block isn't one.
+	 */
+	private static String getText(Block block) {
+		assertTrue("Expected a paragraph, not "+block, block instanceof ParagraphBlock);
+		return ((ParagraphBlock) block).getText() ;
+	}
+
+	@Test
+	public void splitsParagraphsOnBlankLines() {
+		MarkdownSource source = new MarkdownSource(new StringReader("one\ntwo\n\n  \n\nthree\n")).setParagraphGap(0);
+		/* Lines of a paragraph are joined with a space. Several blank lines, or ones holding only spaces, are one break. */
+		assertEquals("one two", getText(source.nextBlock()));
+		assertEquals("three", getText(source.nextBlock()));
+		assertNull(source.nextBlock());
+	}
+
+	@Test
+	public void putsGapBetweenParagraphs() {
+		MarkdownSource source = new MarkdownSource(new StringReader("one\n\ntwo"));
+		assertEquals("one", getText(source.nextBlock()));
+		assertTrue(source.nextBlock() instanceof SpacerHeight);
+		assertEquals("two", getText(source.nextBlock()));
+		assertNull(source.nextBlock());
+	}
+
+	@Test
+	public void readsHeadings() {
+		MarkdownSource source = new MarkdownSource(new StringReader("## Title\nBody text\n#hashtag\n\n####### Seven"));
+		Block heading = source.nextBlock();
+		assertEquals("Title", getText(heading));
+		assertTrue("A heading is kept with the next block", heading.isKeepWithNext());
+		/* No gap after a heading. A line starting with # but no space, or with more than six, is text. */
+		Block body = source.nextBlock();
+		assertEquals("Body text #hashtag", getText(body));
+		assertFalse(body.isKeepWithNext());
+		assertTrue(source.nextBlock() instanceof SpacerHeight);
+		assertEquals("####### Seven", getText(source.nextBlock()));
+		assertNull(source.nextBlock());
+	}
+
+	@Test
+	public void leavesHeadingMarksInPlainText() {
+		MarkdownSource source = new MarkdownSource(new StringReader("# Not a heading")).setMarkdown(false);
+		Block block = source.nextBlock();
+		assertEquals("# Not a heading", getText(block));
+		assertFalse(block.isKeepWithNext());
+	}
+
+	@Test
+	public void returnsNullAtEndAndCloses() {
+		LineCountingReader reader = new LineCountingReader("\n  \n");
+		MarkdownSource source = new MarkdownSource(reader);
+		assertNull("Blank text has no blocks", source.nextBlock());
+		assertTrue(reader.isClosed);
+		/* Asking again reads nothing more. */
+		assertNull(source.nextBlock());
+		assertEquals(2, reader.lineCount);
+	}
+
+	/**
+	 * Each block is read only when it is asked for, so a long text needn't be read, or held, all at once.
+	 */
+	@Test
+	public void readsLazily() {
+		StringBuilder markdown = new StringBuilder();
+		for (int i=0 ; i<1000 ; i++) markdown.append("Paragraph ").append(i).append("\n\n");
+		LineCountingReader reader = new LineCountingReader(markdown.toString());
+		MarkdownSource source = new MarkdownSource(reader).setParagraphGap(0);
+		assertEquals(0, reader.lineCount);
+		/* The paragraph's line, and the blank line ending it. */
+		assertEquals("Paragraph 0", getText(source.nextBlock()));
+		assertEquals(2, reader.lineCount);
+		assertEquals("Paragraph 1", getText(source.nextBlock()));
+		assertEquals(4, reader.lineCount);
+		assertFalse(reader.isClosed);
+	}
+
+	@Test
+	public void removesMatchedMarks() {
+		assertEquals("Note: unbelievable", getFirstText("**Note**: un*believ*able"));
+	}
+
+	@Test
+	public void keepsUnclosedMarksAsText() {
+		assertEquals("*nix systems", getFirstText("*nix systems"));
+		assertEquals("5*x + 3", getFirstText("5*x + 3"));
+		assertEquals("**draft and more", getFirstText("**draft and more"));
+	}
+
+	@Test
+	public void keepsUnclosedMarkBesideMatchedOnes() {
+		assertEquals("*nix is bold", getFirstText("*nix is **bold**"));
+		assertEquals("bold and 2*3", getFirstText("**bold** and 2*3"));
+	}
+
+	/**
+	 * Counts the lines {@link MarkdownSource} reads, and notes when it closes the reader.
+	 * A {@link BufferedReader} is used as it is, so its lines are the ones read.
+	 */
+	private static class LineCountingReader extends BufferedReader {
+
+		int lineCount = 0 ;
+
+		boolean isClosed = false ;
+
+		LineCountingReader(String text) {
+			super(new StringReader(text));
+		}
+
+		@Override
+		public String readLine() throws IOException {
+			String line = super.readLine();
+			if (line!=null) lineCount ++ ;
+			return line ;
+		}
+
+		@Override
+		public void close() throws IOException {
+			isClosed = true ;
+			super.close();
+		}
+	}
+
+}
@@ -0,0 +1,162 @@
+package org.blockframe.blocks;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.blockframe.core.Block;
+import org.blockframe.core.Block.PlacedBlock;
+import org.blockframe.core.Canvas;
+import org.blockframe.core.CountingCanvas;
+import org.blockframe.core.Frame;
+import org.blockframe.core.Layout;
+import org.blockframe.core.PdfDocument;
+import org.junit.Test;
+
+
+/**
+ * Checks that keeps and widow/orphan control never leave a page empty.
+ * <p>
+ * Each test lays out a short document on small pages, onto a {@link CountingCanvas}, and fails if any page is filled with nothing,
+ * or if the document runs to more than {@link #MAX_PAGES} pages, as it would if a paragraph were pushed from page to page.
+ */
+public class PaginationTest {
+
+	/**
+	 * Width of the page's content. Each word of {@link #LINE_WORD} fills most of it, so each is a line of its own.
+	 */
+	private static final double PAGE_WIDTH = 150 ;
+
+	private static final String LINE_WORD = "xxxxxxxxxxxxxxxxxxxx" ;
+
+	private static final int MAX_PAGES = 20 ;
+
+	/**
+	 * The first part would leave too few orphans, but is already at the top of the page, so moving it would only leave the page empty.
+	 */
+	@Test
+	public void paragraphBlockAtTop() throws IOException {
+		CheckedDocument document = new CheckedDocument(4.5);
+		document.write(newParagraphBlock(5));
+		document.makeAndCheckPages();
+	}
+
+	@Test
+	public void frameReadingAtTop() throws IOException {
+		CheckedDocument document = new CheckedDocument(4.5);
+		document.write(newFrameReading(5));
+		document.makeAndCheckPages();
+	}
+
+	/**
+	 * Here the paragraph is moved whole once, leaving the first page to the paragraph before it.
+	 */
+	@Test
+	public void paragraphBlockAfterAnother() throws IOException {
+		CheckedDocument document = new CheckedDocument(4.5);
+		document.write(new ParagraphBlock(LINE_WORD+" "+LINE_WORD));
+		document.write(newParagraphBlock(5));
+		document.makeAndCheckPages();
+	}
+
+	@Test
+	public void frameReadingAfterAnother() throws IOException {
+		CheckedDocument document = new CheckedDocument(4.5);
+		document.write(new ParagraphBlock(LINE_WORD+" "+LINE_WORD));
+		document.write(newFrameReading(5));
+		document.makeAndCheckPages();
+	}
+
+	/**
+	 * The heading is kept with the paragraph after it, which is moved whole. Between them, they mustn't leave a page empty.
+	 */
+	@Test
+	public void headingKeptWithNext() throws IOException {
+		CheckedDocument document = new CheckedDocument(4.5);
+		document.write(new ParagraphBlock(LINE_WORD).setKeepWithNext(true));
+		document.write(newParagraphBlock(5));
+		document.makeAndCheckPages();
+	}
+
+	/**
+	 * Paragraphs nested in a paragraph are split over pages like any other child. They once made the outer paragraph add empty lines forever.
+	 */
+	@Test(timeout=10000)
+	public void nestedFrameReadingSplits() throws IOException {
+		CheckedDocument document = new CheckedDocument(4.5);
+		Frame outer = new FrameReading();
+		outer.write(newFrameReading(5));
+		outer.write(newFrameReading(5));
+		document.write(outer);
+		document.makeAndCheckPages();
+		assertTrue("Ten lines should take three pages of four, not "+document.getPageCount(), document.getPageCount()==3);
+	}
+
+	private static Block newParagraphBlock(int lineCount) {
+		StringBuilder text = new StringBuilder();
+		for (int i=0 ; i<lineCount ; i++) text.append(LINE_WORD).append(' ');
+		ParagraphBlock paragraph = new ParagraphBlock(text.toString());
+		paragraph.setWidowOrphanLines(3, 3);
+		return paragraph ;
+	}
+
+	private static Block newFrameReading(int lineCount) {
+		Frame paragraph = new FrameReading();
+		for (int i=0 ; i<lineCount ; i++) paragraph.write(new StringBlock(LINE_WORD));
+		paragraph.setWidowOrphanLines(3, 3);
+		return paragraph ;
+	}
+
+	/**
+	 * A document with pages the given number of lines high, which notes the height each page is filled to.
+	 */
+	private static class CheckedDocument extends PdfDocument {
+
+		final double pageLines ;
+
+		final CountingCanvas.Tally tally = new CountingCanvas.Tally();
+
+		final List<Double> pageHeights = new ArrayList<Double>();
+
+		CheckedDocument(double pageLines) {
+			this.pageLines = pageLines ;
+			setMaxPageCount(MAX_PAGES);
+		}
+
+		@Override
+		public Layout newPageLayout(PDPage pdPage, Page prevPage) {
+			return new Layout(PAGE_WIDTH, pageLines*newPageQuill(prevPage).getFontHeight());
+		}
+
+		@Override
+		protected Canvas newCanvas(PDPage pdPage) throws IOException {
+			return new CountingCanvas(pdPage.getMediaBox().getHeight(), tally);
+		}
+
+		@Override
+		protected PlacedBlock fillPageFrame(Page page) throws IOException {
+			PlacedBlock placedBlock = super.fillPageFrame(page);
+			pageHeights.add(placedBlock.getHeight());
+			return placedBlock ;
+		}
+
+		/**
+		 * Makes the pages, without saving them, and fails if any is empty.
+		 * Running to more than {@link #MAX_PAGES} pages throws from {@link #makePages()}.
+		 */
+		void makeAndCheckPages() throws IOException {
+			try {
+				makePages();
+			} finally {
+				pdDocument.close();
+			}
+			for (int p=0 ; p<pageHeights.size() ; p++) {
+				assertTrue("Page "+(p+1)+" of "+pageHeights.size()+" is empty", pageHeights.get(p)>0);
+			}
+		}
+	}
+
+}
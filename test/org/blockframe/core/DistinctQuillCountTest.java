@@ -0,0 +1,61 @@
+package org.blockframe.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Color;
+import java.io.IOException;
+
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.blockframe.blocks.StringBlock;
+import org.blockframe.blocks.StringBlockBold;
+import org.junit.Test;
+
+
+/**
+ * Checks {@link PdfChapter#getDistinctQuillCount()}, which counts the quills of one document, whatever other documents are doing.
+ */
+public class DistinctQuillCountTest {
+
+	/**
+	 * A document laid out and drawn onto a {@link CountingCanvas}, without writing a PDF.
+	 */
+	private static class LayoutOnlyDocument extends PdfChapter {
+		LayoutOnlyDocument() {
+			super(null);
+		}
+		@Override
+		protected Canvas newCanvas(PDPage pdPage) {
+			return new CountingCanvas(pdPage.getMediaBox().getHeight(), new CountingCanvas.Tally());
+		}
+	}
+
+	@Test
+	public void countsEachStyleOnce() throws IOException {
+		LayoutOnlyDocument document = new LayoutOnlyDocument();
+		for (int i=0 ; i<500 ; i++) {
+			document.write(new StringBlock("plain"));
+			document.write(new StringBlockBold("bold"));
+		}
+		document.makePages();
+		assertEquals(2, document.getDistinctQuillCount());
+	}
+
+	@Test
+	public void isPerDocument() throws IOException {
+		LayoutOnlyDocument blueDocument = new LayoutOnlyDocument() {
+			@Override
+			public Quill newPageQuill(Page prevPage) {
+				return super.newPageQuill(prevPage).copy(Color.BLUE);
+			}
+		};
+		blueDocument.write(new StringBlockBold("bold"));
+		blueDocument.makePages();
+		LayoutOnlyDocument plainDocument = new LayoutOnlyDocument();
+		plainDocument.write(new StringBlock("plain"));
+		plainDocument.makePages();
+		/* The blue document's page quill, and its bold copy. */
+		assertEquals(2, blueDocument.getDistinctQuillCount());
+		assertEquals(1, plainDocument.getDistinctQuillCount());
+	}
+
+}
@@ -0,0 +1,69 @@
+package org.blockframe.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+
+/**
+ * Checks {@link Hyphenator}: the patterns, the minimum lengths, and the cache of hyphenation points.
+ */
+public class HyphenatorTest {
+
+	/**
+	 * The patterns Liang's thesis uses to hyphenate <i>hyphenation</i>, and an exception.
+	 */
+	private static final String PATTERNS =
+			"% The patterns matching 'hyphenation'.\n"+
+			"hy3ph he2n hena4 hen5at 1na n2at 1tio 2io o2n\n"+
+			"\\hyphenation{ta-ble}\n" ;
+
+	private static Hyphenator newHyphenator() throws IOException {
+		return new Hyphenator(new StringReader(PATTERNS), Hyphenator.DEFAULT_LEFT_MIN, Hyphenator.DEFAULT_RIGHT_MIN);
+	}
+
+	@Test
+	public void hyphenatesKnownPatternWord() throws IOException {
+		Hyphenator hyphenator = newHyphenator();
+		/* hy-phen-ation */
+		assertArrayEquals(new int[] { 2, 6 }, hyphenator.getHyphenationPoints("hyphenation"));
+		/* Case and punctuation around the letters don't change the points, but do move them. */
+		assertArrayEquals(new int[] { 3, 7 }, hyphenator.getHyphenationPoints("(Hyphenation,"));
+	}
+
+	@Test
+	public void usesExceptions() throws IOException {
+		/* Too short for the default minimums, so pass smaller ones. */
+		Hyphenator hyphenator = new Hyphenator(new StringReader(PATTERNS), 2, 2);
+		assertArrayEquals(new int[] { 2 }, hyphenator.getHyphenationPoints("table"));
+	}
+
+	@Test
+	public void leavesShortWordsWhole() throws IOException {
+		Hyphenator hyphenator = newHyphenator();
+		/* Four letters, fewer than the two before a hyphen and three after it. */
+		assertArrayEquals(new int[0], hyphenator.getHyphenationPoints("hyph"));
+		/* Long enough, with three letters after the break hy3ph allows. */
+		assertArrayEquals(new int[] { 2 }, hyphenator.getHyphenationPoints("hyphen"));
+	}
+
+	@Test
+	public void cachesAndEvicts() throws IOException {
+		Hyphenator hyphenator = newHyphenator();
+		int[] points = hyphenator.getHyphenationPoints("hyphenation");
+		assertSame(points, hyphenator.getHyphenationPoints("hyphenation"));
+		/* Looking the word up again made it the most recently used, so filling the cache with others evicts it last. */
+		for (int i=0 ; i<Hyphenator.CACHE_CAPACITY-1 ; i++) hyphenator.getHyphenationPoints("word"+i);
+		assertSame(points, hyphenator.getHyphenationPoints("hyphenation"));
+		for (int i=0 ; i<Hyphenator.CACHE_CAPACITY ; i++) hyphenator.getHyphenationPoints("other"+i);
+		int[] recomputed = hyphenator.getHyphenationPoints("hyphenation");
+		assertNotSame(points, recomputed);
+		assertArrayEquals(points, recomputed);
+	}
+
+}
@@ -0,0 +1,185 @@
+package org.blockframe.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFontDescriptor;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.encoding.Encoding;
+import org.apache.pdfbox.pdmodel.font.encoding.GlyphList;
+
+
+/**
+ * Writes the source of {@link Standard14Metrics}, from the metrics PDF-Box has for the Standard-14 fonts.
+ * <p>
+ * This is a build step, to be run again whenever PDF-Box is upgraded. It lives with the tests, so it isn't shipped in the library,
+ * but is in the same package as the metrics it writes.
+ * Usage, from the repository root after <code>mvn test-compile</code>: <code>Standard14MetricsGenerator [-check] [directory]</code>,
+ * with the library's test classes, classes and PDF-Box on the class path.
+ * The directory defaults to <code>src/org/blockframe/core</code>.
+ * With <code>-check</code>, nothing is written. Instead, the compiled {@link Standard14Metrics} is compared with PDF-Box,
+ * and the program exits with status 1 if they differ. {@link Standard14MetricsTest} makes the same check on every build.
+ */
+public class Standard14MetricsGenerator {
+
+	/**
+	 * The Standard-14 fonts, in the order they are written.
+	 */
+	static final PDType1Font[] FONTS = {
+		PDType1Font.TIMES_ROMAN, PDType1Font.TIMES_BOLD, PDType1Font.TIMES_ITALIC, PDType1Font.TIMES_BOLD_ITALIC,
+		PDType1Font.HELVETICA, PDType1Font.HELVETICA_BOLD, PDType1Font.HELVETICA_OBLIQUE, PDType1Font.HELVETICA_BOLD_OBLIQUE,
+		PDType1Font.COURIER, PDType1Font.COURIER_BOLD, PDType1Font.COURIER_OBLIQUE, PDType1Font.COURIER_BOLD_OBLIQUE,
+		PDType1Font.SYMBOL, PDType1Font.ZAPF_DINGBATS,
+	};
+
+	static final int TABLE_SIZE = 256 ;
+
+	static final int NO_GLYPH = 0xffff ;
+
+	public static void main(String[] args) throws IOException {
+		boolean isCheck = false ;
+		File directory = new File("src/org/blockframe/core");
+		for (String arg : args) {
+			if (arg.equals("-check")) isCheck = true ;
+			else directory = new File(arg);
+		}
+		if (isCheck) {
+			int differenceCount = check();
+			System.out.println(differenceCount==0 ? "Standard14Metrics matches PDF-Box." : differenceCount+" differences from PDF-Box. Run Standard14MetricsGenerator again.");
+			if (differenceCount>0) System.exit(1);
+			return ;
+		}
+		File file = new File(directory, "Standard14Metrics.java");
+		write(file);
+		System.out.println("Wrote "+file);
+	}
+
+	/**
+	 * Returns the width of each character from 0 to 255, in glyph units, or {@link Standard14Metrics#NO_GLYPH} if the font's encoding doesn't have it.
+	 * <p>
+	 * This uses the encoding and the font's own metrics, not the system font PDF-Box maps it to for drawing.
+	 * So the result doesn't depend on the fonts installed where this runs.
+	 */
+	static int[] getWidths(PDType1Font font) throws IOException {
+		GlyphList glyphList = font.getName().equals("ZapfDingbats") ? GlyphList.getZapfDingbats() : GlyphList.getAdobeGlyphList();
+		Encoding encoding = font.getEncoding();
+		int[] widths = new int[TABLE_SIZE] ;
+		for (int c=0 ; c<widths.length ; c++) {
+			String glyphName = glyphList.codePointToName(c);
+			Integer code = encoding.contains(glyphName) ? encoding.getNameToCodeMap().get(glyphName) : null ;
+			if (code==null) {
+				widths[c] = NO_GLYPH ;
+				continue ;
+			}
+			float width = font.getWidth(code);
+			if (width!=(int)width || width<0 || width>=NO_GLYPH) throw new IllegalStateException("Width "+width+" of "+glyphName+" in "+font.getName()+" won't fit in a char");
+			widths[c] = (int) width ;
+		}
+		return widths ;
+	}
+
+	/**
+	 * Returns the font bounding box, ascent and descent, in the order of {@link Standard14Metrics#BOUNDS}.
+	 */
+	static float[] getBounds(PDType1Font font) {
+		PDFontDescriptor descriptor = font.getFontDescriptor();
+		PDRectangle box = descriptor.getFontBoundingBox();
+		return new float[] { box.getLowerLeftX(), box.getLowerLeftY(), box.getUpperRightX(), box.getUpperRightY(), descriptor.getAscent(), descriptor.getDescent() };
+	}
+
+	static void write(File file) throws IOException {
+		PrintWriter out = new PrintWriter(file, "UTF-8");
+		try {
+			out.println("package org.blockframe.core;");
+			out.println();
+			out.println();
+			out.println("/**");
+			out.println(" * Metrics of the Standard-14 fonts, so {@link GlyphWidths} can build its tables without asking PDF-Box.");
+			out.println(" * <p>");
+			out.println(" * Generated by <code>Standard14MetricsGenerator</code>, in the test sources. Do not edit.");
+			out.println(" */");
+			out.println("final class Standard14Metrics {");
+			out.println();
+			out.println("\tstatic final int TABLE_SIZE = "+TABLE_SIZE+" ;");
+			out.println();
+			out.println("\t/** Marks a character the font's encoding doesn't have. */");
+			out.println("\tstatic final char NO_GLYPH = 0x"+Integer.toHexString(NO_GLYPH)+" ;");
+			out.println();
+			out.println("\tstatic final String[] NAMES = {");
+			for (PDType1Font font : FONTS) out.println("\t\t\""+font.getName()+"\",");
+			out.println("\t};");
+			out.println();
+			out.println("\t/** Width of each character from 0 to 255, in glyph units, one string per font. */");
+			out.println("\tstatic final String[] WIDTHS = {");
+			for (PDType1Font font : FONTS) {
+				int[] widths = getWidths(font);
+				out.println("\t\t/* "+font.getName()+" */");
+				for (int c=0 ; c<widths.length ; c+=16) {
+					out.print("\t\t\"");
+					for (int i=c ; i<c+16 ; i++) out.print(escape(widths[i]));
+					out.println((c+16<widths.length) ? "\" +" : "\",");
+				}
+			}
+			out.println("\t};");
+			out.println();
+			out.println("\t/** Font bounding box (lower-left x and y, upper-right x and y), ascent and descent, in glyph units. */");
+			out.println("\tstatic final float[][] BOUNDS = {");
+			for (PDType1Font font : FONTS) {
+				float[] bounds = getBounds(font);
+				StringBuilder line = new StringBuilder("\t\t{ ");
+				for (int i=0 ; i<bounds.length ; i++) line.append(i>0 ? ", " : "").append(bounds[i]).append('f');
+				out.println(line.append(" }, // ").append(font.getName()));
+			}
+			out.println("\t};");
+			out.println();
+			out.println("\t/**");
+			out.println("\t * Returns the index of the font in {@link #NAMES}, or -1.");
+			out.println("\t */");
+			out.println("\tstatic int indexOf(String fontName) {");
+			out.println("\t\tfor (int i=0 ; i<NAMES.length ; i++) if (NAMES[i].equals(fontName)) return i ;");
+			out.println("\t\treturn -1 ;");
+			out.println("\t}");
+			out.println();
+			out.println("}");
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Returns the character as an escape in a string literal.
+	 * Unicode escapes are translated before the source is parsed, so line breaks, quotes and backslashes need their own escapes.
+	 */
+	private static String escape(int c) {
+		if (c=='\n') return "\\n" ;
+		if (c=='\r') return "\\r" ;
+		if (c=='"') return "\\\"" ;
+		if (c=='\\') return "\\\\" ;
+		return String.format("\\u%04x", c);
+	}
+
+	/**
+	 * Returns the number of fonts whose compiled metrics differ from PDF-Box's.
+	 */
+	static int check() throws IOException {
+		int differenceCount = 0 ;
+		for (PDType1Font font : FONTS) {
+			int index = Standard14Metrics.indexOf(font.getName());
+			boolean isSame = index>=0 ;
+			if (isSame) {
+				int[] widths = getWidths(font);
+				for (int c=0 ; c<widths.length ; c++) if (Standard14Metrics.WIDTHS[index].charAt(c)!=widths[c]) isSame = false ;
+				isSame = isSame && Arrays.equals(Standard14Metrics.BOUNDS[index], getBounds(font));
+			}
+			if (!isSame) {
+				System.out.println("Differs: "+font.getName());
+				differenceCount ++ ;
+			}
+		}
+		return differenceCount ;
+	}
+
+}
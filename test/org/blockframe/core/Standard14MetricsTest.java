@@ -0,0 +1,21 @@
+package org.blockframe.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+
+/**
+ * Checks that the precompiled {@link Standard14Metrics} still match PDF-Box's, as <code>Standard14MetricsGenerator -check</code> does.
+ * If this fails after upgrading PDF-Box, run {@link Standard14MetricsGenerator} again.
+ */
+public class Standard14MetricsTest {
+
+	@Test
+	public void matchesPdfBox() throws IOException {
+		assertEquals("Fonts whose metrics differ from PDF-Box's", 0, Standard14MetricsGenerator.check());
+	}
+
+}